@@ -6,17 +6,26 @@ import com.fileviewer.dataprocessing.DataViewer;
 import com.fileviewer.dataprocessing.DataViewerImpl;
 import com.fileviewer.dataprocessing.FileLoader;
 import com.fileviewer.dataprocessing.FileLoaderImpl;
+import com.fileviewer.dataprocessing.PageCache;
+import com.fileviewer.dataprocessing.PageCacheImpl;
+import com.fileviewer.dataprocessing.PagePrefetcher;
+import com.fileviewer.dataprocessing.PagePrefetcherImpl;
 import com.fileviewer.gui.GUI;
+import com.fileviewer.gui.executor.RequestExecutor;
+import com.fileviewer.gui.executor.RequestExecutorImpl;
 import com.fileviewer.gui.progressbar.ProgressBarFactory;
 import com.fileviewer.gui.progressbar.ProgressBarFactoryImpl;
 import com.fileviewer.model.Model;
 import com.fileviewer.model.ModelImpl;
+import com.fileviewer.model.PageSizer;
+import com.fileviewer.model.PageSizerImpl;
 import com.fileviewer.observer.ProgObserverFactory;
 import com.fileviewer.observer.ProgObserverFactoryImpl;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.swing.*;
+import java.util.Locale;
 
 /**
  * The main application class.
@@ -26,8 +35,24 @@ import javax.swing.*;
 public class MainApp {
     private static final Logger logger = LogManager.getLogger(MainApp.class);
 
+    private static final String LOAD_MODE_OPTION = "--load-mode=";
+
+    private final FileLoader.LoadMode loadMode;
+
     public MainApp() {
+        this(FileLoader.LoadMode.MAPPED);
+    }
+
+    /**
+     * @param loadMode The LoadMode files are opened with.
+     */
+    public MainApp(FileLoader.LoadMode loadMode) {
         logger.debug("Constructing MainApp.");
+
+        if (loadMode == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        this.loadMode = loadMode;
     }
 
     public static void main(String[] args) {
@@ -38,20 +63,51 @@ public class MainApp {
             e.printStackTrace();
         }
 
-        MainApp mainApp = new MainApp();
+        MainApp mainApp = new MainApp(parseLoadMode(args));
         mainApp.runApp();
     }
 
+    /**
+     * Returns the LoadMode given by a --load-mode=&lt;mode&gt; argument, such as
+     * --load-mode=progressive.  Files are memory-mapped if no mode is given, or the mode is not
+     * recognised.
+     */
+    private static FileLoader.LoadMode parseLoadMode(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith(LOAD_MODE_OPTION))
+                continue;
+
+            String mode = arg.substring(LOAD_MODE_OPTION.length());
+
+            try {
+                return FileLoader.LoadMode.valueOf(mode.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                logger.error("Unknown load mode: " + mode + ".  Using MAPPED.");
+            }
+        }
+
+        return FileLoader.LoadMode.MAPPED;
+    }
+
     public void runApp() {
-        logger.info("Running File Viewer.");
+        logger.info("Running File Viewer with load mode " + loadMode + ".");
 
-        FileLoader fileLoader = new FileLoaderImpl();
-        DataViewer dataViewer = new DataViewerImpl();
         ProgObserverFactory progObserverFactory = new ProgObserverFactoryImpl();
+        FileLoader fileLoader = new FileLoaderImpl(loadMode, progObserverFactory);
+        DataViewer dataViewer = new DataViewerImpl();
         ProgressBarFactory progressBarFactory = new ProgressBarFactoryImpl();
         Model model = new ModelImpl();
+        PageCache pageCache = new PageCacheImpl();
+        PagePrefetcher pagePrefetcher = new PagePrefetcherImpl(dataViewer, progObserverFactory,
+                pageCache);
+
+        RequestExecutor requestExecutor = new RequestExecutorImpl();
+
+        // Tune the page sizes so that a page change takes around 50ms.
+        PageSizer pageSizer = new PageSizerImpl(50);
 
-        Controller controller = new ControllerImpl(fileLoader, model, dataViewer);
-        GUI gui = new GUI(controller, progObserverFactory, progressBarFactory);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher, pageSizer);
+        GUI gui = new GUI(controller, progObserverFactory, progressBarFactory, requestExecutor);
     }
 }
@@ -0,0 +1,111 @@
+package com.fileviewer.controller;
+
+import com.fileviewer.dataprocessing.DataViewer.DataType;
+import com.fileviewer.dto.AnalysisDTO;
+import com.fileviewer.dto.ChangeViewDTO;
+import com.fileviewer.dto.HitDTO;
+import com.fileviewer.dto.LoadFileDTO;
+import com.fileviewer.dto.PageChangeDTO;
+import com.fileviewer.dto.RowsDTO;
+import com.fileviewer.dto.SearchDTO;
+import com.fileviewer.observer.ProgObserver;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A non-blocking variant of the Controller.  Each request runs in the background and returns a
+ * CompletableFuture of its response.  Cancelling the future cancels the request's ProgObserver,
+ * which stops the loading, decoding or rendering in progress at its next checkpoint.  The
+ * observer is marked as finished once the request has stopped running.
+ * Each sink may be null if the page does not need to be streamed.
+ * Controller#recordLayoutTime is not wrapped, as it only records a measurement.
+ */
+public interface AsyncController {
+    /**
+     * Loads the specified file in the background.
+     * @see Controller#loadFile(ProgObserver, File, Consumer)
+     */
+    CompletableFuture<LoadFileDTO> loadFile(ProgObserver observer, File file,
+            Consumer<String> sink);
+
+    /**
+     * Changes the view of the data to a different DataType in the background.
+     * @see Controller#changeViewType(DataType, ProgObserver, Consumer)
+     */
+    CompletableFuture<ChangeViewDTO> changeViewType(DataType type, ProgObserver observer,
+            Consumer<String> sink);
+
+    /**
+     * Fetches the next page in the background.
+     * @see Controller#showNextPage(ProgObserver, Consumer)
+     */
+    CompletableFuture<PageChangeDTO> showNextPage(ProgObserver observer, Consumer<String> sink);
+
+    /**
+     * Fetches the previous page in the background.
+     * @see Controller#showPrevPage(ProgObserver, Consumer)
+     */
+    CompletableFuture<PageChangeDTO> showPrevPage(ProgObserver observer, Consumer<String> sink);
+
+    /**
+     * Fetches the first page in the background.
+     * @see Controller#showFirstPage(ProgObserver, Consumer)
+     */
+    CompletableFuture<PageChangeDTO> showFirstPage(ProgObserver observer, Consumer<String> sink);
+
+    /**
+     * Fetches the page starting at an offset in the background.
+     * @see Controller#goToOffset(long, boolean, ProgObserver, Consumer)
+     */
+    CompletableFuture<PageChangeDTO> goToOffset(long offset, boolean relative,
+            ProgObserver observer, Consumer<String> sink);
+
+    /**
+     * Fetches a page by its number in the background.
+     * @see Controller#goToPage(long, ProgObserver, Consumer)
+     */
+    CompletableFuture<PageChangeDTO> goToPage(long pageNumber, ProgObserver observer,
+            Consumer<String> sink);
+
+    /**
+     * Searches the loaded file for a byte pattern in the background.
+     * @see Controller#findBytes(byte[], ProgObserver, LongConsumer)
+     */
+    CompletableFuture<SearchDTO> findBytes(byte[] pattern, ProgObserver observer,
+            LongConsumer hitSink);
+
+    /**
+     * Searches the loaded file for text in the background.
+     * @see Controller#findText(String, boolean, ProgObserver, LongConsumer)
+     */
+    CompletableFuture<SearchDTO> findText(String query, boolean regex, ProgObserver observer,
+            LongConsumer hitSink);
+
+    /**
+     * Fetches the page of the next search hit in the background.
+     * @see Controller#showNextHit(ProgObserver, Consumer)
+     */
+    CompletableFuture<HitDTO> showNextHit(ProgObserver observer, Consumer<String> sink);
+
+    /**
+     * Fetches the page of the previous search hit in the background.
+     * @see Controller#showPrevHit(ProgObserver, Consumer)
+     */
+    CompletableFuture<HitDTO> showPrevHit(ProgObserver observer, Consumer<String> sink);
+
+    /**
+     * Analyzes the loaded file in the background.
+     * @see Controller#analyzeFile(ProgObserver)
+     */
+    CompletableFuture<AnalysisDTO> analyzeFile(ProgObserver observer);
+
+    /**
+     * Fetches a run of rows in the background.
+     * @see Controller#fetchRows(long, int, int, ProgObserver)
+     */
+    CompletableFuture<RowsDTO> fetchRows(long startByteIndex, int bytesPerRow, int rowCount,
+            ProgObserver observer);
+}
@@ -0,0 +1,154 @@
+package com.fileviewer.controller;
+
+import com.fileviewer.dataprocessing.DataViewer.DataType;
+import com.fileviewer.dto.AnalysisDTO;
+import com.fileviewer.dto.ChangeViewDTO;
+import com.fileviewer.dto.HitDTO;
+import com.fileviewer.dto.LoadFileDTO;
+import com.fileviewer.dto.PageChangeDTO;
+import com.fileviewer.dto.RowsDTO;
+import com.fileviewer.dto.SearchDTO;
+import com.fileviewer.observer.ProgObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * An AsyncController which runs the requests of a blocking Controller on an Executor.
+ */
+public class AsyncControllerImpl implements AsyncController {
+    private static final Logger logger = LogManager.getLogger(AsyncControllerImpl.class);
+
+    private final Controller controller;
+    private final Executor executor;
+
+    /**
+     * @param controller The Controller which serves the requests.
+     * @param executor The Executor to run the requests on.
+     */
+    public AsyncControllerImpl(Controller controller, Executor executor) {
+        logger.debug("Constructing AsyncControllerImpl.");
+
+        if (controller == null || executor == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        this.controller = controller;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<LoadFileDTO> loadFile(ProgObserver observer, File file,
+            Consumer<String> sink) {
+        if (file == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        return submit(observer, () -> controller.loadFile(observer, file, sink));
+    }
+
+    public CompletableFuture<ChangeViewDTO> changeViewType(DataType type, ProgObserver observer,
+            Consumer<String> sink) {
+        if (type == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        return submit(observer, () -> controller.changeViewType(type, observer, sink));
+    }
+
+    public CompletableFuture<PageChangeDTO> showNextPage(ProgObserver observer,
+            Consumer<String> sink) {
+        return submit(observer, () -> controller.showNextPage(observer, sink));
+    }
+
+    public CompletableFuture<PageChangeDTO> showPrevPage(ProgObserver observer,
+            Consumer<String> sink) {
+        return submit(observer, () -> controller.showPrevPage(observer, sink));
+    }
+
+    public CompletableFuture<PageChangeDTO> showFirstPage(ProgObserver observer,
+            Consumer<String> sink) {
+        return submit(observer, () -> controller.showFirstPage(observer, sink));
+    }
+
+    public CompletableFuture<PageChangeDTO> goToOffset(long offset, boolean relative,
+            ProgObserver observer, Consumer<String> sink) {
+        return submit(observer, () -> controller.goToOffset(offset, relative, observer, sink));
+    }
+
+    public CompletableFuture<PageChangeDTO> goToPage(long pageNumber, ProgObserver observer,
+            Consumer<String> sink) {
+        return submit(observer, () -> controller.goToPage(pageNumber, observer, sink));
+    }
+
+    public CompletableFuture<SearchDTO> findBytes(byte[] pattern, ProgObserver observer,
+            LongConsumer hitSink) {
+        if (pattern == null || hitSink == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        return submit(observer, () -> controller.findBytes(pattern, observer, hitSink));
+    }
+
+    public CompletableFuture<SearchDTO> findText(String query, boolean regex,
+            ProgObserver observer, LongConsumer hitSink) {
+        if (query == null || hitSink == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        return submit(observer, () -> controller.findText(query, regex, observer, hitSink));
+    }
+
+    public CompletableFuture<HitDTO> showNextHit(ProgObserver observer, Consumer<String> sink) {
+        return submit(observer, () -> controller.showNextHit(observer, sink));
+    }
+
+    public CompletableFuture<HitDTO> showPrevHit(ProgObserver observer, Consumer<String> sink) {
+        return submit(observer, () -> controller.showPrevHit(observer, sink));
+    }
+
+    public CompletableFuture<AnalysisDTO> analyzeFile(ProgObserver observer) {
+        return submit(observer, () -> controller.analyzeFile(observer));
+    }
+
+    public CompletableFuture<RowsDTO> fetchRows(long startByteIndex, int bytesPerRow,
+            int rowCount, ProgObserver observer) {
+        return submit(observer, () -> controller.fetchRows(startByteIndex, bytesPerRow,
+                rowCount, observer));
+    }
+
+    /**
+     * Runs the request on the executor.  Cancelling the returned future cancels the observer,
+     * and a request cancelled before it has started is never run.
+     */
+    private <T> CompletableFuture<T> submit(ProgObserver observer, Supplier<T> request) {
+        if (observer == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        future.whenComplete((result, error) -> {
+                if (future.isCancelled()) {
+                    logger.debug("Cancelling request.");
+                    observer.setCancelled(true);
+                }
+            });
+
+        executor.execute(() -> {
+                if (future.isDone()) {
+                    observer.setIsFinished(true);
+                    return;
+                }
+
+                try {
+                    future.complete(request.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    observer.setIsFinished(true);
+                }
+            });
+
+        return future;
+    }
+}
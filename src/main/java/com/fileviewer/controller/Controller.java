@@ -1,31 +1,46 @@
 package com.fileviewer.controller;
 
 import com.fileviewer.dataprocessing.DataViewer.DataType;
+import com.fileviewer.dto.AnalysisDTO;
 import com.fileviewer.dto.ChangeViewDTO;
+import com.fileviewer.dto.HitDTO;
 import com.fileviewer.dto.LoadFileDTO;
 import com.fileviewer.dto.PageChangeDTO;
+import com.fileviewer.dto.RowsDTO;
+import com.fileviewer.dto.SearchDTO;
 import com.fileviewer.observer.ProgObserver;
 
 import java.io.File;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 public interface Controller {
     /**
      * Loads the specified file and returns a LoadFileDTO object containing various data
      * or an error message.
      *
-     * NOTE: The file size in bytes must be below Integer.MAX_BYTES or an error flag will be set
-     * in the response.
-     *
      * @param observer The ProgObserver used to record progress.
      * @param file A File object to read.
      * @return A LoadFileDTO object containing the data.
      */
     LoadFileDTO loadFile(ProgObserver observer, File file);
 
+    /**
+     * Streaming variant of loadFile.
+     * The chunks of the page are passed to the sink, on the calling thread, as soon as they are
+     * rendered.  The complete page is still returned in the response.
+     *
+     * @param observer The ProgObserver used to record progress.
+     * @param file A File object to read.
+     * @param sink The Consumer to pass the rendered chunks of the first page to.
+     * @return A LoadFileDTO object containing the data.
+     */
+    LoadFileDTO loadFile(ProgObserver observer, File file, Consumer<String> sink);
+
     /**
      * Request a change of data view to a different type.  For example, a change from
-     * DataType.Characters to DataType.Hex.  Returns a ChangeViewDTO object containing various data
-     * or an error message.
+     * DataType.Characters to DataType.Hex.  The current page is kept and re-rendered in the new
+     * view.  Returns a ChangeViewDTO object containing various data or an error message.
      *
      * @param type The DataType to change to.
      * @param progObserver The ProgObserver used to record progress.
@@ -33,6 +48,19 @@ public interface Controller {
      */
     ChangeViewDTO changeViewType(DataType type, ProgObserver progObserver);
 
+    /**
+     * Streaming variant of changeViewType.
+     * The chunks of the page are passed to the sink, on the calling thread, as soon as they are
+     * rendered.  The complete page is still returned in the response.
+     *
+     * @param type The DataType to change to.
+     * @param progObserver The ProgObserver used to record progress.
+     * @param sink The Consumer to pass the rendered chunks of the page to.
+     * @return A ChangeViewDTO object containing the data.
+     */
+    ChangeViewDTO changeViewType(DataType type, ProgObserver progObserver,
+            Consumer<String> sink);
+
     /**
      * Requests the data for the next page.  If no more data is found, then an error flag will be
      * set in the response.
@@ -42,6 +70,17 @@ public interface Controller {
      */
     PageChangeDTO showNextPage(ProgObserver progObserver);
 
+    /**
+     * Streaming variant of showNextPage.
+     * The chunks of the page are passed to the sink, on the calling thread, as soon as they are
+     * rendered.  The complete page is still returned in the response.
+     *
+     * @param progObserver The ProgObserver used to record progress.
+     * @param sink The Consumer to pass the rendered chunks of the next page to.
+     * @return A PageChangeDTO object containing the data.
+     */
+    PageChangeDTO showNextPage(ProgObserver progObserver, Consumer<String> sink);
+
     /**
      * Requests the data for the previous page.  Errors will be recorded in the response object.
      *
@@ -50,6 +89,17 @@ public interface Controller {
      */
     PageChangeDTO showPrevPage(ProgObserver progObserver);
 
+    /**
+     * Streaming variant of showPrevPage.
+     * The chunks of the page are passed to the sink, on the calling thread, as soon as they are
+     * rendered.  The complete page is still returned in the response.
+     *
+     * @param progObserver The ProgObserver used to record progress.
+     * @param sink The Consumer to pass the rendered chunks of the previous page to.
+     * @return A PageChangeDTO object containing the data.
+     */
+    PageChangeDTO showPrevPage(ProgObserver progObserver, Consumer<String> sink);
+
     /**
      * Requests the data for the first page.  Errors will be recorded in the response object.
      *
@@ -57,4 +107,178 @@ public interface Controller {
      * @return A PageChangeDTO object containing the data.
      */
     PageChangeDTO showFirstPage(ProgObserver progObserver);
+
+    /**
+     * Streaming variant of showFirstPage.
+     * The chunks of the page are passed to the sink, on the calling thread, as soon as they are
+     * rendered.  The complete page is still returned in the response.
+     *
+     * @param progObserver The ProgObserver used to record progress.
+     * @param sink The Consumer to pass the rendered chunks of the first page to.
+     * @return A PageChangeDTO object containing the data.
+     */
+    PageChangeDTO showFirstPage(ProgObserver progObserver, Consumer<String> sink);
+
+    /**
+     * Requests the data for the page starting at the offset supplied.  Only that page is read
+     * and rendered, however far into the file it is.  In UTF views the page starts at the first
+     * code point boundary at or after the offset.  Errors will be recorded in the response
+     * object.
+     *
+     * @param offset The byte offset to go to.
+     * @param relative True if the offset is relative to the start of the current page.
+     * @param progObserver The ProgObserver used to record progress.
+     * @return A PageChangeDTO object containing the data.
+     */
+    PageChangeDTO goToOffset(long offset, boolean relative, ProgObserver progObserver);
+
+    /**
+     * Streaming variant of goToOffset.
+     * The chunks of the page are passed to the sink, on the calling thread, as soon as they are
+     * rendered.  The complete page is still returned in the response.
+     *
+     * @param offset The byte offset to go to.
+     * @param relative True if the offset is relative to the start of the current page.
+     * @param progObserver The ProgObserver used to record progress.
+     * @param sink The Consumer to pass the rendered chunks of the page to.
+     * @return A PageChangeDTO object containing the data.
+     */
+    PageChangeDTO goToOffset(long offset, boolean relative, ProgObserver progObserver,
+            Consumer<String> sink);
+
+    /**
+     * Requests the data for the page number supplied, counting from 1.  Only that page is read
+     * and rendered.  Errors will be recorded in the response object.
+     *
+     * @param pageNumber The number of the page to go to.
+     * @param progObserver The ProgObserver used to record progress.
+     * @return A PageChangeDTO object containing the data.
+     */
+    PageChangeDTO goToPage(long pageNumber, ProgObserver progObserver);
+
+    /**
+     * Streaming variant of goToPage.
+     * The chunks of the page are passed to the sink, on the calling thread, as soon as they are
+     * rendered.  The complete page is still returned in the response.
+     *
+     * @param pageNumber The number of the page to go to.
+     * @param progObserver The ProgObserver used to record progress.
+     * @param sink The Consumer to pass the rendered chunks of the page to.
+     * @return A PageChangeDTO object containing the data.
+     */
+    PageChangeDTO goToPage(long pageNumber, ProgObserver progObserver, Consumer<String> sink);
+
+    /**
+     * Searches the whole of the loaded file for a byte pattern.  The current page is not
+     * changed.  The offset of each match is passed to the sink as soon as it is found, from the
+     * threads running the search and in no particular order.  The hits are kept for
+     * showNextHit and showPrevHit, and highlighted on the pages returned.  If the pattern
+     * contains the pattern of the previous search, which completed, only the previous hits are
+     * checked rather than the whole file.  Errors, including cancellation, will be recorded in
+     * the response object.
+     *
+     * @param pattern The bytes to find.
+     * @param progObserver The ProgObserver used to record progress.
+     * @param hitSink The LongConsumer given the byte offset of each match.
+     * @return A SearchDTO object containing the number of matches, and whether there were too
+     *         many to index them all.
+     */
+    SearchDTO findBytes(byte[] pattern, ProgObserver progObserver, LongConsumer hitSink);
+
+    /**
+     * Searches the whole of the loaded file for text, or a regular expression, in the current
+     * character view: DataType.Characters, DataType.UTF8Characters or DataType.UTF16Characters.
+     * The current page is not changed.  The byte offset of the start of each match is passed to
+     * the sink as soon as it is found, in offset order.  The hits are kept for showNextHit and
+     * showPrevHit, and highlighted on the pages returned.  If literal text extends the text of
+     * the previous search, which completed in the same view, only the previous hits are checked
+     * rather than the whole file.  Errors, including cancellation, will be recorded in the
+     * response object.
+     *
+     * @param query The text or regular expression to find.
+     * @param regex True if the query is a regular expression, or false to find it literally.
+     * @param progObserver The ProgObserver used to record progress.
+     * @param hitSink The LongConsumer given the byte offset of each match.
+     * @return A SearchDTO object containing the number of matches, and whether there were too
+     *         many to index them all.
+     */
+    SearchDTO findText(String query, boolean regex, ProgObserver progObserver,
+            LongConsumer hitSink);
+
+    /**
+     * Requests the page starting at the next hit of the latest search: the hit after the one
+     * last shown, or after the start of the current page if that hit is no longer on it.
+     * Errors will be recorded in the response object.
+     *
+     * @param progObserver The ProgObserver used to record progress.
+     * @return A HitDTO object containing the data and the position of the hit.
+     */
+    HitDTO showNextHit(ProgObserver progObserver);
+
+    /**
+     * Streaming variant of showNextHit.
+     * The chunks of the page are passed to the sink, on the calling thread, as soon as they are
+     * rendered.  The complete page is still returned in the response.
+     *
+     * @param progObserver The ProgObserver used to record progress.
+     * @param sink The Consumer to pass the rendered chunks of the page to.
+     * @return A HitDTO object containing the data and the position of the hit.
+     */
+    HitDTO showNextHit(ProgObserver progObserver, Consumer<String> sink);
+
+    /**
+     * Requests the page starting at the previous hit of the latest search: the hit before the
+     * one last shown, or before the start of the current page if that hit is no longer on it.
+     * Errors will be recorded in the response object.
+     *
+     * @param progObserver The ProgObserver used to record progress.
+     * @return A HitDTO object containing the data and the position of the hit.
+     */
+    HitDTO showPrevHit(ProgObserver progObserver);
+
+    /**
+     * Streaming variant of showPrevHit.
+     * The chunks of the page are passed to the sink, on the calling thread, as soon as they are
+     * rendered.  The complete page is still returned in the response.
+     *
+     * @param progObserver The ProgObserver used to record progress.
+     * @param sink The Consumer to pass the rendered chunks of the page to.
+     * @return A HitDTO object containing the data and the position of the hit.
+     */
+    HitDTO showPrevHit(ProgObserver progObserver, Consumer<String> sink);
+
+    /**
+     * Analyzes the whole of the loaded file, counting how often each byte value occurs and
+     * measuring the Shannon entropy of each block.  The file is divided into at most a few
+     * thousand blocks, so that they can all be plotted.  The current page is not changed, and
+     * pages can be requested while the analysis runs.  Errors, including cancellation, will be
+     * recorded in the response object.
+     *
+     * @param progObserver The ProgObserver used to record progress.
+     * @return An AnalysisDTO object containing the histogram and entropies.
+     */
+    AnalysisDTO analyzeFile(ProgObserver progObserver);
+
+    /**
+     * Reports the time the GUI spent laying out text of the page last returned, so that the
+     * page size can be tuned to the whole cost of a page change.  May be called several times
+     * for one page.
+     *
+     * @param nanos The time spent, in nanoseconds.
+     */
+    void recordLayoutTime(long nanos);
+
+    /**
+     * Requests the data for a run of fixed-size rows starting at any offset of the loaded file,
+     * rendered in the current DataType.  The current page is not changed.  Fewer rows are
+     * returned if the end of the file is reached.  Errors will be recorded in the response object.
+     *
+     * @param startByteIndex The index of the first byte of the first row.
+     * @param bytesPerRow The number of bytes in each row.
+     * @param rowCount The maximum number of rows to return.
+     * @param progObserver The ProgObserver used to record progress.
+     * @return A RowsDTO object containing the data.
+     */
+    RowsDTO fetchRows(long startByteIndex, int bytesPerRow, int rowCount,
+            ProgObserver progObserver);
 }
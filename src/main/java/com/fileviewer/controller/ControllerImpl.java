@@ -1,256 +1,901 @@
 package com.fileviewer.controller;
 
+import com.fileviewer.dataprocessing.Analyzer;
+import com.fileviewer.dataprocessing.AnalyzerImpl;
+import com.fileviewer.dataprocessing.ByteSource;
+import com.fileviewer.dataprocessing.ByteStatistics;
 import com.fileviewer.dataprocessing.DataViewer;
 import com.fileviewer.dataprocessing.FileLoader;
+import com.fileviewer.dataprocessing.HitIndex;
+import com.fileviewer.dataprocessing.HitSink;
+import com.fileviewer.dataprocessing.PageCache;
+import com.fileviewer.dataprocessing.PageKey;
+import com.fileviewer.dataprocessing.PagePrefetcher;
+import com.fileviewer.dataprocessing.Searcher;
+import com.fileviewer.dataprocessing.SearcherImpl;
+import com.fileviewer.dto.AnalysisDTO;
 import com.fileviewer.dto.ChangeViewDTO;
+import com.fileviewer.dto.HitDTO;
 import com.fileviewer.dto.LoadFileDTO;
 import com.fileviewer.dto.PageChangeDTO;
+import com.fileviewer.dto.RowsDTO;
+import com.fileviewer.dto.SearchDTO;
 import com.fileviewer.exception.FetchDataException;
 import com.fileviewer.model.Model;
+import com.fileviewer.model.PageSizer;
+import com.fileviewer.model.PageSizerImpl;
+import com.fileviewer.model.Session;
 import com.fileviewer.observer.ProgObserver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import static com.fileviewer.dataprocessing.DataViewer.DataType;
 
 public class ControllerImpl implements Controller {
     private static final Logger logger = LogManager.getLogger(ControllerImpl.class);
 
+    // Files are analyzed in at most this many blocks, each a power of two bytes long.
+    private static final int MAX_ANALYSIS_BLOCKS = 4096;
+    private static final int MIN_ANALYSIS_BLOCK_SIZE = 256;
+
     private final FileLoader fileLoader;
     private final Model model;
     private final DataViewer dataViewer;
+    private final PageCache pageCache;
+    private final PagePrefetcher pagePrefetcher;
+    private final PageSizer pageSizer;
+    private final Searcher searcher;
+    private final Analyzer analyzer;
+
+    // The hits of the latest search, and the hit last jumped to, or -1.
+    private final AtomicReference<SearchResult> searchResult = new AtomicReference<>();
+    private final AtomicLong currentHit = new AtomicLong(-1);
+
+    // The searches, analyses and rows still reading each file, so that a replaced file is only
+    // closed once they have finished.
+    private final SourceLeases sourceLeases = new SourceLeases();
+
+    public ControllerImpl(FileLoader fileLoader, Model model, DataViewer dataViewer,
+            PageCache pageCache, PagePrefetcher pagePrefetcher) {
+        this(fileLoader, model, dataViewer, pageCache, pagePrefetcher, new PageSizerImpl());
+    }
+
+    public ControllerImpl(FileLoader fileLoader, Model model, DataViewer dataViewer,
+            PageCache pageCache, PagePrefetcher pagePrefetcher, PageSizer pageSizer) {
+        this(fileLoader, model, dataViewer, pageCache, pagePrefetcher, pageSizer,
+                new SearcherImpl());
+    }
 
-    public ControllerImpl(FileLoader fileLoader, Model model, DataViewer dataViewer) {
+    public ControllerImpl(FileLoader fileLoader, Model model, DataViewer dataViewer,
+            PageCache pageCache, PagePrefetcher pagePrefetcher, PageSizer pageSizer,
+            Searcher searcher) {
+        this(fileLoader, model, dataViewer, pageCache, pagePrefetcher, pageSizer, searcher,
+                new AnalyzerImpl());
+    }
+
+    public ControllerImpl(FileLoader fileLoader, Model model, DataViewer dataViewer,
+            PageCache pageCache, PagePrefetcher pagePrefetcher, PageSizer pageSizer,
+            Searcher searcher, Analyzer analyzer) {
         logger.debug("Constructing ControllerImpl");
 
         this.fileLoader = fileLoader;
         this.model = model;
         this.dataViewer = dataViewer;
+        this.pageCache = pageCache;
+        this.pagePrefetcher = pagePrefetcher;
+        this.pageSizer = pageSizer;
+        this.searcher = searcher;
+        this.analyzer = analyzer;
+    }
+
+    public LoadFileDTO loadFile(ProgObserver observer, File file) {
+        return loadFile(observer, file, null);
     }
 
-    public synchronized LoadFileDTO loadFile(ProgObserver observer, File file) {
+    public LoadFileDTO loadFile(ProgObserver observer, File file, Consumer<String> sink) {
         if (file == null || observer == null)
             throw new NullPointerException("Parameters cannot be null.");
 
-        // Check file is not bigger than Integer.MAX_VALUE in bytes.
-        if (file.length() >= Integer.MAX_VALUE) {
-            LoadFileDTO dto = new LoadFileDTO();
-            dto.setErrorOccurred(true);
-            dto.setErrorMessage("File size was too large.");
-
-            return dto;
-        }
+        Session session = model.getSession();
 
-        int[] tempFileData = fileLoader.loadFile(file, observer);
+        ByteSource tempFileData = fileLoader.loadFile(file, observer);
 
         observer.setPercentage(0);
 
         // If file is null then return.
-        if (tempFileData == null) {
-            LoadFileDTO dto = new LoadFileDTO();
-            dto.setErrorOccurred(true);
-            dto.setErrorMessage("An unknown error occurred.");
+        if (tempFileData == null)
+            return createError(new LoadFileDTO(), "An unknown error occurred.");
 
-            return dto;
-        }
+        Session loaded = new Session(tempFileData, session.getType(), 0,
+                pageSizer.getPageSize(session.getType()));
 
         String dataString;
         try {
-            dataString = fetchData(tempFileData, model.getCurrentType(), observer, 0,
-                    model.getMaxBytesPerPage());
+            dataString = fetchData(loaded, observer, sink);
         } catch (Exception e) {
-            LoadFileDTO dto = new LoadFileDTO();
-            dto.setErrorOccurred(true);
-            dto.setErrorMessage("Error fetching data string.");
+            tempFileData.close();
 
-            return dto;
+            return createError(new LoadFileDTO(), "Error fetching data string.");
+        }
+
+        String commitError = commit(session, loaded, observer);
+        if (commitError != null) {
+            tempFileData.close();
+
+            return createError(new LoadFileDTO(), commitError);
         }
 
-        model.setLastFileLoadedData(tempFileData);
-        model.setStartByteIndex(0);
+        // Release the previously loaded file now that it has been replaced.
+        pagePrefetcher.cancelAll();
+        pageCache.clear();
+        searchResult.set(null);
+        if (session.getData() != null)
+            sourceLeases.retire(session.getData());
+
+        prefetchNeighbours(loaded);
 
         LoadFileDTO dto = new LoadFileDTO();
-        dto.setCurrentPage(model.getCurrentPage());
-        dto.setFileSize(model.getLastFileLoadedData().length);
+        dto.setCurrentPage(loaded.getCurrentPage());
+        dto.setStartByteIndex(loaded.getStartByteIndex());
+        dto.setFileSize(tempFileData.size());
         dto.setFilename(file.getName());
+        dto.setPageSize(loaded.getPageSize());
+        dto.setLoadProgress(tempFileData.getLoadProgress());
         dto.setData(dataString);
 
         return dto;
     }
 
-    private synchronized String fetchData(DataType type, ProgObserver observer,
-            int startByteIndex, int endByteIndex) throws FetchDataException {
-        String dataString = fetchData(model.getLastFileLoadedData(), type, observer,
-                startByteIndex, endByteIndex);
+    /**
+     * Leases the data of a request which reads the file outside of the page requests, such as a
+     * search.  Each successful lease must be released once the request has finished.
+     * @return False if the file was replaced after the request read the session, in which case
+     *         it may already be closed.
+     */
+    private boolean leaseData(ByteSource data) {
+        sourceLeases.acquire(data);
 
-        return dataString;
+        // The file is only retired after the session replacing it is committed, so if the
+        // session still holds it, any retirement comes after this lease.
+        if (model.getSession().getData() == data)
+            return true;
+
+        sourceLeases.release(data);
+
+        return false;
     }
 
-    private synchronized String fetchData(int[] data, DataType type, ProgObserver observer,
-            int startByteIndex, int endByteIndex) throws FetchDataException {
-        String dataString = dataViewer.fetchDisplayData(data, observer, type, startByteIndex,
-                endByteIndex);
+    /**
+     * Fetches the current page of the session supplied from the cache, the prefetcher or the
+     * DataViewer, in that order.  When a sink is supplied, freshly rendered pages are streamed to
+     * it chunk by chunk, while pages that are already complete are passed to it whole.
+     * Every page fetched is recorded with the PageSizer, along with its render time if it had
+     * to be rendered.
+     */
+    private String fetchData(Session session, ProgObserver observer, Consumer<String> sink)
+            throws FetchDataException {
+        ByteSource data = session.getData();
+        DataType type = session.getType();
+        long startByteIndex = session.getStartByteIndex();
+        long endByteIndex = startByteIndex + session.getPageSize();
+
+        PageKey key = new PageKey(data, type, startByteIndex, endByteIndex - startByteIndex);
+
+        String dataString = pageCache.get(key);
+
+        if (dataString == null)
+            dataString = pagePrefetcher.takePage(data, type, startByteIndex, endByteIndex);
+
+        long renderStart = System.nanoTime();
+        boolean rendering = dataString == null;
+
+        if (dataString != null) {
+            if (sink != null)
+                sink.accept(dataString);
+        } else if (sink != null) {
+            StringBuilder page = new StringBuilder();
+
+            boolean rendered = dataViewer.streamDisplayData(data, observer, type,
+                    startByteIndex, endByteIndex, chunk -> {
+                        page.append(chunk);
+                        sink.accept(chunk);
+                    });
+
+            if (rendered)
+                dataString = page.toString();
+        } else {
+            dataString = dataViewer.fetchDisplayData(data, observer, type, startByteIndex,
+                    endByteIndex);
+        }
 
         if (dataString == null) {
             throw new FetchDataException();
         }
 
+        if (data != null)
+            pageSizer.recordPage(type, Math.min(endByteIndex, data.size()) - startByteIndex,
+                    rendering ? System.nanoTime() - renderStart : 0);
+
+        pageCache.put(key, dataString);
+
+        logger.debug("Page cache hits: " + pageCache.getHitCount() + ", misses: "
+                + pageCache.getMissCount());
+
         return dataString;
     }
 
-    public synchronized ChangeViewDTO changeViewType(DataType type, ProgObserver observer) {
-        if (type == null || observer == null)
-            throw new NullPointerException("Parameters cannot be null");
+    /**
+     * Replaces the session a request was rendered against with the one it leads to.  The
+     * request is not committed if it was cancelled, or if another request changed the session
+     * while it was rendering, as the page would no longer match the session.
+     *
+     * @return null if the session was replaced, otherwise a message explaining why not.
+     */
+    private String commit(Session session, Session updated, ProgObserver observer) {
+        if (observer.isCancelled())
+            return "The request was cancelled.";
+
+        if (!model.compareAndSetSession(session, updated)) {
+            logger.debug("Session changed while the request was rendering.");
+
+            return "The view was changed by another request.";
+        }
+
+        return null;
+    }
 
+    /**
+     * Renders the current page of the target session, then commits it in place of the session
+     * it was derived from.  The page data and number are recorded in the DTO supplied.
+     */
+    private <T extends PageChangeDTO> T changePage(T dto, Session session, Session target,
+            ProgObserver observer, Consumer<String> sink) {
         String data;
         try {
-            data = fetchData(type, observer, 0, model.getMaxBytesPerPage());
+            data = fetchData(target, observer, sink);
         } catch (Exception e) {
-            logger.error("Error trying to fetch data string.");
-
-            ChangeViewDTO dto = new ChangeViewDTO();
-            dto.setErrorOccurred(true);
-            dto.setErrorMessage("Unable to fetch data.");
+            logger.error("Unable to fetch data string.");
 
-            return dto;
+            return createError(dto, "Unable to fetch data.");
         }
 
-        model.setCurrentType(type);
-        model.setStartByteIndex(0);
+        String commitError = commit(session, target, observer);
+        if (commitError != null)
+            return createError(dto, commitError);
+
+        prefetchNeighbours(target);
 
-        ChangeViewDTO dto = new ChangeViewDTO();
-        dto.setCurrentPage(model.getCurrentPage());
         dto.setData(data);
+        dto.setCurrentPage(target.getCurrentPage());
+        dto.setStartByteIndex(target.getStartByteIndex());
+        dto.setHighlights(locateHits(target));
 
         return dto;
     }
 
-    public synchronized PageChangeDTO showNextPage(ProgObserver observer) {
+    /**
+     * Finds the search hits on the current page of the session, and where they fall in its
+     * rendered text.  Only the hits overlapping the page are looked at.
+     *
+     * @return The start and end character indexes of each hit, in pairs.
+     */
+    private int[] locateHits(Session session) {
+        SearchResult result = searchResult.get();
+        if (result == null || result.data != session.getData())
+            return new int[0];
+
+        long pageStart = session.getStartByteIndex();
+        long pageEnd = Math.min(pageStart + session.getPageSize(), session.getData().size());
+
+        long[] pairs = result.hits.getOverlapping(pageStart, pageEnd);
+        if (pairs.length == 0)
+            return new int[0];
+
+        // Starts and ends are each in ascending order, so each is located in a single pass.
+        long[] starts = new long[pairs.length / 2];
+        long[] ends = new long[pairs.length / 2];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = Math.max(pageStart, pairs[i * 2]);
+            ends[i] = Math.min(pageEnd, pairs[(i * 2) + 1]);
+        }
+
+        int[] startChars = dataViewer.locateCharacters(session.getData(), session.getType(),
+                pageStart, starts);
+        int[] endChars = dataViewer.locateCharacters(session.getData(), session.getType(),
+                pageStart, ends);
+
+        if (startChars == null || endChars == null)
+            return new int[0];
+
+        int[] highlights = new int[pairs.length];
+        for (int i = 0; i < starts.length; i++) {
+            highlights[i * 2] = startChars[i];
+            highlights[(i * 2) + 1] = endChars[i];
+        }
+
+        return highlights;
+    }
+
+    private static <T extends PageChangeDTO> T createError(T dto, String errorMessage) {
+        dto.setErrorOccurred(true);
+        dto.setErrorMessage(errorMessage);
+
+        return dto;
+    }
+
+    /**
+     * Starts rendering the pages either side of the current page in the background.
+     */
+    private void prefetchNeighbours(Session session) {
+        pagePrefetcher.prefetchNeighbours(session.getData(), session.getType(),
+                session.getStartByteIndex(), session.getPageSize());
+    }
+
+    public ChangeViewDTO changeViewType(DataType type, ProgObserver observer) {
+        return changeViewType(type, observer, null);
+    }
+
+    public ChangeViewDTO changeViewType(DataType type, ProgObserver observer,
+            Consumer<String> sink) {
+        if (type == null || observer == null)
+            throw new NullPointerException("Parameters cannot be null");
+
+        Session session = model.getSession();
+
+        // Stay at the same offset, so that switching views and back never moves the position.
+        // UTF views start at the first code point at or after it.
+        int pageSize = pageSizer.getPageSize(type);
+        long startByteIndex = session.getStartByteIndex();
+
+        if (session.getData() != null)
+            startByteIndex = dataViewer.alignStartIndex(session.getData(), type, startByteIndex);
+
+        return changePage(new ChangeViewDTO(), session, session.withType(type)
+                .withStartByteIndex(startByteIndex).withPageSize(pageSize), observer, sink);
+    }
+
+    public PageChangeDTO showNextPage(ProgObserver observer) {
+        return showNextPage(observer, null);
+    }
+
+    public PageChangeDTO showNextPage(ProgObserver observer, Consumer<String> sink) {
         logger.debug("Fetching next page.");
 
         if (observer == null)
             throw new NullPointerException("Parameters cannot be null");
 
-        if (model.getLastFileLoadedData() == null) {
-            PageChangeDTO dto = new PageChangeDTO();
-            dto.setErrorOccurred(true);
-            dto.setErrorMessage("No file has been loaded.");
+        Session session = model.getSession();
 
-            return dto;
+        if (session.getData() == null)
+            return createError(new PageChangeDTO(), "No file has been loaded.");
+
+        long tempStartIndex = session.getStartByteIndex() + session.getPageSize();
+        if (tempStartIndex >= session.getData().size())
+            return createError(new PageChangeDTO(), "No more data.");
+
+        return changePage(new PageChangeDTO(), session, session.withStartByteIndex(tempStartIndex),
+                observer, sink);
+    }
+
+    public PageChangeDTO showPrevPage(ProgObserver observer) {
+        return showPrevPage(observer, null);
+    }
+
+    public PageChangeDTO showPrevPage(ProgObserver observer, Consumer<String> sink) {
+        logger.debug("Fetching previous page.");
+
+        if (observer == null)
+            throw new NullPointerException("Parameters cannot be null");
+
+        Session session = model.getSession();
+
+        if (session.getData() == null)
+            return createError(new PageChangeDTO(), "No file has been loaded.");
+
+        long startByteIndex = session.getStartByteIndex() - session.getPageSize();
+
+        if (startByteIndex < 0)
+            startByteIndex = 0;
+
+        return changePage(new PageChangeDTO(), session, session.withStartByteIndex(startByteIndex),
+                observer, sink);
+    }
+
+    public PageChangeDTO showFirstPage(ProgObserver observer) {
+        return showFirstPage(observer, null);
+    }
+
+    public PageChangeDTO showFirstPage(ProgObserver observer, Consumer<String> sink) {
+        logger.debug("Fetching first page.");
+
+        if (observer == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        Session session = model.getSession();
+
+        if (session.getData() == null) {
+            logger.error("No file has been loaded.");
+
+            return createError(new PageChangeDTO(), "No file has been loaded.");
         }
 
-        int tempStartIndex = model.getStartByteIndex() + model.getMaxBytesPerPage();
-        if (tempStartIndex >= model.getLastFileLoadedData().length) {
-            PageChangeDTO dto = new PageChangeDTO();
-            dto.setErrorOccurred(true);
-            dto.setErrorMessage("No more data.");
+        return changePage(new PageChangeDTO(), session, session.withStartByteIndex(0), observer,
+                sink);
+    }
 
-            return dto;
+    public PageChangeDTO goToOffset(long offset, boolean relative, ProgObserver observer) {
+        return goToOffset(offset, relative, observer, null);
+    }
+
+    public PageChangeDTO goToOffset(long offset, boolean relative, ProgObserver observer,
+            Consumer<String> sink) {
+        logger.debug("Going to offset " + offset + (relative ? " (relative)." : "."));
+
+        if (observer == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        Session session = model.getSession();
+
+        if (session.getData() == null)
+            return createError(new PageChangeDTO(), "No file has been loaded.");
+
+        long startByteIndex;
+        try {
+            startByteIndex = relative ? Math.addExact(session.getStartByteIndex(), offset)
+                    : offset;
+        } catch (ArithmeticException e) {
+            startByteIndex = -1;
         }
 
-        String data;
+        if (startByteIndex < 0 || startByteIndex >= session.getData().size())
+            return createError(new PageChangeDTO(), "Offset is outside of the file.");
+
+        startByteIndex = dataViewer.alignStartIndex(session.getData(), session.getType(),
+                startByteIndex);
+
+        return changePage(new PageChangeDTO(), session, session.withStartByteIndex(startByteIndex),
+                observer, sink);
+    }
+
+    public PageChangeDTO goToPage(long pageNumber, ProgObserver observer) {
+        return goToPage(pageNumber, observer, null);
+    }
+
+    public PageChangeDTO goToPage(long pageNumber, ProgObserver observer,
+            Consumer<String> sink) {
+        logger.debug("Going to page " + pageNumber + ".");
+
+        if (observer == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        Session session = model.getSession();
+
+        if (session.getData() == null)
+            return createError(new PageChangeDTO(), "No file has been loaded.");
+
+        int pageSize = session.getPageSize();
+        long pageCount = Math.max(1, (session.getData().size() + pageSize - 1) / pageSize);
+
+        if (pageNumber < 1 || pageNumber > pageCount)
+            return createError(new PageChangeDTO(), "Page number must be between 1 and "
+                    + pageCount + ".");
+
+        long startByteIndex = dataViewer.alignStartIndex(session.getData(), session.getType(),
+                (pageNumber - 1) * pageSize);
+
+        return changePage(new PageChangeDTO(), session, session.withStartByteIndex(startByteIndex),
+                observer, sink);
+    }
+
+    public SearchDTO findBytes(byte[] pattern, ProgObserver observer, LongConsumer hitSink) {
+        logger.debug("Searching for a " + (pattern != null ? pattern.length : 0)
+                + " byte pattern.");
+
+        if (pattern == null || observer == null || hitSink == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        // The search holds on to the snapshot's data, and never blocks page requests.
+        ByteSource data = model.getSession().getData();
+
+        if (data == null)
+            return createError(new SearchDTO(), "No file has been loaded.");
+
+        if (pattern.length == 0)
+            return createError(new SearchDTO(), "The search pattern is empty.");
+
+        if (!leaseData(data))
+            return createError(new SearchDTO(), "The file was replaced.");
+
         try {
-            data = fetchData(model.getCurrentType(), observer, tempStartIndex,
-                    tempStartIndex + model.getMaxBytesPerPage());
-        } catch (Exception e) {
-            logger.error("Error trying to fetch data string.");
+            SearchResult previous = searchResult.get();
+            SearchResult result = startSearch(new SearchResult(data, pattern.clone(), null, null));
+
+            HitSink sink = (start, end) -> {
+                    result.hits.add(start, end);
+                    hitSink.accept(start);
+                };
+
+            // Every occurrence of a pattern contains any shorter pattern it was extended from, so
+            // only the previous hits need to be checked.
+            int shift = canNarrow(previous, data) && previous.pattern != null
+                    ? indexOf(pattern, previous.pattern) : -1;
+
+            long hitCount;
+            if (shift >= 0) {
+                logger.debug("Narrowing the " + previous.hits.size() + " previous hits.");
+
+                long[] candidates = previous.hits.getStarts();
+                for (int i = 0; i < candidates.length; i++)
+                    candidates[i] -= shift;
+
+                hitCount = searcher.refineBytes(data, candidates, pattern, observer, sink);
+            } else {
+                hitCount = searcher.findBytes(data, pattern, observer, sink);
+            }
+
+            return completeSearch(result, hitCount, data, observer);
+        } finally {
+            sourceLeases.release(data);
+        }
+    }
+
+    public SearchDTO findText(String query, boolean regex, ProgObserver observer,
+            LongConsumer hitSink) {
+        logger.debug("Searching for " + (regex ? "regular expression " : "text ") + query);
+
+        if (query == null || observer == null || hitSink == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        Session session = model.getSession();
+        ByteSource data = session.getData();
+        DataType type = session.getType();
+
+        if (data == null)
+            return createError(new SearchDTO(), "No file has been loaded.");
+
+        if (query.isEmpty())
+            return createError(new SearchDTO(), "The search text is empty.");
+
+        if (type != DataType.Characters && type != DataType.UTF8Characters
+                && type != DataType.UTF16Characters)
+            return createError(new SearchDTO(), "Text can only be searched in the Char, UTF-8 "
+                    + "and UTF-16 Values views.");
+
+        Pattern pattern;
+        try {
+            pattern = regex ? Pattern.compile(query) : Pattern.compile(query, Pattern.LITERAL);
+        } catch (PatternSyntaxException e) {
+            return createError(new SearchDTO(), "Invalid regular expression: "
+                    + e.getDescription() + ".");
+        }
+
+        if (!leaseData(data))
+            return createError(new SearchDTO(), "The file was replaced.");
 
-            PageChangeDTO dto = new PageChangeDTO();
+        try {
+            SearchResult previous = searchResult.get();
+            SearchResult result = startSearch(new SearchResult(data, null, regex ? null : query,
+                    type));
+
+            HitSink sink = (start, end) -> {
+                    result.hits.add(start, end);
+                    hitSink.accept(start);
+                };
+
+            // Text which cannot overlap itself is found everywhere it occurs, so when it is
+            // extended the previous hits are the only places the new text can start.
+            boolean narrow = !regex && canNarrow(previous, data) && previous.text != null
+                    && previous.type == type && query.startsWith(previous.text)
+                    && !overlapsItself(previous.text);
+
+            long hitCount;
+            if (narrow) {
+                logger.debug("Narrowing the " + previous.hits.size() + " previous hits.");
+
+                hitCount = searcher.refineText(data, type, previous.hits.getStarts(), query,
+                        observer, sink);
+            } else {
+                hitCount = searcher.findText(data, type, pattern, observer, sink);
+            }
+
+            return completeSearch(result, hitCount, data, observer);
+        } finally {
+            sourceLeases.release(data);
+        }
+    }
+
+    /**
+     * Replaces the hits of the previous search with the empty index of a new one.
+     */
+    private SearchResult startSearch(SearchResult result) {
+        searchResult.set(result);
+        currentHit.set(-1);
+
+        return result;
+    }
+
+    /**
+     * @return True if the previous search holds every hit in the data, so a search for an
+     *         extended query can narrow its hits instead of scanning the whole file again.
+     */
+    private static boolean canNarrow(SearchResult previous, ByteSource data) {
+        return previous != null && previous.data == data && previous.complete
+                && !previous.hits.isTruncated();
+    }
+
+    /**
+     * @return The index of the first occurrence of target in array, or -1 if there is none.
+     */
+    private static int indexOf(byte[] array, byte[] target) {
+        for (int i = 0; i + target.length <= array.length; i++) {
+            if (Arrays.equals(array, i, i + target.length, target, 0, target.length))
+                return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return True if the text ends with one of its own proper prefixes, so two occurrences of
+     *         it can overlap.
+     */
+    private static boolean overlapsItself(String text) {
+        for (int length = 1; length < text.length(); length++) {
+            if (text.regionMatches(0, text, text.length() - length, length))
+                return true;
+        }
+
+        return false;
+    }
+
+    public HitDTO showNextHit(ProgObserver observer) {
+        return showNextHit(observer, null);
+    }
+
+    public HitDTO showNextHit(ProgObserver observer, Consumer<String> sink) {
+        logger.debug("Fetching next hit.");
+
+        return showHit(true, observer, sink);
+    }
+
+    public HitDTO showPrevHit(ProgObserver observer) {
+        return showPrevHit(observer, null);
+    }
+
+    public HitDTO showPrevHit(ProgObserver observer, Consumer<String> sink) {
+        logger.debug("Fetching previous hit.");
+
+        return showHit(false, observer, sink);
+    }
+
+    /**
+     * Shows the page starting at the search hit after or before the current one.  If the hit
+     * last jumped to is no longer on the current page, the search starts from the page instead.
+     */
+    private HitDTO showHit(boolean forward, ProgObserver observer, Consumer<String> sink) {
+        if (observer == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        Session session = model.getSession();
+
+        if (session.getData() == null)
+            return createError(new HitDTO(), "No file has been loaded.");
+
+        SearchResult result = searchResult.get();
+        if (result == null || result.data != session.getData() || result.hits.size() == 0)
+            return createError(new HitDTO(), "There are no search hits.");
+
+        long pageStart = session.getStartByteIndex();
+        long current = currentHit.get();
+        boolean onPage = current >= pageStart && current < pageStart + session.getPageSize();
+
+        long hit;
+        if (forward)
+            hit = result.hits.next(onPage ? current : pageStart);
+        else
+            hit = result.hits.previous(onPage ? current : pageStart);
+
+        if (hit < 0)
+            return createError(new HitDTO(), forward ? "No more hits." : "No previous hits.");
+
+        long startByteIndex = dataViewer.alignStartIndex(session.getData(), session.getType(),
+                hit);
+
+        HitDTO dto = changePage(new HitDTO(), session, session.withStartByteIndex(startByteIndex),
+                observer, sink);
+
+        if (!dto.isErrorOccurred()) {
+            currentHit.set(hit);
+
+            dto.setHitStartByteIndex(hit);
+            dto.setHitNumber(result.hits.countBefore(hit) + 1);
+            dto.setHitCount(result.hits.size());
+        }
+
+        return dto;
+    }
+
+    /**
+     * Creates the SearchDTO of a finished search, or an error if it did not complete.  A search
+     * which completed can be narrowed by the next one.
+     */
+    private static SearchDTO completeSearch(SearchResult result, long hitCount, ByteSource data,
+            ProgObserver observer) {
+        SearchDTO dto = new SearchDTO();
+
+        if (hitCount < 0) {
             dto.setErrorOccurred(true);
-            dto.setErrorMessage("Unable to fetch data.");
+            dto.setErrorMessage(observer.isCancelled() ? "The search was cancelled."
+                    : "Unable to search the file.");
 
             return dto;
         }
 
-        model.setStartByteIndex(tempStartIndex);
+        result.complete = true;
 
-        PageChangeDTO pageChangeDTO = new PageChangeDTO();
-        pageChangeDTO.setData(data);
-        pageChangeDTO.setCurrentPage(model.getCurrentPage());
+        dto.setHitCount(hitCount);
+        dto.setFileSize(data.size());
+        dto.setTruncated(result.hits.isTruncated());
 
-        return pageChangeDTO;
+        return dto;
     }
 
-    public synchronized PageChangeDTO showPrevPage(ProgObserver observer) {
-        logger.debug("Fetching previous page.");
+    private static SearchDTO createError(SearchDTO dto, String errorMessage) {
+        dto.setErrorOccurred(true);
+        dto.setErrorMessage(errorMessage);
+
+        return dto;
+    }
+
+    public AnalysisDTO analyzeFile(ProgObserver observer) {
+        logger.debug("Analyzing file.");
 
         if (observer == null)
-            throw new NullPointerException("Parameters cannot be null");
+            throw new NullPointerException("Parameters cannot be null.");
+
+        // Like a search, the analysis holds on to the snapshot's data and never blocks pages.
+        ByteSource data = model.getSession().getData();
+
+        AnalysisDTO dto = new AnalysisDTO();
 
-        if (model.getLastFileLoadedData() == null) {
-            PageChangeDTO dto = new PageChangeDTO();
+        if (data == null) {
             dto.setErrorOccurred(true);
             dto.setErrorMessage("No file has been loaded.");
 
             return dto;
         }
 
-        int startByteIndex = model.getStartByteIndex() - model.getMaxBytesPerPage();
+        if (!leaseData(data)) {
+            dto.setErrorOccurred(true);
+            dto.setErrorMessage("The file was replaced.");
 
-        if (startByteIndex < 0)
-            startByteIndex = 0;
+            return dto;
+        }
 
-        String data;
         try {
-            data = fetchData(model.getCurrentType(), observer, startByteIndex,
-                    startByteIndex + model.getMaxBytesPerPage());
-        } catch (Exception e) {
-            logger.error("Unable to fetch data string.");
+            int blockSize = MIN_ANALYSIS_BLOCK_SIZE;
+            while ((long)blockSize * MAX_ANALYSIS_BLOCKS < data.size() && blockSize < (1 << 30))
+                blockSize *= 2;
 
-            PageChangeDTO dto = new PageChangeDTO();
-            dto.setErrorOccurred(true);
-            dto.setErrorMessage("Unable to fetch data.");
+            ByteStatistics statistics = analyzer.analyze(data, blockSize, observer);
 
-            return dto;
-        }
+            if (statistics == null) {
+                dto.setErrorOccurred(true);
+                dto.setErrorMessage(observer.isCancelled() ? "The analysis was cancelled."
+                        : "Unable to analyze the file.");
 
-        model.setStartByteIndex(startByteIndex);
+                return dto;
+            }
 
-        PageChangeDTO pageChangeDTO = new PageChangeDTO();
-        pageChangeDTO.setData(data);
-        pageChangeDTO.setCurrentPage(model.getCurrentPage());
+            dto.setHistogram(statistics.getHistogram());
+            dto.setEntropy(statistics.getEntropy());
+            dto.setBlockEntropies(statistics.getBlockEntropies());
+            dto.setBlockSize(blockSize);
+            dto.setFileSize(data.size());
 
-        return pageChangeDTO;
+            return dto;
+        } finally {
+            sourceLeases.release(data);
+        }
     }
 
-    public synchronized PageChangeDTO showFirstPage(ProgObserver observer) {
-        logger.debug("Fetching first page.");
+    public void recordLayoutTime(long nanos) {
+        pageSizer.recordLayoutTime(nanos);
+    }
 
+    public RowsDTO fetchRows(long startByteIndex, int bytesPerRow, int rowCount,
+            ProgObserver observer) {
         if (observer == null)
             throw new NullPointerException("Parameters cannot be null.");
 
-        if (model.getLastFileLoadedData() == null) {
-            logger.error("No file has been loaded.");
+        Session session = model.getSession();
+        ByteSource data = session.getData();
 
-            PageChangeDTO dto = new PageChangeDTO();
+        if (data == null) {
+            RowsDTO dto = new RowsDTO();
             dto.setErrorOccurred(true);
             dto.setErrorMessage("No file has been loaded.");
 
             return dto;
         }
 
-        String data;
-        try {
-            data = fetchData(model.getCurrentType(), observer, 0,
-                    model.getMaxBytesPerPage());
-        } catch (Exception e) {
-            logger.error("Unable to fetch data string.");
-
-            PageChangeDTO dto = new PageChangeDTO();
+        if (!leaseData(data)) {
+            RowsDTO dto = new RowsDTO();
             dto.setErrorOccurred(true);
-            dto.setErrorMessage("Unable to fetch data.");
+            dto.setErrorMessage("The file was replaced.");
 
             return dto;
         }
 
-        model.setStartByteIndex(0);
+        try {
+            DataType type = session.getType();
+
+            List<String> rows = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                long rowStart = startByteIndex + ((long)i * bytesPerRow);
+                if (rowStart >= data.size())
+                    break;
+
+                // Rows bypass the page cache, as they would quickly evict the pages.
+                String row = dataViewer.fetchDisplayData(data, observer, type, rowStart,
+                        rowStart + bytesPerRow);
+
+                if (row == null) {
+                    RowsDTO dto = new RowsDTO();
+                    dto.setErrorOccurred(true);
+                    dto.setErrorMessage("Unable to fetch data.");
 
-        PageChangeDTO pageChangeDTO = new PageChangeDTO();
-        pageChangeDTO.setData(data);
-        pageChangeDTO.setCurrentPage(model.getCurrentPage());
+                    return dto;
+                }
 
-        return pageChangeDTO;
+                rows.add(row);
+            }
+
+            RowsDTO dto = new RowsDTO();
+            dto.setRows(rows.toArray(new String[0]));
+            dto.setStartByteIndex(startByteIndex);
+            dto.setBytesPerRow(bytesPerRow);
+            dto.setFileSize(data.size());
+            dto.setType(type);
+
+            return dto;
+        } finally {
+            sourceLeases.release(data);
+        }
+    }
+
+    /**
+     * The hits of a search, the file they were found in, and what was searched for.
+     */
+    private static class SearchResult {
+        private final ByteSource data;
+        private final HitIndex hits = new HitIndex();
+
+        // The pattern of a byte search, or the text and view of a literal text search.  Both
+        // are null for a regular expression.
+        private final byte[] pattern;
+        private final String text;
+        private final DataType type;
+
+        // Set once every hit has been found.
+        private volatile boolean complete = false;
+
+        private SearchResult(ByteSource data, byte[] pattern, String text, DataType type) {
+            this.data = data;
+            this.pattern = pattern;
+            this.text = text;
+            this.type = type;
+        }
     }
 }
@@ -0,0 +1,68 @@
+package com.fileviewer.controller;
+
+import com.fileviewer.dataprocessing.ByteSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Counts the requests reading each ByteSource, so that a source replaced by a newly loaded file
+ * is only closed once the last request still reading it has finished.
+ */
+class SourceLeases {
+    private static final Logger logger = LogManager.getLogger(SourceLeases.class);
+
+    // The number of requests reading each source.  Sources are compared by identity.
+    private final Map<ByteSource, Integer> leases = new IdentityHashMap<>();
+    private final Map<ByteSource, Boolean> retired = new IdentityHashMap<>();
+
+    /**
+     * Records a request reading the source.  Each call must be matched by a call to release once
+     * the request has finished with the source.
+     * NOTE: The caller must check that the source is still current after acquiring it, as it may
+     * already have been retired and closed.
+     */
+    synchronized void acquire(ByteSource source) {
+        leases.merge(source, 1, Integer::sum);
+    }
+
+    /**
+     * Records that a request has finished reading the source, closing it if it has been retired
+     * and no other request is still reading it.
+     */
+    void release(ByteSource source) {
+        synchronized (this) {
+            int count = leases.get(source) - 1;
+            if (count > 0) {
+                leases.put(source, count);
+                return;
+            }
+
+            leases.remove(source);
+
+            if (retired.remove(source) == null)
+                return;
+        }
+
+        logger.debug("Closing replaced file after its last request finished.");
+
+        source.close();
+    }
+
+    /**
+     * Marks the source as replaced.  It is closed straight away if no request is reading it,
+     * otherwise when the last request reading it releases it.
+     */
+    void retire(ByteSource source) {
+        synchronized (this) {
+            if (leases.containsKey(source)) {
+                retired.put(source, Boolean.TRUE);
+                return;
+            }
+        }
+
+        source.close();
+    }
+}
@@ -0,0 +1,24 @@
+package com.fileviewer.dataprocessing;
+
+import com.fileviewer.observer.ProgObserver;
+
+/**
+ * Computes statistics over the whole of a ByteSource for triaging unknown files: how often each
+ * byte value occurs, and how the entropy of the data changes through the file.  Sections of
+ * high entropy are typically compressed or encrypted, and sections of low entropy are text,
+ * tables or padding.
+ */
+public interface Analyzer {
+    /**
+     * Counts every byte of the data and measures the entropy of each block.  The file is read
+     * in parallel, and progress is recorded in the observer as blocks are completed.  The
+     * analysis stops early if the observer is cancelled.
+     *
+     * @param data The ByteSource to analyze.
+     * @param blockSize The number of bytes in each block whose entropy is measured.
+     * @param observer The ProgObserver used to record progress and check for cancellation.
+     * @return The ByteStatistics of the data, or null if the analysis was cancelled or the data
+     *         could not be read.
+     */
+    ByteStatistics analyze(ByteSource data, int blockSize, ProgObserver observer);
+}
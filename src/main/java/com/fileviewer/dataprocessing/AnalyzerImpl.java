@@ -0,0 +1,221 @@
+package com.fileviewer.dataprocessing;
+
+import com.fileviewer.observer.ProgObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AnalyzerImpl implements Analyzer {
+    private static final Logger logger = LogManager.getLogger(AnalyzerImpl.class);
+
+    private static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int segmentSize;
+
+    public AnalyzerImpl() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param pool The ForkJoinPool to analyze the segments on.
+     * @param segmentSize The number of bytes each task reads at a time, and analyzes without
+     *                    splitting unless it holds only part of a block.
+     */
+    public AnalyzerImpl(ForkJoinPool pool, int segmentSize) {
+        logger.debug("Constructing AnalyzerImpl.");
+
+        if (segmentSize < 1)
+            throw new IllegalArgumentException("Segment size must be positive.");
+
+        this.pool = pool;
+        this.segmentSize = segmentSize;
+    }
+
+    public ByteStatistics analyze(ByteSource data, int blockSize, ProgObserver observer) {
+        if (data == null || observer == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        if (blockSize < 1)
+            throw new IllegalArgumentException("Block size must be positive.");
+
+        long size = data.size();
+        long blockCount = (size + blockSize - 1) / blockSize;
+
+        if (blockCount > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Block size is too small for the file.");
+
+        observer.setProgress(0, size);
+
+        Analysis analysis = new Analysis(data, blockSize, (int)blockCount, observer);
+        pool.invoke(new BlockTask(analysis, 0, (int)blockCount));
+
+        if (analysis.failed || observer.isCancelled()) {
+            logger.debug("Analysis was cancelled or failed.");
+
+            return null;
+        }
+
+        observer.setProgress(size, size);
+
+        // Every task has been joined, so every segment has been merged into the histogram.
+        return new ByteStatistics(analysis.histogram, analysis.blockEntropies, blockSize);
+    }
+
+    /**
+     * The histograms and read buffer of one leaf task.  Each task only counts into its own
+     * arrays, so the hot loop has no contention and no synchronization.  They are dropped with
+     * the task, so nothing is left behind in the pool's threads once the analysis ends.
+     */
+    private static class SegmentCounts {
+        private final long[] totals = new long[256];
+        private final long[] block = new long[256];
+        private final byte[] buffer;
+
+        private SegmentCounts(int bufferSize) {
+            this.buffer = new byte[bufferSize];
+        }
+    }
+
+    /**
+     * The state shared by every task of one analysis.
+     */
+    private class Analysis {
+        private final ByteSource data;
+        private final int blockSize;
+        private final ProgObserver observer;
+        private final double[] blockEntropies;
+        private final AtomicLong analyzedBytes = new AtomicLong();
+
+        // The histogram of the whole file.  Each segment is merged in once it has been counted.
+        private final long[] histogram = new long[256];
+
+        private volatile boolean failed = false;
+
+        private Analysis(ByteSource data, int blockSize, int blockCount,
+                ProgObserver observer) {
+            this.data = data;
+            this.blockSize = blockSize;
+            this.observer = observer;
+            this.blockEntropies = new double[blockCount];
+        }
+    }
+
+    /**
+     * Analyzes the blocks [fromBlock, toBlock), splitting the range in half until it is no
+     * larger than a segment, or is a single block.  Blocks are never split between tasks, so
+     * each block's histogram is counted by one thread.
+     */
+    private class BlockTask extends RecursiveAction {
+        private final Analysis analysis;
+        private final int fromBlock;
+        private final int toBlock;
+
+        private BlockTask(Analysis analysis, int fromBlock, int toBlock) {
+            this.analysis = analysis;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (analysis.failed || analysis.observer.isCancelled())
+                return;
+
+            int blockCount = toBlock - fromBlock;
+            if (blockCount <= 1 || (long)blockCount * analysis.blockSize <= segmentSize) {
+                analyzeBlocks();
+                return;
+            }
+
+            int middle = fromBlock + (blockCount / 2);
+
+            // The left half is analyzed first by this thread, so progress runs from the start.
+            BlockTask right = new BlockTask(analysis, middle, toBlock);
+            right.fork();
+
+            new BlockTask(analysis, fromBlock, middle).compute();
+            right.join();
+        }
+
+        private void analyzeBlocks() {
+            long size = analysis.data.size();
+            long start = (long)fromBlock * analysis.blockSize;
+            long end = Math.min(size, (long)toBlock * analysis.blockSize);
+
+            if (start >= end)
+                return;
+
+            SegmentCounts counts = new SegmentCounts((int)Math.min(segmentSize, end - start));
+            byte[] buffer = counts.buffer;
+            long[] block = counts.block;
+
+            int blockIndex = fromBlock;
+            long blockEnd = Math.min(end, start + analysis.blockSize);
+
+            for (long position = start; position < end; ) {
+                if (analysis.observer.isCancelled())
+                    return;
+
+                int length = (int)Math.min(buffer.length, end - position);
+
+                int read;
+                try {
+                    read = analysis.data.readFully(position, buffer, 0, length);
+                } catch (IOException e) {
+                    logger.error("Unable to read segment at " + position + ".");
+
+                    analysis.failed = true;
+                    return;
+                }
+
+                if (read < length) {
+                    logger.error("Unexpected end of data at " + (position + read) + ".");
+
+                    analysis.failed = true;
+                    return;
+                }
+
+                int i = 0;
+                while (i < read) {
+                    int stop = (int)Math.min(read, blockEnd - position);
+
+                    for (; i < stop; i++)
+                        block[buffer[i] & 0xFF]++;
+
+                    if (position + stop == blockEnd) {
+                        finishBlock(counts, blockIndex++);
+                        blockEnd = Math.min(end, blockEnd + analysis.blockSize);
+                    }
+                }
+
+                position += read;
+
+                analysis.observer.setProgress(analysis.analyzedBytes.addAndGet(read), size);
+            }
+
+            synchronized (analysis.histogram) {
+                for (int i = 0; i < analysis.histogram.length; i++)
+                    analysis.histogram[i] += counts.totals[i];
+            }
+        }
+
+        /**
+         * Records the entropy of the block just counted, and adds its counts to the segment's
+         * histogram.
+         */
+        private void finishBlock(SegmentCounts counts, int blockIndex) {
+            analysis.blockEntropies[blockIndex] = ByteStatistics.entropy(counts.block);
+
+            for (int i = 0; i < counts.block.length; i++)
+                counts.totals[i] += counts.block[i];
+
+            Arrays.fill(counts.block, 0);
+        }
+    }
+}
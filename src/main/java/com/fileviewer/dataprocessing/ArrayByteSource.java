@@ -0,0 +1,32 @@
+package com.fileviewer.dataprocessing;
+
+/**
+ * A ByteSource backed by an on-heap byte array.
+ */
+public class ArrayByteSource implements ByteSource {
+    private final byte[] data;
+
+    public ArrayByteSource(byte[] data) {
+        if (data == null)
+            throw new NullPointerException("Data cannot be null.");
+
+        this.data = data;
+    }
+
+    public long size() {
+        return data.length;
+    }
+
+    public int read(long position, byte[] dst, int offset, int length) {
+        if (position >= data.length)
+            return -1;
+
+        int count = (int)Math.min(length, data.length - position);
+        System.arraycopy(data, (int)position, dst, offset, count);
+
+        return count;
+    }
+
+    public void close() {
+    }
+}
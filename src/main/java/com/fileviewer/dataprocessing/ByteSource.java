@@ -0,0 +1,80 @@
+package com.fileviewer.dataprocessing;
+
+import com.fileviewer.observer.ProgObserver;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A read-only, randomly accessible view over the bytes of a loaded file.
+ * Offsets are longs so that files larger than Integer.MAX_VALUE bytes can be addressed.
+ */
+public interface ByteSource extends Closeable {
+    /**
+     * @return The total number of bytes in the source.
+     */
+    long size();
+
+    /**
+     * Copies bytes from the source into the supplied array.
+     * Fewer bytes than requested are copied if the end of the source is reached.
+     *
+     * @param position The offset in the source to start reading from.
+     * @param dst The array to copy the bytes into.
+     * @param offset The index of dst to start writing to.
+     * @param length The maximum number of bytes to copy.
+     * @return The number of bytes copied, or -1 if position is at or past the end of the source.
+     * @throws IOException If the underlying storage could not be read.
+     */
+    int read(long position, byte[] dst, int offset, int length) throws IOException;
+
+    /**
+     * Copies bytes from the source into the supplied array, repeating reads until either the
+     * requested length has been copied or the end of the source is reached.
+     *
+     * @param position The offset in the source to start reading from.
+     * @param dst The array to copy the bytes into.
+     * @param offset The index of dst to start writing to.
+     * @param length The maximum number of bytes to copy.
+     * @return The number of bytes copied.
+     * @throws IOException If the underlying storage could not be read.
+     */
+    default int readFully(long position, byte[] dst, int offset, int length) throws IOException {
+        int copied = 0;
+        while (copied < length) {
+            int count = read(position + copied, dst, offset + copied, length - copied);
+            if (count <= 0)
+                break;
+
+            copied += count;
+        }
+
+        return copied;
+    }
+
+    /**
+     * Returns the number of bytes, counting from the start of the source, which have finished
+     * loading.  Sources which are ready as soon as they are opened report their full size.
+     *
+     * @return The number of bytes loaded.
+     */
+    default long getAvailableBytes() {
+        return size();
+    }
+
+    /**
+     * Returns the ProgObserver of any loading which continues in the background after the
+     * source is opened.
+     *
+     * @return The ProgObserver reporting the loading, or null if the source is fully loaded.
+     */
+    default ProgObserver getLoadProgress() {
+        return null;
+    }
+
+    /**
+     * Releases any resources held by the source.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,96 @@
+package com.fileviewer.dataprocessing;
+
+import java.util.Arrays;
+
+/**
+ * The byte frequencies of a whole file, and the Shannon entropy of each fixed size block of it.
+ * Entropy is measured in bits per byte, from 0 for a block of a single repeated byte up to 8
+ * for a block in which every byte value is equally common, as in compressed or encrypted data.
+ */
+public final class ByteStatistics {
+    private final long[] histogram;
+    private final double[] blockEntropies;
+    private final int blockSize;
+
+    /**
+     * @param histogram The number of times each byte value occurs, indexed by the unsigned value.
+     * @param blockEntropies The entropy of each block, in offset order.
+     * @param blockSize The number of bytes in each block.  The last block may be shorter.
+     */
+    public ByteStatistics(long[] histogram, double[] blockEntropies, int blockSize) {
+        if (histogram == null || blockEntropies == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        if (histogram.length != 256)
+            throw new IllegalArgumentException("Histogram must have 256 entries.");
+
+        this.histogram = histogram;
+        this.blockEntropies = blockEntropies;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @return A copy of the number of times each byte value occurs, indexed by the unsigned
+     *         value.
+     */
+    public long[] getHistogram() {
+        return Arrays.copyOf(histogram, histogram.length);
+    }
+
+    /**
+     * @return A copy of the entropy of each block, in offset order.
+     */
+    public double[] getBlockEntropies() {
+        return Arrays.copyOf(blockEntropies, blockEntropies.length);
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @return The number of bytes counted.
+     */
+    public long getByteCount() {
+        long byteCount = 0;
+        for (long count : histogram)
+            byteCount += count;
+
+        return byteCount;
+    }
+
+    /**
+     * @return The entropy of the whole file, in bits per byte.
+     */
+    public double getEntropy() {
+        return entropy(histogram);
+    }
+
+    /**
+     * Computes the Shannon entropy of a byte histogram as log2(n) - sum(c * log2(c)) / n, which
+     * needs one logarithm per byte value that occurs rather than a division as well.
+     *
+     * @param histogram The number of times each byte value occurs.
+     * @return The entropy in bits per byte, or 0 if the histogram is empty.
+     */
+    public static double entropy(long[] histogram) {
+        long total = 0;
+        double sum = 0;
+
+        for (long count : histogram) {
+            if (count == 0)
+                continue;
+
+            total += count;
+            sum += count * Math.log(count);
+        }
+
+        if (total == 0)
+            return 0;
+
+        double entropy = (Math.log(total) - (sum / total)) / Math.log(2);
+
+        // Rounding can leave a block of a single byte value very slightly negative.
+        return Math.max(0, entropy);
+    }
+}
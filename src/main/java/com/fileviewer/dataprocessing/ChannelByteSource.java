@@ -0,0 +1,50 @@
+package com.fileviewer.dataprocessing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A ByteSource that reads bytes on demand from an open file channel.
+ * Opening only records the channel and the file size; each read is a positional read of just
+ * the requested range, so no file data is held in memory between reads.
+ */
+public class ChannelByteSource implements ByteSource {
+    private static final Logger logger = LogManager.getLogger(ChannelByteSource.class);
+
+    private final FileChannel channel;
+    private final long size;
+
+    public ChannelByteSource(File file) throws IOException {
+        logger.debug("Constructing ChannelByteSource.");
+
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int read(long position, byte[] dst, int offset, int length) throws IOException {
+        if (position >= size)
+            return -1;
+
+        int toRead = (int)Math.min(length, size - position);
+
+        return channel.read(ByteBuffer.wrap(dst, offset, toRead), position);
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Unable to close file channel.");
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.fileviewer.dataprocessing;
 
 import com.fileviewer.observer.ProgObserver;
 
+import java.util.function.Consumer;
+
 public interface DataViewer {
     /**
      * Enum to represent the type of view for the data.
@@ -19,13 +21,56 @@ public interface DataViewer {
     /**
      * Function to write characters to the GUI textarea.
      * Note: Start index is inclusive, and endIndex is exclusive.
-     * @param data The raw bytes in an int[] array.
+     * NOTE: The range between the two indexes must not exceed Integer.MAX_VALUE bytes.
+     * @param data The ByteSource to read the raw bytes from.
      * @param observer The ProgObserver to record progress.
      * @param type The type of view for the data.
-     * @param startByteIndex The starting index of the data array to start reading from (inclusive).
-     * @param endByteIndex The ending index of the data array to end reading (exclusive).
+     * @param startByteIndex The index of the data source to start reading from (inclusive).
+     * @param endByteIndex The index of the data source to end reading (exclusive).
      * @return A String with the full data string represented in the requested view.
      */
-    String fetchDisplayData(int[] data, ProgObserver observer, Enum<DataType> type, int startByteIndex,
-            int endByteIndex);
+    String fetchDisplayData(ByteSource data, ProgObserver observer, Enum<DataType> type,
+            long startByteIndex, long endByteIndex);
+
+    /**
+     * Streaming variant of fetchDisplayData.  The data is rendered in chunks which are passed to
+     * the sink, in order and on the calling thread, as soon as each one is produced, so that the
+     * start of the output can be shown before the rest has been rendered.
+     * Note: Start index is inclusive, and endIndex is exclusive.
+     * NOTE: The range between the two indexes must not exceed Integer.MAX_VALUE bytes.
+     * @param data The ByteSource to read the raw bytes from.
+     * @param observer The ProgObserver to record progress.
+     * @param type The type of view for the data.
+     * @param startByteIndex The index of the data source to start reading from (inclusive).
+     * @param endByteIndex The index of the data source to end reading (exclusive).
+     * @param sink The Consumer to pass each rendered chunk to.
+     * @return True if the whole range was rendered, or false if an error occurred or the
+     * observer was cancelled.  Chunks already passed to the sink are not retracted.
+     */
+    boolean streamDisplayData(ByteSource data, ProgObserver observer, Enum<DataType> type,
+            long startByteIndex, long endByteIndex, Consumer<String> sink);
+
+    /**
+     * Returns the offset that a view of the data starts rendering from when asked to start at
+     * the offset supplied.  Byte views start at the offset itself, while UTF views start at the
+     * first code point boundary at or after it.
+     * @param data The ByteSource to read the raw bytes from.
+     * @param type The type of view for the data.
+     * @param byteIndex The requested start offset.
+     * @return The aligned start offset, or byteIndex if the data could not be read.
+     */
+    long alignStartIndex(ByteSource data, Enum<DataType> type, long byteIndex);
+
+    /**
+     * Finds where offsets in a page of the data fall in the text the page renders to, for
+     * example to highlight a range of bytes.  Only the bytes up to the last offset are read.
+     * @param data The ByteSource to read the raw bytes from.
+     * @param type The type of view for the data.
+     * @param startByteIndex The index the page starts rendering from (inclusive).
+     * @param byteOffsets Offsets no less than startByteIndex, in ascending order.
+     * @return For each offset, the index in the rendered page of the first character rendered
+     * from a byte at or after it, or null if the data could not be read.
+     */
+    int[] locateCharacters(ByteSource data, Enum<DataType> type, long startByteIndex,
+            long[] byteOffsets);
 }
@@ -4,22 +4,114 @@ import com.fileviewer.observer.ProgObserver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.nio.CharBuffer;
+import java.util.function.Consumer;
 
 public class DataViewerImpl implements DataViewer {
     private final static Logger logger = LogManager.getLogger(DataViewer.class);
 
-    private static final int CHUNK_SIZE = 600;
+    private static final int STREAM_CHUNK_SIZE = 16 * 1024;    // Characters per streamed chunk.
+
+    private final TextDecoder textDecoder = new TextDecoder();
 
     public DataViewerImpl() {
         logger.debug("Constructing DataViewerImpl.");
     }
 
-    public String fetchDisplayData(int[] data, ProgObserver observer, Enum<DataType> type,
-            int startByteIndex, int endByteIndex) {
+    public String fetchDisplayData(ByteSource data, ProgObserver observer, Enum<DataType> type,
+            long startByteIndex, long endByteIndex) {
+        return render(data, observer, type, startByteIndex, endByteIndex, null);
+    }
+
+    public boolean streamDisplayData(ByteSource data, ProgObserver observer,
+            Enum<DataType> type, long startByteIndex, long endByteIndex, Consumer<String> sink) {
+        if (sink == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        return render(data, observer, type, startByteIndex, endByteIndex, sink) != null;
+    }
+
+    public long alignStartIndex(ByteSource data, Enum<DataType> type, long byteIndex) {
+        if (data == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        if (type != DataType.UTF8Bytes && type != DataType.UTF8Characters
+                && type != DataType.UTF16Bytes && type != DataType.UTF16Characters)
+            return byteIndex;
+
+        boolean utf16 = type == DataType.UTF16Bytes || type == DataType.UTF16Characters;
+
+        try {
+            return textDecoder.align(data, utf16, byteIndex);
+        } catch (IOException e) {
+            logger.error("Unable to align start index.");
+
+            return byteIndex;
+        }
+    }
+
+    public int[] locateCharacters(ByteSource data, Enum<DataType> type, long startByteIndex,
+            long[] byteOffsets) {
+        if (data == null || type == null || byteOffsets == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        int[] indices = new int[byteOffsets.length];
+        if (byteOffsets.length == 0)
+            return indices;
+
+        long endByteIndex = byteOffsets[byteOffsets.length - 1];
+
+        if (type == DataType.UTF8Bytes || type == DataType.UTF8Characters
+                || type == DataType.UTF16Bytes || type == DataType.UTF16Characters) {
+            boolean utf16 = type == DataType.UTF16Bytes || type == DataType.UTF16Characters;
+
+            TextWindow text;
+            try {
+                text = textDecoder.decodeWithOffsets(data, utf16, startByteIndex,
+                        endByteIndex);
+            } catch (IOException e) {
+                logger.error("Unable to locate characters.");
+
+                return null;
+            }
+
+            int charIndex = 0;
+            int k = 0;
+            for (int i = 0; i < byteOffsets.length; i++) {
+                while (k < text.length() && text.getByteOffset(k) < byteOffsets[i])
+                    charIndex += ValueRenderer.charCount(type, text.charAt(k++));
+
+                indices[i] = charIndex;
+            }
+        } else {
+            byte[] bytes = getByteArray(data, startByteIndex, endByteIndex);
+            if (bytes == null)
+                return null;
+
+            int charIndex = 0;
+            int k = 0;
+            for (int i = 0; i < byteOffsets.length; i++) {
+                while (k < bytes.length && startByteIndex + k < byteOffsets[i])
+                    charIndex += ValueRenderer.charCount(type, bytes[k++] & 0xFF);
+
+                indices[i] = charIndex;
+            }
+        }
+
+        return indices;
+    }
+
+    /**
+     * Renders the requested range of the data.  Without a sink the whole output is returned as a
+     * single String.  With a sink, the output is passed to it in chunks of at most
+     * STREAM_CHUNK_SIZE characters and an empty String is returned.
+     *
+     * @return The rendered data, an empty String if it was passed to the sink, or null if an
+     * error occurred or the observer was cancelled.
+     */
+    private String render(ByteSource data, ProgObserver observer, Enum<DataType> type,
+            long startByteIndex, long endByteIndex, Consumer<String> sink) {
         if (data == null) {
             logger.error("Data cannot be null. Returning.");
             observer.setIsFinished(true);
@@ -29,139 +121,139 @@ public class DataViewerImpl implements DataViewer {
 
         observer.setPercentage(0);
 
-        StringBuilder str = new StringBuilder();
+        // Sized for the longest possible output, so that rendering never needs to grow it.
+        // When streaming, the buffer is reused for each chunk instead.
+        char[] output;
+        int position = 0;
+        int flushLimit;
 
         int count = 0;
 
         if (type == DataType.UTF8Bytes || type == DataType.UTF8Characters
                 || type == DataType.UTF16Bytes || type == DataType.UTF16Characters) {
-            byte[] bytes = getByteArray(data, observer, startByteIndex, endByteIndex - 1);
+            boolean utf16 = type == DataType.UTF16Bytes || type == DataType.UTF16Characters;
+
+            CharBuffer chars;
+            try {
+                chars = textDecoder.decode(data, utf16, startByteIndex, endByteIndex);
+            } catch (IOException e) {
+                e.printStackTrace();
 
-            ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
-            InputStreamReader reader;
+                return null;
+            }
 
-            if (type == DataType.UTF8Bytes || type == DataType.UTF8Characters)
-                reader = new InputStreamReader(bis, StandardCharsets.UTF_8);
-            else
-                reader = new InputStreamReader(bis, StandardCharsets.UTF_16);
+            output = allocateOutput(type, chars.remaining(), sink);
+            flushLimit = output.length - ValueRenderer.maxCharsPerValue(type);
 
-            int dataByte;
-            try {
-                while ((dataByte = reader.read()) != -1) {
-                    if (observer.isCancelled()) {
-                        logger.debug("Cancelling fetching Data.");
+            long rangeBytes = Math.max(0, Math.min(endByteIndex, data.size()) - startByteIndex);
+            ProgressScheduler scheduler = new ProgressScheduler(observer, chars.remaining(),
+                    rangeBytes);
 
-                        return null;
-                    }
+            while (chars.hasRemaining()) {
+                if (!scheduler.checkpoint(count)) {
+                    logger.debug("Cancelling fetching Data.");
 
-                    processChunk(str, type, dataByte, count, observer, bytes.length);
-                    count++;
+                    return null;
                 }
-            } catch(IOException e) {
-                e.printStackTrace();
-            } finally {
-                try {
-                    bis.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
+
+                if (position > flushLimit) {
+                    sink.accept(new String(output, 0, position));
+                    position = 0;
                 }
+
+                position = ValueRenderer.write(type, chars.get(), output, position);
+                count++;
             }
         } else {
-            if (startByteIndex >= data.length) {
+            if (startByteIndex >= data.size()) {
                 logger.error("Start Index cannot be bigger than data size. Returning.");
                 return null;
             }
 
-            int endIndex;
-            if (endByteIndex > data.length)
-                endIndex = data.length;
-            else
-                endIndex = endByteIndex;
+            byte[] bytes = getByteArray(data, startByteIndex, endByteIndex);
+            if (bytes == null)
+                return null;
+
+            output = allocateOutput(type, bytes.length, sink);
+            flushLimit = output.length - ValueRenderer.maxCharsPerValue(type);
 
-            for (int i = startByteIndex; i < endIndex; i++) {
-                int readByte = data[i];
+            ProgressScheduler scheduler =
+                    new ProgressScheduler(observer, bytes.length, bytes.length);
 
-                if (observer.isCancelled()) {
+            for (int i = 0; i < bytes.length; i++) {
+                int readByte = bytes[i] & 0xFF;
+
+                if (!scheduler.checkpoint(count)) {
                     logger.debug("Cancelling fetching Data.");
 
                     return null;
                 }
 
-                processChunk(str, type, readByte, count, observer, endIndex - startByteIndex);
+                if (position > flushLimit) {
+                    sink.accept(new String(output, 0, position));
+                    position = 0;
+                }
+
+                position = ValueRenderer.write(type, readByte, output, position);
                 count++;
             }
         }
 
         observer.setPercentage(100);
 
-        return str.toString();
+        if (sink == null)
+            return new String(output, 0, position);
+
+        if (position > 0)
+            sink.accept(new String(output, 0, position));
+
+        return "";
     }
 
     /**
-     * Returns a byte array containing the bytes from the int array supplied.  It casts the int
-     * values into bytes and places them in the new array.
+     * Allocates the buffer to render into.  Without a sink it holds the longest possible output
+     * for the values, otherwise a single streamed chunk.
      *
-     * @param data The int array of byte values.
-     * @param observer The ProgObserver object to measure progress.
-     * @param startIndex The index to start at from the supplied int array.  Inclusive.
-     * @param endIndex The index to end at from the supplied int array.  Inclusive.
+     * @param type The type of view for the data.
+     * @param valueCount The number of values that will be rendered.
+     * @param sink The Consumer that chunks will be passed to, or null.
+     * @return The output buffer.
      */
-    private byte[] getByteArray(int[] data, ProgObserver observer, int startIndex,
-            int endIndex) {
-        if (endIndex > data.length)
-            endIndex = data.length - 1;
-
-        int size = endIndex - startIndex + 1;
-
-        byte[] bytes = new byte[size];
+    private char[] allocateOutput(Enum<DataType> type, int valueCount, Consumer<String> sink) {
+        int maxChars = ValueRenderer.maxCharsPerValue(type);
+        long required = (long)valueCount * maxChars;
 
-        observer.setPercentage(0);
-        double percentage;
-
-        for (int i = 0; i < size; i++) {
-            percentage = ((double)i / size) * 100;
-            observer.setPercentage(percentage);
+        if (sink != null)
+            required = Math.max(maxChars, Math.min(required, STREAM_CHUNK_SIZE));
 
-            bytes[i] = (byte)data[i + startIndex];
-        }
-
-        return bytes;
+        return new char[(int)required];
     }
 
-    private void processChunk(StringBuilder str, Enum<DataType> type, int dataByte, int count,
-            ProgObserver observer, int dataSize) {
-        getTypeOutput(type, str, dataByte);
-
-        if (count % CHUNK_SIZE == 0 && count != 0) {
-            double percentage = ((double)count / dataSize) * 100;
-            observer.setPercentage(percentage);
-        }
-
-        if (count % 100 == 0) {
-            sleep();
-        }
-    }
+    /**
+     * Returns a byte array containing the bytes of the supplied ByteSource within the range
+     * requested.  The range is clamped to the size of the source.
+     *
+     * @param data The ByteSource to read the bytes from.
+     * @param startIndex The index to start at in the ByteSource.  Inclusive.
+     * @param endIndex The index to end at in the ByteSource.  Exclusive.
+     * @return A byte array of the requested bytes, or null if the source could not be read.
+     */
+    private byte[] getByteArray(ByteSource data, long startIndex, long endIndex) {
+        long end = Math.min(endIndex, data.size());
 
-    private void getTypeOutput(Enum<DataType> type, StringBuilder str, int dataByte) {
-        if (type == DataType.Bytes || type == DataType.UTF8Bytes || type == DataType.UTF16Bytes) {
-            str.append(dataByte).append(" ");
-        } else if (type == DataType.Characters || type == DataType.UTF8Characters
-                || type == DataType.UTF16Characters) {
-            str.append(Character.toString(dataByte));
-        } else if (type == DataType.Hex) {
-            str.append(String.format("%02x ", dataByte));
-        } else {
-            logger.error("No Data Type detected when rendering output.");
+        if (startIndex >= end)
+            return new byte[0];
 
-            throw new RuntimeException("No Data Type detected.");
-        }
-    }
+        byte[] bytes = new byte[(int)(end - startIndex)];
 
-    private void sleep() {
         try {
-            Thread.sleep(1);
-        } catch (InterruptedException e) {
+            data.readFully(startIndex, bytes, 0, bytes.length);
+        } catch (IOException e) {
             e.printStackTrace();
+
+            return null;
         }
+
+        return bytes;
     }
 }
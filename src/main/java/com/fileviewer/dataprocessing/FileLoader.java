@@ -6,13 +6,31 @@ import java.io.File;
 
 public interface FileLoader {
     /**
-     * Reads the file provided, and returns the bytes in an integer array.
+     * Enum to represent how a file's bytes are made available once it is loaded.
+     */
+    public static enum LoadMode {
+        /** The file is memory-mapped in windows and paged in by the operating system. */
+        MAPPED,
+        /** Only the file handle is kept, and each page is read from disk when requested. */
+        LAZY,
+        /** The whole file is read onto the heap in large blocks when it is loaded. */
+        BULK,
+        /** The whole file is read onto the heap by parallel workers, each reading a range. */
+        PARALLEL,
+        /**
+         * The file is read onto the heap in the background.  It can be viewed straight away, and
+         * ranges not yet loaded are read from disk.
+         */
+        PROGRESSIVE,
+    }
+
+    /**
+     * Opens the file provided, and returns a ByteSource to read its bytes.
      * NOTE: Returns null if an error occurred.
-     * Maximum filesize is Integer.MAX_INTEGER bytes.
      *
      * @param file The File to read.
      * @param observer The ProgObserver object to record progress.
-     * @return An int array containing all the file bytes.
+     * @return A ByteSource for reading the file bytes.
      */
-    int[] loadFile(File file, ProgObserver observer);
+    ByteSource loadFile(File file, ProgObserver observer);
 }
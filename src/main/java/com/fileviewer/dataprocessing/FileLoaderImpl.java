@@ -1,56 +1,224 @@
 package com.fileviewer.dataprocessing;
 
 import com.fileviewer.observer.ProgObserver;
+import com.fileviewer.observer.ProgObserverFactory;
+import com.fileviewer.observer.ProgObserverFactoryImpl;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class FileLoaderImpl implements FileLoader {
     private static final Logger logger = LogManager.getLogger(FileLoaderImpl.class);
 
+    // Largest byte array the JVM will reliably allocate.
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final int BLOCK_SIZE = 4 * 1024 * 1024;
+
+    private final LoadMode loadMode;
+    private final ProgObserverFactory progObserverFactory;
+
     public FileLoaderImpl() {
-        logger.debug("Constructing FileLoaderImpl.");
+        this(LoadMode.MAPPED);
     }
 
-    public int[] loadFile(File file, ProgObserver observer) {
-        long fileSize = file.length();
+    public FileLoaderImpl(LoadMode loadMode) {
+        this(loadMode, new ProgObserverFactoryImpl());
+    }
 
-        if (fileSize >= Integer.MAX_VALUE) {
-            logger.error("File size too large!  Must be smaller than Integer.MAX_VALUE bytes.");
+    /**
+     * @param loadMode The LoadMode to open files with.
+     * @param progObserverFactory A ProgObserverFactory to create the observers of loading which
+     *                            continues in the background.
+     */
+    public FileLoaderImpl(LoadMode loadMode, ProgObserverFactory progObserverFactory) {
+        logger.debug("Constructing FileLoaderImpl.");
+
+        if (loadMode == null || progObserverFactory == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        this.loadMode = loadMode;
+        this.progObserverFactory = progObserverFactory;
+    }
+
+    public ByteSource loadFile(File file, ProgObserver observer) {
+        if (observer.isCancelled()) {
+            logger.debug("Loading cancelled before it started.");
 
             return null;
         }
 
-        int[] dataArray = new int[(int)fileSize];
+        ByteSource source;
 
         try {
-            FileInputStream fis = new FileInputStream(file);
+            if (loadMode == LoadMode.LAZY)
+                source = new ChannelByteSource(file);
+            else if (loadMode == LoadMode.BULK)
+                source = loadBulk(file, observer);
+            else if (loadMode == LoadMode.PARALLEL)
+                source = loadParallel(file, observer);
+            else if (loadMode == LoadMode.PROGRESSIVE)
+                source = new ProgressiveByteSource(file, progObserverFactory.getInstance(),
+                        MAX_ARRAY_SIZE, BLOCK_SIZE);
+            else
+                source = new MappedByteSource(file);
+        } catch (Exception e) {
+            e.printStackTrace();
+
+            return null;
+        }
+
+        if (source == null)
+            return null;
+
+        observer.setPercentage(100);
 
-            BufferedInputStream bis = new BufferedInputStream(fis);
+        logger.info("Finished loading file: " + file.getAbsolutePath());
+
+        return source;
+    }
 
-            int readByte;
-            int i = 0;
-            while((readByte = bis.read()) != -1) {
-                double percentage = ((double)i / fileSize) * 100;
-                observer.setPercentage(percentage);
+    /**
+     * Reads the whole file into a heap array, filling it a block at a time straight from the
+     * file channel and reporting progress once per block.
+     * NOTE: Returns null if the file is too large for a single array or loading was cancelled.
+     */
+    private ByteSource loadBulk(File file, ProgObserver observer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            byte[] data = allocateHeapData(channel.size());
+            if (data == null)
+                return null;
 
-                dataArray[i] = readByte;
-                i++;
+            int position = 0;
+            while (position < data.length) {
+                if (observer.isCancelled()) {
+                    logger.debug("Cancelling loading file.");
+
+                    return null;
+                }
+
+                int length = Math.min(BLOCK_SIZE, data.length - position);
+                readBlock(channel, data, position, length);
+
+                position += length;
+
+                observer.setProgress(position, data.length);
             }
 
-            bis.close();
-            fis.close();
-        } catch (Exception e) {
-            e.printStackTrace();
+            return new ArrayByteSource(data);
+        }
+    }
+
+    /**
+     * Reads the whole file into a heap array, splitting it into block-aligned ranges which are
+     * read in parallel by fork/join workers using positional reads.  Progress from all workers is
+     * aggregated into the single observer supplied.
+     * NOTE: Returns null if the file is too large for a single array or loading was cancelled.
+     */
+    private ByteSource loadParallel(File file, ProgObserver observer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            byte[] data = allocateHeapData(channel.size());
+            if (data == null)
+                return null;
+
+            try {
+                ForkJoinPool.commonPool().invoke(new LoadRangeTask(channel, data, 0, data.length,
+                        observer, new AtomicLong()));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            if (observer.isCancelled()) {
+                logger.debug("Cancelled loading file.");
+
+                return null;
+            }
+
+            return new ArrayByteSource(data);
+        }
+    }
+
+    /**
+     * Returns an array large enough to hold the whole file, or null if the file is too large.
+     */
+    private byte[] allocateHeapData(long fileSize) {
+        if (fileSize > MAX_ARRAY_SIZE) {
+            logger.error("File size too large!  Must be smaller than " + MAX_ARRAY_SIZE
+                    + " bytes to load onto the heap.");
 
             return null;
         }
 
-        logger.info("Finished loading file: " + file.getAbsolutePath());
+        return new byte[(int)fileSize];
+    }
 
-        return dataArray;
+    /**
+     * Fills the given range of the array from the same offsets in the file.
+     */
+    private static void readBlock(FileChannel channel, byte[] data, int position, int length)
+            throws IOException {
+        // The buffer position tracks the array index, which is also the file offset.
+        ByteBuffer block = ByteBuffer.wrap(data, position, length);
+        while (block.hasRemaining()) {
+            if (channel.read(block, block.position()) < 0)
+                throw new IOException("Unexpected end of file.");
+        }
+    }
+
+    /**
+     * A fork/join task which loads a range of the file, splitting it in half on block boundaries
+     * until each task reads a single block.
+     */
+    private static class LoadRangeTask extends RecursiveAction {
+        private final FileChannel channel;
+        private final byte[] data;
+        private final int position;
+        private final int length;
+        private final ProgObserver observer;
+        private final AtomicLong bytesLoaded;
+
+        private LoadRangeTask(FileChannel channel, byte[] data, int position, int length,
+                ProgObserver observer, AtomicLong bytesLoaded) {
+            this.channel = channel;
+            this.data = data;
+            this.position = position;
+            this.length = length;
+            this.observer = observer;
+            this.bytesLoaded = bytesLoaded;
+        }
+
+        @Override
+        protected void compute() {
+            if (observer.isCancelled())
+                return;
+
+            if (length <= BLOCK_SIZE) {
+                try {
+                    readBlock(channel, data, position, length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                long loaded = bytesLoaded.addAndGet(length);
+                observer.setProgress(loaded, data.length);
+
+                return;
+            }
+
+            int blocks = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            int leftLength = (blocks / 2) * BLOCK_SIZE;
+
+            invokeAll(new LoadRangeTask(channel, data, position, leftLength, observer, bytesLoaded),
+                    new LoadRangeTask(channel, data, position + leftLength, length - leftLength,
+                            observer, bytesLoaded));
+        }
     }
-}
\ No newline at end of file
+}
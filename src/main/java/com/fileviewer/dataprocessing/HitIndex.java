@@ -0,0 +1,203 @@
+package com.fileviewer.dataprocessing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+
+/**
+ * The matches of a search, held as sorted primitive arrays of their start and end offsets so
+ * that stepping between hits and finding the hits on a page are binary searches.
+ *
+ * Matches may be added in any order, from any thread, while the search is still running, and
+ * are sorted when next queried.  The starts and ends are sorted separately, which keeps them
+ * paired as long as a later match never ends before an earlier one.  That holds for every
+ * search: byte matches all have the same length, and text matches never overlap.
+ *
+ * Only the first maxHits matches in offset order are kept, however the search finds them.
+ * Matches are collected past the limit until the slack is full, and are then sorted and the
+ * later ones dropped, so the hits kept never have gaps between them.
+ */
+public final class HitIndex {
+    private static final Logger logger = LogManager.getLogger(HitIndex.class);
+
+    // 64 MB of offsets by default, 80 MB with the slack area.  Later matches are counted but
+    // not indexed.
+    public static final int MAX_HITS = 1 << 22;
+
+    private final int maxHits;
+    private final int slack;
+
+    private long[] starts;
+    private long[] ends;
+    private int size = 0;
+    private long droppedCount = 0;
+    private long cutoff = Long.MAX_VALUE;   // The last start kept once the index has been full.
+    private boolean sorted = true;
+
+    public HitIndex() {
+        this(MAX_HITS);
+    }
+
+    /**
+     * @param maxHits The number of matches kept, from the start of the file.
+     */
+    public HitIndex(int maxHits) {
+        if (maxHits < 1)
+            throw new IllegalArgumentException("The index must hold at least one hit.");
+
+        this.maxHits = maxHits;
+        this.slack = Math.max(1, maxHits / 4);
+        this.starts = new long[Math.min(1024, maxHits + slack)];
+        this.ends = new long[starts.length];
+    }
+
+    /**
+     * Adds a match to the index.
+     *
+     * @param startByteIndex The offset of the first byte of the match (inclusive).
+     * @param endByteIndex The offset just past the last byte of the match (exclusive).
+     */
+    public synchronized void add(long startByteIndex, long endByteIndex) {
+        if (size == maxHits + slack)
+            sort();
+
+        if (startByteIndex > cutoff) {
+            droppedCount++;
+            return;
+        }
+
+        if (size == starts.length) {
+            int capacity = (int)Math.min(maxHits + slack, (long)size * 2);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+
+        if (size > 0 && (startByteIndex < starts[size - 1] || endByteIndex < ends[size - 1]))
+            sorted = false;
+
+        starts[size] = startByteIndex;
+        ends[size] = endByteIndex;
+        size++;
+    }
+
+    /**
+     * @return The number of matches indexed.
+     */
+    public synchronized int size() {
+        return Math.min(size, maxHits);
+    }
+
+    /**
+     * @return True if more matches were found than can be indexed, so the later ones are not.
+     */
+    public synchronized boolean isTruncated() {
+        return droppedCount > 0 || size > maxHits;
+    }
+
+    /**
+     * @param byteIndex An offset in the file.
+     * @return The start of the first match starting after the offset, or -1 if there is none.
+     */
+    public synchronized long next(long byteIndex) {
+        sort();
+
+        int index = firstAbove(starts, byteIndex);
+
+        return index < size ? starts[index] : -1;
+    }
+
+    /**
+     * @param byteIndex An offset in the file.
+     * @return The start of the last match starting before the offset, or -1 if there is none.
+     */
+    public synchronized long previous(long byteIndex) {
+        sort();
+
+        int index = firstAbove(starts, byteIndex - 1) - 1;
+
+        return index >= 0 ? starts[index] : -1;
+    }
+
+    /**
+     * @param byteIndex An offset in the file.
+     * @return The number of matches starting before the offset.
+     */
+    public synchronized int countBefore(long byteIndex) {
+        sort();
+
+        return firstAbove(starts, byteIndex - 1);
+    }
+
+    /**
+     * Returns the matches which overlap a range of the file, such as a page, without looking at
+     * any others.
+     *
+     * @param startByteIndex The start of the range (inclusive).
+     * @param endByteIndex The end of the range (exclusive).
+     * @return The start and end offsets of each match, in pairs, in offset order.
+     */
+    public synchronized long[] getOverlapping(long startByteIndex, long endByteIndex) {
+        sort();
+
+        int first = firstAbove(ends, startByteIndex);
+        int last = firstAbove(starts, endByteIndex - 1);
+
+        if (first >= last)
+            return new long[0];
+
+        long[] pairs = new long[(last - first) * 2];
+        for (int i = first; i < last; i++) {
+            pairs[(i - first) * 2] = starts[i];
+            pairs[((i - first) * 2) + 1] = ends[i];
+        }
+
+        return pairs;
+    }
+
+    /**
+     * @return A copy of the start of every match indexed, in offset order.
+     */
+    public synchronized long[] getStarts() {
+        sort();
+
+        return Arrays.copyOf(starts, size);
+    }
+
+    /**
+     * Sorts the matches, and drops any beyond the first maxHits.
+     */
+    private void sort() {
+        if (!sorted) {
+            Arrays.sort(starts, 0, size);
+            Arrays.sort(ends, 0, size);
+            sorted = true;
+        }
+
+        if (size > maxHits) {
+            if (droppedCount == 0)
+                logger.debug("Hit index is full.  Later hits are not indexed.");
+
+            droppedCount += size - maxHits;
+            size = maxHits;
+            cutoff = starts[size - 1];
+        }
+    }
+
+    /**
+     * @return The index of the first value greater than the key, or size if there is none.
+     */
+    private int firstAbove(long[] values, long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= key)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low;
+    }
+}
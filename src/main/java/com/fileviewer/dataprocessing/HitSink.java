@@ -0,0 +1,13 @@
+package com.fileviewer.dataprocessing;
+
+/**
+ * Receives the matches found by a Searcher.
+ */
+@FunctionalInterface
+public interface HitSink {
+    /**
+     * @param startByteIndex The offset of the first byte of the match (inclusive).
+     * @param endByteIndex The offset just past the last byte of the match (exclusive).
+     */
+    void accept(long startByteIndex, long endByteIndex);
+}
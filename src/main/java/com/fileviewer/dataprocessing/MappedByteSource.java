@@ -0,0 +1,78 @@
+package com.fileviewer.dataprocessing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A ByteSource backed by memory-mapped windows of a file.
+ * Windows are mapped on first access, so opening a file is cheap regardless of its size, and
+ * the data lives off-heap in the operating system's page cache.
+ */
+public class MappedByteSource implements ByteSource {
+    private static final Logger logger = LogManager.getLogger(MappedByteSource.class);
+
+    private static final int WINDOW_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final MappedByteBuffer[] windows;
+
+    public MappedByteSource(File file) throws IOException {
+        logger.debug("Constructing MappedByteSource.");
+
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windows = new MappedByteBuffer[(int)((size + WINDOW_SIZE - 1) / WINDOW_SIZE)];
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int read(long position, byte[] dst, int offset, int length) throws IOException {
+        if (position >= size)
+            return -1;
+
+        int toRead = (int)Math.min(length, size - position);
+
+        int copied = 0;
+        while (copied < toRead) {
+            long current = position + copied;
+            int windowIndex = (int)(current / WINDOW_SIZE);
+            int windowOffset = (int)(current % WINDOW_SIZE);
+
+            MappedByteBuffer window = getWindow(windowIndex);
+            int count = Math.min(toRead - copied, window.limit() - windowOffset);
+
+            window.get(windowOffset, dst, offset + copied, count);
+            copied += count;
+        }
+
+        return copied;
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Unable to close mapped file channel.");
+        }
+    }
+
+    private synchronized MappedByteBuffer getWindow(int windowIndex) throws IOException {
+        if (windows[windowIndex] == null) {
+            long start = (long)windowIndex * WINDOW_SIZE;
+            long length = Math.min(WINDOW_SIZE, size - start);
+
+            windows[windowIndex] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+
+        return windows[windowIndex];
+    }
+}
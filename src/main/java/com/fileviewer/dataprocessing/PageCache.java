@@ -0,0 +1,49 @@
+package com.fileviewer.dataprocessing;
+
+/**
+ * A memory-bounded cache of rendered pages, so that returning to a recently viewed page or view
+ * does not render it again.
+ */
+public interface PageCache {
+    /**
+     * Returns the cached page for the key supplied, and records a hit or a miss.
+     * NOTE: Returns null if the page is not cached.
+     *
+     * @param key The PageKey identifying the page.
+     * @return The rendered page, or null.
+     */
+    String get(PageKey key);
+
+    /**
+     * Returns whether the page is cached, without recording a hit or a miss or updating its
+     * recency.
+     *
+     * @param key The PageKey identifying the page.
+     * @return true if the page is cached.
+     */
+    boolean contains(PageKey key);
+
+    /**
+     * Adds a rendered page to the cache, evicting the least recently used pages if the cache
+     * would exceed its character budget.
+     *
+     * @param key The PageKey identifying the page.
+     * @param page The rendered page.
+     */
+    void put(PageKey key, String page);
+
+    /**
+     * Removes all pages from the cache.  Hit and miss counts are kept.
+     */
+    void clear();
+
+    /**
+     * @return The number of lookups which found a cached page.
+     */
+    long getHitCount();
+
+    /**
+     * @return The number of lookups which did not find a cached page.
+     */
+    long getMissCount();
+}
@@ -0,0 +1,87 @@
+package com.fileviewer.dataprocessing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PageCacheImpl implements PageCache {
+    private static final Logger logger = LogManager.getLogger(PageCacheImpl.class);
+
+    // Roughly 16 MB of rendered text.
+    private static final long DEFAULT_MAX_CHARACTERS = 8 * 1024 * 1024;
+
+    private final long maxCharacters;
+
+    // Iterates from least to most recently used.
+    private final LinkedHashMap<PageKey, String> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedCharacters = 0;
+
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    public PageCacheImpl() {
+        this(DEFAULT_MAX_CHARACTERS);
+    }
+
+    /**
+     * @param maxCharacters The maximum total length of all the pages held in the cache.
+     */
+    public PageCacheImpl(long maxCharacters) {
+        logger.debug("Constructing PageCacheImpl.");
+
+        this.maxCharacters = maxCharacters;
+    }
+
+    public synchronized String get(PageKey key) {
+        String page = pages.get(key);
+
+        if (page != null)
+            hitCount++;
+        else
+            missCount++;
+
+        return page;
+    }
+
+    public synchronized boolean contains(PageKey key) {
+        return pages.containsKey(key);
+    }
+
+    public synchronized void put(PageKey key, String page) {
+        if (page.length() > maxCharacters) {
+            logger.debug("Page is larger than the cache.  Not caching.");
+
+            return;
+        }
+
+        String previous = pages.put(key, page);
+        if (previous != null)
+            cachedCharacters -= previous.length();
+
+        cachedCharacters += page.length();
+
+        Iterator<Map.Entry<PageKey, String>> iterator = pages.entrySet().iterator();
+        while (cachedCharacters > maxCharacters) {
+            Map.Entry<PageKey, String> eldest = iterator.next();
+
+            cachedCharacters -= eldest.getValue().length();
+            iterator.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        pages.clear();
+        cachedCharacters = 0;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+}
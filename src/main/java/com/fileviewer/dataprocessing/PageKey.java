@@ -0,0 +1,58 @@
+package com.fileviewer.dataprocessing;
+
+import java.util.Objects;
+
+import static com.fileviewer.dataprocessing.DataViewer.DataType;
+
+/**
+ * Identifies a single rendered page: the data it was read from, the view it was rendered in,
+ * and the range of bytes it covers.  Data sources are compared by identity, so pages of a file
+ * never match pages of a later reload of the same file.
+ */
+public final class PageKey {
+    private final ByteSource data;
+    private final DataType type;
+    private final long startByteIndex;
+    private final long pageSize;
+
+    public PageKey(ByteSource data, DataType type, long startByteIndex, long pageSize) {
+        this.data = data;
+        this.type = type;
+        this.startByteIndex = startByteIndex;
+        this.pageSize = pageSize;
+    }
+
+    public ByteSource getData() {
+        return data;
+    }
+
+    public DataType getType() {
+        return type;
+    }
+
+    public long getStartByteIndex() {
+        return startByteIndex;
+    }
+
+    public long getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof PageKey))
+            return false;
+
+        PageKey other = (PageKey)o;
+
+        return data == other.data && type == other.type && startByteIndex == other.startByteIndex
+                && pageSize == other.pageSize;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(data), type, startByteIndex, pageSize);
+    }
+}
@@ -0,0 +1,39 @@
+package com.fileviewer.dataprocessing;
+
+import static com.fileviewer.dataprocessing.DataViewer.DataType;
+
+/**
+ * Speculatively renders the pages either side of the current page in the background, so that
+ * moving to the next or previous page can be served from memory.  Completed pages are added to
+ * the PageCache, and pages which are already cached are not rendered again.
+ */
+public interface PagePrefetcher {
+    /**
+     * Starts rendering the pages before and after the page supplied.  Any in-flight prefetches
+     * for other pages are cancelled.
+     *
+     * @param data The ByteSource the current page was read from.
+     * @param type The DataType the current page was rendered in.
+     * @param startByteIndex The index of the first byte of the current page.
+     * @param pageSize The number of bytes per page.
+     */
+    void prefetchNeighbours(ByteSource data, DataType type, long startByteIndex, int pageSize);
+
+    /**
+     * Returns a prefetched page, waiting for it if its render has already started.
+     * NOTE: Returns null if the page was not prefetched, or its render has not yet started.
+     *
+     * @param data The ByteSource to read from.
+     * @param type The DataType to render.
+     * @param startByteIndex The index of the first byte of the page (inclusive).
+     * @param endByteIndex The index of the last byte of the page (exclusive).
+     * @return The rendered page, or null.
+     */
+    String takePage(ByteSource data, DataType type, long startByteIndex, long endByteIndex);
+
+    /**
+     * Cancels and discards all prefetched pages.  No cancelled prefetch adds its page to the
+     * PageCache after this returns, so the cache can then be cleared of a replaced file.
+     */
+    void cancelAll();
+}
@@ -0,0 +1,184 @@
+package com.fileviewer.dataprocessing;
+
+import com.fileviewer.observer.ProgObserver;
+import com.fileviewer.observer.ProgObserverFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.fileviewer.dataprocessing.DataViewer.DataType;
+
+public class PagePrefetcherImpl implements PagePrefetcher {
+    private static final Logger logger = LogManager.getLogger(PagePrefetcherImpl.class);
+
+    private final DataViewer dataViewer;
+    private final ProgObserverFactory progObserverFactory;
+    private final PageCache pageCache;
+    private final ExecutorService executor;
+
+    private final Map<PageKey, PrefetchTask> tasks = new HashMap<>();
+
+    public PagePrefetcherImpl(DataViewer dataViewer, ProgObserverFactory progObserverFactory,
+            PageCache pageCache) {
+        logger.debug("Constructing PagePrefetcherImpl.");
+
+        this.dataViewer = dataViewer;
+        this.progObserverFactory = progObserverFactory;
+        this.pageCache = pageCache;
+
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "PagePrefetcher");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+    }
+
+    public synchronized void prefetchNeighbours(ByteSource data, DataType type,
+            long startByteIndex, int pageSize) {
+        List<PageKey> neighbours = new ArrayList<>(2);
+
+        long nextStartIndex = startByteIndex + pageSize;
+        if (nextStartIndex < data.size())
+            neighbours.add(new PageKey(data, type, nextStartIndex, pageSize));
+
+        if (startByteIndex > 0) {
+            long prevStartIndex = Math.max(0, startByteIndex - pageSize);
+            neighbours.add(new PageKey(data, type, prevStartIndex, pageSize));
+        }
+
+        // Cancel prefetches which are no longer next to the current page.
+        Iterator<Map.Entry<PageKey, PrefetchTask>> iterator = tasks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<PageKey, PrefetchTask> entry = iterator.next();
+
+            if (!neighbours.contains(entry.getKey())) {
+                entry.getValue().cancel();
+                iterator.remove();
+            }
+        }
+
+        for (PageKey key : neighbours) {
+            if (!tasks.containsKey(key) && !pageCache.contains(key))
+                tasks.put(key, submit(key));
+        }
+    }
+
+    public String takePage(ByteSource data, DataType type, long startByteIndex,
+            long endByteIndex) {
+        PageKey key = new PageKey(data, type, startByteIndex, endByteIndex - startByteIndex);
+
+        PrefetchTask task;
+        synchronized (this) {
+            task = tasks.get(key);
+
+            if (task == null)
+                return null;
+
+            // Rendering directly is quicker than waiting behind another prefetch.
+            if (!task.isStarted()) {
+                task.cancel();
+                tasks.remove(key);
+
+                return null;
+            }
+        }
+
+        String page = task.get();
+
+        if (page != null)
+            logger.debug("Serving prefetched page at byte " + startByteIndex + ".");
+
+        return page;
+    }
+
+    public synchronized void cancelAll() {
+        for (PrefetchTask task : tasks.values())
+            task.cancel();
+
+        tasks.clear();
+    }
+
+    private PrefetchTask submit(PageKey key) {
+        logger.debug("Prefetching page at byte " + key.getStartByteIndex() + ".");
+
+        PrefetchTask task = new PrefetchTask(progObserverFactory.getInstance());
+
+        task.setFuture(executor.submit(() -> {
+                task.setStarted();
+
+                if (task.getObserver().isCancelled())
+                    return null;
+
+                String page = dataViewer.fetchDisplayData(key.getData(), task.getObserver(),
+                        key.getType(), key.getStartByteIndex(),
+                        key.getStartByteIndex() + key.getPageSize());
+
+                // Checked under the lock, so that once cancelAll returns no page of a replaced
+                // file can be added to the cache after it is cleared.
+                synchronized (this) {
+                    if (page != null && !task.getObserver().isCancelled())
+                        pageCache.put(key, page);
+                }
+
+                return page;
+            }));
+
+        return task;
+    }
+
+    /**
+     * A single page render running on the prefetch executor.
+     */
+    private static class PrefetchTask {
+        private final ProgObserver observer;
+        private final AtomicBoolean started = new AtomicBoolean(false);
+        private Future<String> future;
+
+        private PrefetchTask(ProgObserver observer) {
+            this.observer = observer;
+        }
+
+        private ProgObserver getObserver() {
+            return observer;
+        }
+
+        private void setFuture(Future<String> future) {
+            this.future = future;
+        }
+
+        private void setStarted() {
+            started.set(true);
+        }
+
+        private boolean isStarted() {
+            return started.get();
+        }
+
+        private void cancel() {
+            observer.setCancelled(true);
+            future.cancel(false);
+        }
+
+        /**
+         * Waits for the render to complete.
+         * NOTE: Returns null if the render was cancelled or failed.
+         */
+        private String get() {
+            try {
+                return future.get();
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+}
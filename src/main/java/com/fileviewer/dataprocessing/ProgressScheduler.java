@@ -0,0 +1,62 @@
+package com.fileviewer.dataprocessing;
+
+import com.fileviewer.observer.ProgObserver;
+
+/**
+ * Decides when a long-running loop should check for cancellation and publish its progress.
+ * The clock is only read every few thousand units of work, and the observer is only touched
+ * once per time budget, so the loop runs at full speed in between while staying cancellable.
+ */
+final class ProgressScheduler {
+    // Roughly one frame at 60 Hz.
+    private static final long BUDGET_NANOS = 16_000_000L;
+
+    // Units of work between reads of the clock.  Must be a power of two.
+    private static final int CLOCK_INTERVAL = 4096;
+
+    private final ProgObserver observer;
+    private final long totalUnits;
+    private final long totalBytes;
+    private long nextCheckpoint;
+
+    /**
+     * @param observer The ProgObserver to check and update.
+     * @param totalUnits The total units of work, used to calculate the percentage complete.
+     * @param totalBytes The number of bytes the units of work cover, used to report the bytes
+     *                   processed.
+     */
+    ProgressScheduler(ProgObserver observer, long totalUnits, long totalBytes) {
+        this.observer = observer;
+        this.totalUnits = totalUnits;
+        this.totalBytes = totalBytes;
+
+        // The first checkpoint is taken immediately so that a cancelled task never starts.
+        this.nextCheckpoint = System.nanoTime();
+    }
+
+    /**
+     * Called once per unit of work.  Publishes progress if the time budget has elapsed.
+     *
+     * @param completedUnits The units of work completed so far.
+     * @return false if the task has been cancelled and should stop.
+     */
+    boolean checkpoint(long completedUnits) {
+        if ((completedUnits & (CLOCK_INTERVAL - 1)) != 0)
+            return true;
+
+        long now = System.nanoTime();
+        if (now - nextCheckpoint < 0)
+            return true;
+
+        nextCheckpoint = now + BUDGET_NANOS;
+
+        if (observer.isCancelled())
+            return false;
+
+        // Units may be characters rather than bytes, so bytes are reported in proportion.
+        if (totalUnits > 0)
+            observer.setProgress((completedUnits * totalBytes) / totalUnits, totalBytes);
+
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+package com.fileviewer.dataprocessing;
+
+import com.fileviewer.observer.ProgObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A ByteSource which copies the file onto the heap in the background, starting from its first
+ * byte.  Opening returns straight away.  Reads of the part already loaded are served from the
+ * heap, while reads beyond it are served by positional reads of the file, so no read ever waits
+ * for the loader.
+ * Loading progress is reported to the load observer, which is finished once every byte is on
+ * the heap.  Cancelling the observer or closing the source stops the loader.
+ */
+public class ProgressiveByteSource implements ByteSource {
+    private static final Logger logger = LogManager.getLogger(ProgressiveByteSource.class);
+
+    private final FileChannel channel;
+    private final byte[] data;
+    private final ProgObserver loadObserver;
+    private final int blockSize;
+
+    // Bytes from the start of the file which are on the heap.  Written only by the loader, and
+    // published after the bytes themselves.
+    private volatile long loadedBytes = 0;
+    private volatile boolean closed = false;
+
+    /**
+     * @param file The file to load.
+     * @param loadObserver The ProgObserver to report loading progress to.
+     * @param maxSize The largest file size that can be loaded onto the heap.
+     * @param blockSize The number of bytes loaded between progress reports.
+     * @throws IOException If the file could not be opened, or is larger than maxSize.
+     */
+    public ProgressiveByteSource(File file, ProgObserver loadObserver, long maxSize,
+            int blockSize) throws IOException {
+        logger.debug("Constructing ProgressiveByteSource.");
+
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+        long size = channel.size();
+        if (size > maxSize) {
+            channel.close();
+
+            throw new IOException("File size too large!  Must be smaller than " + maxSize
+                    + " bytes to load onto the heap.");
+        }
+
+        this.data = new byte[(int)size];
+        this.loadObserver = loadObserver;
+        this.blockSize = blockSize;
+
+        Thread loader = new Thread(this::load, "ProgressiveLoader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public long size() {
+        return data.length;
+    }
+
+    public long getAvailableBytes() {
+        return loadedBytes;
+    }
+
+    public ProgObserver getLoadProgress() {
+        return loadObserver;
+    }
+
+    public int read(long position, byte[] dst, int offset, int length) throws IOException {
+        if (position >= data.length)
+            return -1;
+
+        int toRead = (int)Math.min(length, data.length - position);
+        long loaded = loadedBytes;
+
+        if (position + toRead <= loaded) {
+            System.arraycopy(data, (int)position, dst, offset, toRead);
+
+            return toRead;
+        }
+
+        // Copy whatever is already loaded, then read the rest from the file.
+        int fromHeap = (int)Math.max(0, loaded - position);
+        if (fromHeap > 0)
+            System.arraycopy(data, (int)position, dst, offset, fromHeap);
+
+        ByteBuffer rest = ByteBuffer.wrap(dst, offset + fromHeap, toRead - fromHeap);
+        while (rest.hasRemaining()) {
+            long filePosition = position + (rest.position() - offset);
+            if (channel.read(rest, filePosition) < 0)
+                break;
+        }
+
+        return rest.position() - offset;
+    }
+
+    public void close() {
+        closed = true;
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Unable to close file channel.");
+        }
+    }
+
+    /**
+     * Copies the file onto the heap a block at a time, publishing each block as it completes.
+     */
+    private void load() {
+        try {
+            int position = 0;
+            while (position < data.length) {
+                if (closed || loadObserver.isCancelled()) {
+                    logger.debug("Stopped loading file in the background.");
+
+                    return;
+                }
+
+                int length = Math.min(blockSize, data.length - position);
+
+                ByteBuffer block = ByteBuffer.wrap(data, position, length);
+                while (block.hasRemaining()) {
+                    if (channel.read(block, block.position()) < 0)
+                        throw new IOException("Unexpected end of file.");
+                }
+
+                position += length;
+                loadedBytes = position;
+
+                loadObserver.setProgress(position, data.length);
+            }
+
+            logger.info("Finished loading file in the background.");
+        } catch (IOException e) {
+            if (!closed)
+                logger.error("Unable to load file in the background.", e);
+        } finally {
+            loadObserver.setIsFinished(true);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.fileviewer.dataprocessing;
+
+import com.fileviewer.observer.ProgObserver;
+
+import java.util.regex.Pattern;
+
+import static com.fileviewer.dataprocessing.DataViewer.DataType;
+
+/**
+ * Searches the whole of a ByteSource for patterns, reporting the offset of every match.
+ * The file is scanned in parallel, and matches are passed back while the scan is running so
+ * that the first results can be shown long before the end of a large file is reached.
+ */
+public interface Searcher {
+    /**
+     * Finds every occurrence of a byte pattern, including overlapping occurrences.
+     * Progress is recorded in the observer, and the search stops early if it is cancelled.
+     * NOTE: Matches are passed to the sink from several threads at once, and not in offset
+     * order.
+     *
+     * @param data The ByteSource to search.
+     * @param pattern The bytes to find.
+     * @param observer The ProgObserver used to record progress and check for cancellation.
+     * @param hitSink The HitSink given the byte range of each match.
+     * @return The number of matches, or -1 if the search was cancelled or the data could not be
+     *         read.
+     */
+    long findBytes(ByteSource data, byte[] pattern, ProgObserver observer, HitSink hitSink);
+
+    /**
+     * Finds every match of a regular expression in the text of one of the character views:
+     * DataType.Characters, DataType.UTF8Characters or DataType.UTF16Characters.  The file is
+     * decoded a window at a time, and each match is reported as the range from the first byte
+     * of its first character to the byte after its last character.  Matches are found as a
+     * single pass over the whole text would find them, but may be no longer than the overlap
+     * between windows.  Empty matches are not reported.
+     * NOTE: Matches are passed to the sink in offset order, on the calling thread.
+     *
+     * @param data The ByteSource to search.
+     * @param type The character view whose text is searched.
+     * @param pattern The compiled regular expression to find.
+     * @param observer The ProgObserver used to record progress and check for cancellation.
+     * @param hitSink The HitSink given the byte range of each match.
+     * @return The number of matches, or -1 if the search was cancelled or the data could not be
+     *         read.
+     */
+    long findText(ByteSource data, DataType type, Pattern pattern, ProgObserver observer,
+            HitSink hitSink);
+
+    /**
+     * Finds the occurrences of a byte pattern among a set of candidate offsets, without scanning
+     * the rest of the file.  This narrows the hits of an earlier search when the pattern is
+     * extended: every occurrence of the longer pattern contains the shorter one at a known
+     * position, so the candidates are the earlier hits moved back by that position.
+     * Progress is recorded in candidates checked rather than bytes.
+     * NOTE: Matches are passed to the sink in offset order, on the calling thread.
+     *
+     * @param data The ByteSource to search.
+     * @param candidates The offsets to check, in ascending order.
+     * @param pattern The bytes to find.
+     * @param observer The ProgObserver used to record progress and check for cancellation.
+     * @param hitSink The HitSink given the byte range of each match.
+     * @return The number of matches, or -1 if the search was cancelled or the data could not be
+     *         read.
+     */
+    long refineBytes(ByteSource data, long[] candidates, byte[] pattern, ProgObserver observer,
+            HitSink hitSink);
+
+    /**
+     * Finds the occurrences of a piece of text among a set of candidate offsets in one of the
+     * character views, without scanning the rest of the file.  Matches are chosen as findText
+     * chooses them, so none overlap.  This narrows the hits of an earlier text search when the
+     * text is extended, which is exact as long as the earlier text could not overlap itself.
+     * Progress is recorded in candidates checked rather than bytes.
+     * NOTE: Matches are passed to the sink in offset order, on the calling thread.
+     *
+     * @param data The ByteSource to search.
+     * @param type The character view whose text is searched.
+     * @param candidates The offsets of the characters to check, in ascending order.
+     * @param text The text to find.
+     * @param observer The ProgObserver used to record progress and check for cancellation.
+     * @param hitSink The HitSink given the byte range of each match.
+     * @return The number of matches, or -1 if the search was cancelled or the data could not be
+     *         read.
+     */
+    long refineText(ByteSource data, DataType type, long[] candidates, String text,
+            ProgObserver observer, HitSink hitSink);
+}
@@ -0,0 +1,433 @@
+package com.fileviewer.dataprocessing;
+
+import com.fileviewer.observer.ProgObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.fileviewer.dataprocessing.DataViewer.DataType;
+
+public class SearcherImpl implements Searcher {
+    private static final Logger logger = LogManager.getLogger(SearcherImpl.class);
+
+    private static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+    // Text is decoded a window at a time, each extended by the overlap so that matches starting
+    // near its end are seen whole.  The overlap bounds the length of a match.
+    private static final int DEFAULT_TEXT_WINDOW_SIZE = 1024 * 1024;
+    private static final int DEFAULT_TEXT_OVERLAP = 64 * 1024;
+
+    // The number of candidates checked between each look at the observer when refining.
+    private static final int CANDIDATE_BATCH = 4096;
+
+    private final ForkJoinPool pool;
+    private final int segmentSize;
+    private final int textWindowSize;
+    private final int textOverlap;
+    private final TextDecoder textDecoder = new TextDecoder();
+
+    public SearcherImpl() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SEGMENT_SIZE, DEFAULT_TEXT_WINDOW_SIZE,
+                DEFAULT_TEXT_OVERLAP);
+    }
+
+    /**
+     * @param pool The ForkJoinPool to scan the segments on.
+     * @param segmentSize The number of match positions each task scans without splitting.
+     * @param textWindowSize The number of bytes of text decoded and matched at a time.
+     * @param textOverlap The number of bytes each text window is extended by, which is the
+     *                    longest match that can be found.
+     */
+    public SearcherImpl(ForkJoinPool pool, int segmentSize, int textWindowSize,
+            int textOverlap) {
+        logger.debug("Constructing SearcherImpl.");
+
+        if (segmentSize < 1 || textWindowSize < 1 || textOverlap < 0)
+            throw new IllegalArgumentException("Sizes must be positive.");
+
+        this.pool = pool;
+        this.segmentSize = segmentSize;
+        this.textWindowSize = textWindowSize;
+        this.textOverlap = textOverlap;
+    }
+
+    public long findBytes(ByteSource data, byte[] pattern, ProgObserver observer,
+            HitSink hitSink) {
+        if (data == null || pattern == null || observer == null || hitSink == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        if (pattern.length == 0)
+            throw new IllegalArgumentException("Pattern cannot be empty.");
+
+        long size = data.size();
+        long lastStart = size - pattern.length + 1;
+
+        observer.setProgress(0, size);
+
+        if (lastStart <= 0)
+            return observer.isCancelled() ? -1 : 0;
+
+        BytePatternTask task = new BytePatternTask(new Scan(data, pattern, observer, hitSink), 0,
+                lastStart);
+
+        long hitCount = pool.invoke(task);
+
+        if (hitCount < 0 || observer.isCancelled()) {
+            logger.debug("Byte search was cancelled or failed.");
+
+            return -1;
+        }
+
+        observer.setProgress(size, size);
+
+        return hitCount;
+    }
+
+    public long findText(ByteSource data, DataType type, Pattern pattern, ProgObserver observer,
+            HitSink hitSink) {
+        if (data == null || type == null || pattern == null || observer == null
+                || hitSink == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        if (type != DataType.Characters && type != DataType.UTF8Characters
+                && type != DataType.UTF16Characters)
+            throw new IllegalArgumentException("Only character views can be searched as text.");
+
+        long size = data.size();
+        long hitCount = 0;
+
+        // Matches may not overlap, so each window resumes after the last match reported.
+        long lastMatchEnd = 0;
+
+        observer.setProgress(0, size);
+
+        for (long windowStart = 0; windowStart < size; windowStart += textWindowSize) {
+            if (observer.isCancelled()) {
+                logger.debug("Text search was cancelled.");
+
+                return -1;
+            }
+
+            long coreEnd = Math.min(size, windowStart + textWindowSize);
+
+            TextWindow window;
+            try {
+                window = decodeWindow(data, type, windowStart, coreEnd + textOverlap);
+            } catch (IOException e) {
+                logger.error("Unable to read text window at " + windowStart + ".");
+
+                return -1;
+            }
+
+            // Matches starting in the overlap are left for the next window, which sees more of
+            // the text after them.
+            int coreLength = window.indexOf(coreEnd);
+
+            Matcher matcher = pattern.matcher(window.getText());
+            matcher.useTransparentBounds(true);
+            matcher.useAnchoringBounds(false);
+            matcher.region(window.indexOf(lastMatchEnd), window.length());
+
+            while (matcher.find() && matcher.start() < coreLength) {
+                if (matcher.end() == matcher.start())
+                    continue;
+
+                lastMatchEnd = window.getByteOffset(matcher.end());
+
+                hitSink.accept(window.getByteOffset(matcher.start()), lastMatchEnd);
+                hitCount++;
+            }
+
+            observer.setProgress(coreEnd, size);
+        }
+
+        return observer.isCancelled() ? -1 : hitCount;
+    }
+
+    public long refineBytes(ByteSource data, long[] candidates, byte[] pattern,
+            ProgObserver observer, HitSink hitSink) {
+        if (data == null || candidates == null || pattern == null || observer == null
+                || hitSink == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        if (pattern.length == 0)
+            throw new IllegalArgumentException("Pattern cannot be empty.");
+
+        byte[] buffer = new byte[pattern.length];
+        long hitCount = 0;
+
+        for (int i = 0; i < candidates.length; i++) {
+            if (i % CANDIDATE_BATCH == 0) {
+                if (observer.isCancelled()) {
+                    logger.debug("Byte refinement was cancelled.");
+
+                    return -1;
+                }
+
+                observer.setProgress(i, candidates.length);
+            }
+
+            long candidate = candidates[i];
+            if (candidate < 0)
+                continue;
+
+            int length;
+            try {
+                length = data.readFully(candidate, buffer, 0, buffer.length);
+            } catch (IOException e) {
+                logger.error("Unable to read candidate at " + candidate + ".");
+
+                return -1;
+            }
+
+            if (length == pattern.length && Arrays.equals(buffer, pattern)) {
+                hitSink.accept(candidate, candidate + pattern.length);
+                hitCount++;
+            }
+        }
+
+        observer.setProgress(candidates.length, candidates.length);
+
+        return observer.isCancelled() ? -1 : hitCount;
+    }
+
+    public long refineText(ByteSource data, DataType type, long[] candidates, String text,
+            ProgObserver observer, HitSink hitSink) {
+        if (data == null || type == null || candidates == null || text == null
+                || observer == null || hitSink == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        if (type != DataType.Characters && type != DataType.UTF8Characters
+                && type != DataType.UTF16Characters)
+            throw new IllegalArgumentException("Only character views can be searched as text.");
+
+        if (text.isEmpty())
+            throw new IllegalArgumentException("Text cannot be empty.");
+
+        // The most bytes the text can take up in the view's encoding.
+        int maxByteCount = text.length() * (type == DataType.Characters ? 1
+                : type == DataType.UTF8Characters ? 3 : 2);
+
+        long hitCount = 0;
+        long lastMatchEnd = 0;
+
+        for (int i = 0; i < candidates.length; i++) {
+            if (i % CANDIDATE_BATCH == 0) {
+                if (observer.isCancelled()) {
+                    logger.debug("Text refinement was cancelled.");
+
+                    return -1;
+                }
+
+                observer.setProgress(i, candidates.length);
+            }
+
+            long candidate = candidates[i];
+            if (candidate < lastMatchEnd)
+                continue;
+
+            TextWindow window;
+            try {
+                window = decodeWindow(data, type, candidate, candidate + maxByteCount);
+            } catch (IOException e) {
+                logger.error("Unable to read candidate at " + candidate + ".");
+
+                return -1;
+            }
+
+            if (!startsWith(window, text, candidate))
+                continue;
+
+            lastMatchEnd = window.getByteOffset(text.length());
+
+            hitSink.accept(candidate, lastMatchEnd);
+            hitCount++;
+        }
+
+        observer.setProgress(candidates.length, candidates.length);
+
+        return observer.isCancelled() ? -1 : hitCount;
+    }
+
+    /**
+     * @return True if the window starts with the text, at the offset supplied.
+     */
+    private static boolean startsWith(TextWindow window, String text, long byteOffset) {
+        if (window.length() < text.length() || window.getByteOffset(0) != byteOffset)
+            return false;
+
+        for (int i = 0; i < text.length(); i++)
+            if (window.charAt(i) != text.charAt(i))
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Decodes the characters of a view which start within the range supplied.
+     */
+    private TextWindow decodeWindow(ByteSource data, DataType type, long startByteIndex,
+            long endByteIndex) throws IOException {
+        if (type != DataType.Characters)
+            return textDecoder.decodeWithOffsets(data, type == DataType.UTF16Characters,
+                    startByteIndex, endByteIndex);
+
+        // The Characters view shows each byte as the character with the same value.
+        long end = Math.min(endByteIndex, data.size());
+        byte[] bytes = new byte[(int)Math.max(0, end - startByteIndex)];
+        int length = data.readFully(startByteIndex, bytes, 0, bytes.length);
+
+        char[] chars = new char[length];
+        long[] offsets = new long[length + 1];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char)(bytes[i] & 0xFF);
+            offsets[i] = startByteIndex + i;
+        }
+        offsets[length] = startByteIndex + length;
+
+        return new TextWindow(chars, length, offsets);
+    }
+
+    /**
+     * Builds the Boyer-Moore-Horspool table of how far the pattern can be shifted when the byte
+     * under its last position does not match.
+     */
+    static int[] buildSkipTable(byte[] pattern) {
+        int[] skip = new int[256];
+        Arrays.fill(skip, pattern.length);
+
+        for (int i = 0; i < pattern.length - 1; i++)
+            skip[pattern[i] & 0xFF] = pattern.length - 1 - i;
+
+        return skip;
+    }
+
+    /**
+     * Finds the matches starting in buffer[0, limit) with Boyer-Moore-Horspool.  The buffer must
+     * hold the pattern length - 1 bytes after limit, where they exist, so that matches which
+     * run past the end of the segment are found.
+     *
+     * @return The number of matches passed to the sink.
+     */
+    static long scan(byte[] buffer, int limit, int length, byte[] pattern, int[] skip,
+            long baseOffset, HitSink hitSink) {
+        int last = pattern.length - 1;
+        byte lastByte = pattern[last];
+        long hitCount = 0;
+
+        int position = 0;
+        while (position < limit && position + last < length) {
+            byte current = buffer[position + last];
+
+            if (current == lastByte) {
+                int i = last - 1;
+                while (i >= 0 && buffer[position + i] == pattern[i])
+                    i--;
+
+                if (i < 0) {
+                    long hit = baseOffset + position;
+                    hitSink.accept(hit, hit + pattern.length);
+                    hitCount++;
+                }
+            }
+
+            position += skip[current & 0xFF];
+        }
+
+        return hitCount;
+    }
+
+    /**
+     * The state shared by every task of one search.
+     */
+    private static class Scan {
+        private final ByteSource data;
+        private final byte[] pattern;
+        private final int[] skip;
+        private final ProgObserver observer;
+        private final HitSink hitSink;
+        private final AtomicLong scannedBytes = new AtomicLong();
+
+        private Scan(ByteSource data, byte[] pattern, ProgObserver observer,
+                HitSink hitSink) {
+            this.data = data;
+            this.pattern = pattern;
+            this.skip = buildSkipTable(pattern);
+            this.observer = observer;
+            this.hitSink = hitSink;
+        }
+    }
+
+    /**
+     * Finds the matches starting in [from, to), splitting the range in half until it is no
+     * larger than a segment.  Each segment is read with the pattern length - 1 bytes that follow
+     * it, so that matches straddling two segments are found exactly once, by the segment they
+     * start in.
+     */
+    private class BytePatternTask extends RecursiveTask<Long> {
+        private final Scan scan;
+        private final long from;
+        private final long to;
+
+        private BytePatternTask(Scan scan, long from, long to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (scan.observer.isCancelled())
+                return -1L;
+
+            if (to - from <= segmentSize)
+                return scanSegment();
+
+            long middle = from + ((to - from) / 2);
+
+            BytePatternTask left = new BytePatternTask(scan, from, middle);
+            BytePatternTask right = new BytePatternTask(scan, middle, to);
+
+            // The left half is scanned first by this thread, so the file is worked through from
+            // its start and the earliest matches are reported first.
+            right.fork();
+
+            long leftCount = left.compute();
+            long rightCount = right.join();
+
+            if (leftCount < 0 || rightCount < 0)
+                return -1L;
+
+            return leftCount + rightCount;
+        }
+
+        private long scanSegment() {
+            int limit = (int)(to - from);
+            byte[] buffer = new byte[limit + scan.pattern.length - 1];
+
+            int length;
+            try {
+                length = scan.data.readFully(from, buffer, 0, buffer.length);
+            } catch (IOException e) {
+                logger.error("Unable to read segment at " + from + ".");
+
+                return -1;
+            }
+
+            long hitCount = SearcherImpl.scan(buffer, limit, length, scan.pattern, scan.skip,
+                    from, scan.hitSink);
+
+            long size = scan.data.size();
+            scan.observer.setProgress(Math.min(size, scan.scannedBytes.addAndGet(limit)), size);
+
+            return hitCount;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.fileviewer.dataprocessing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Decodes UTF-8 and UTF-16 text from any range of a ByteSource.
+ *
+ * A range decodes to exactly the characters whose first byte lies inside it.  Both encodings are
+ * self-synchronising, so the code point boundary at or after any offset is found by looking at
+ * no more than four bytes around it.  This means adjacent pages tile the text exactly: a
+ * multibyte sequence or surrogate pair split by a page boundary is rendered whole at the end of
+ * the page it starts in, and skipped at the top of the next.  The only state which depends on
+ * the start of the file is the UTF-16 byte order mark, which is read once per source.
+ */
+final class TextDecoder {
+    private static final Logger logger = LogManager.getLogger(TextDecoder.class);
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    // A UTF-8 sequence has at most three continuation bytes after its lead byte.
+    private static final int MAX_UTF8_CONTINUATION = 3;
+
+    // UTF-16 byte order and text start, keyed by source identity.
+    private final Map<ByteSource, Utf16Layout> utf16Layouts =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Decoders are reused, but are not thread safe, so each thread has its own.
+    private final ThreadLocal<Map<Charset, CharsetDecoder>> decoders =
+            ThreadLocal.withInitial(HashMap::new);
+
+    TextDecoder() {
+        logger.debug("Constructing TextDecoder.");
+    }
+
+    /**
+     * Decodes the characters which start within the range supplied.
+     *
+     * @param data The ByteSource to read from.
+     * @param utf16 true to decode UTF-16, false to decode UTF-8.
+     * @param startByteIndex The start of the range (inclusive).
+     * @param endByteIndex The end of the range (exclusive).
+     * @return A CharBuffer ready to be read, containing the decoded characters.
+     * @throws IOException If the source could not be read.
+     */
+    CharBuffer decode(ByteSource data, boolean utf16, long startByteIndex, long endByteIndex)
+            throws IOException {
+        return decodeRange(data, utf16, startByteIndex, endByteIndex, false).getText();
+    }
+
+    /**
+     * Decodes the characters which start within the range supplied, exactly as decode does, and
+     * records the byte offset at which each of them starts.
+     *
+     * @param data The ByteSource to read from.
+     * @param utf16 true to decode UTF-16, false to decode UTF-8.
+     * @param startByteIndex The start of the range (inclusive).
+     * @param endByteIndex The end of the range (exclusive).
+     * @return The decoded TextWindow.
+     * @throws IOException If the source could not be read.
+     */
+    TextWindow decodeWithOffsets(ByteSource data, boolean utf16, long startByteIndex,
+            long endByteIndex) throws IOException {
+        return decodeRange(data, utf16, startByteIndex, endByteIndex, true);
+    }
+
+    private TextWindow decodeRange(ByteSource data, boolean utf16, long startByteIndex,
+            long endByteIndex, boolean withOffsets) throws IOException {
+        long size = data.size();
+        long end = Math.min(endByteIndex, size);
+
+        if (startByteIndex >= end)
+            return new TextWindow(new char[0], 0, new long[] {Math.min(startByteIndex, size)});
+
+        // Read a little either side of the range so that both of its boundaries can be aligned.
+        long windowStart = Math.max(0, startByteIndex - 2);
+        long windowEnd = Math.min(size, end + MAX_UTF8_CONTINUATION);
+        byte[] window = new byte[(int)(windowEnd - windowStart)];
+        data.readFully(windowStart, window, 0, window.length);
+
+        Charset charset;
+        long alignedStart;
+        long alignedEnd;
+
+        if (utf16) {
+            Utf16Layout layout = getUtf16Layout(data);
+
+            charset = layout.charset;
+            alignedStart = alignUtf16(window, windowStart, windowEnd, startByteIndex, layout);
+            alignedEnd = alignUtf16(window, windowStart, windowEnd, end, layout);
+        } else {
+            charset = StandardCharsets.UTF_8;
+            alignedStart = alignUtf8(window, windowStart, windowEnd, startByteIndex);
+            alignedEnd = alignUtf8(window, windowStart, windowEnd, end);
+        }
+
+        if (alignedStart >= alignedEnd)
+            return new TextWindow(new char[0], 0, new long[] {alignedStart});
+
+        ByteBuffer in = ByteBuffer.wrap(window, (int)(alignedStart - windowStart),
+                (int)(alignedEnd - alignedStart));
+
+        // Every character consumes at least one byte, even when malformed.
+        CharBuffer out = CharBuffer.allocate(in.remaining());
+        long[] offsets = withOffsets ? new long[in.remaining() + 1] : null;
+
+        CharsetDecoder decoder = getDecoder(charset);
+
+        // Malformed input is reported rather than replaced, so that the bytes each replacement
+        // character stands for are known.  Each is replaced just as CodingErrorAction.REPLACE
+        // would replace it.
+        while (true) {
+            int charStart = out.position();
+            long byteStart = windowStart + in.position();
+
+            CoderResult result = decoder.decode(in, out, true);
+
+            if (offsets != null)
+                recordOffsets(out, charStart, byteStart, utf16, offsets);
+
+            if (!result.isError())
+                break;
+
+            if (offsets != null)
+                offsets[out.position()] = windowStart + in.position();
+
+            out.put(REPLACEMENT);
+            in.position(in.position() + result.length());
+        }
+
+        decoder.flush(out);
+
+        if (offsets != null)
+            offsets[out.position()] = alignedEnd;
+
+        return new TextWindow(out.array(), out.position(), offsets);
+    }
+
+    /**
+     * Records the offsets of the characters decoded in out from charStart, which are well
+     * formed, so each takes up as many bytes as it does when encoded again.  Both halves of a
+     * surrogate pair share the offset of the pair.
+     */
+    private static void recordOffsets(CharBuffer out, int charStart, long byteStart,
+            boolean utf16, long[] offsets) {
+        char[] chars = out.array();
+        long offset = byteStart;
+
+        for (int i = charStart; i < out.position(); i++) {
+            char c = chars[i];
+
+            if (utf16) {
+                offsets[i] = offset;
+                offset += 2;
+            } else if (Character.isLowSurrogate(c)) {
+                offsets[i] = offsets[i - 1];
+            } else {
+                offsets[i] = offset;
+                offset += c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : 3;
+            }
+        }
+    }
+
+    /**
+     * Returns the first code point boundary at or after the offset supplied.
+     *
+     * @param data The ByteSource to read from.
+     * @param utf16 true for UTF-16, false for UTF-8.
+     * @param byteIndex The offset to align.
+     * @return The aligned offset, which is never greater than the size of the source.
+     * @throws IOException If the source could not be read.
+     */
+    long align(ByteSource data, boolean utf16, long byteIndex) throws IOException {
+        long size = data.size();
+        long offset = Math.min(Math.max(byteIndex, 0), size);
+
+        long windowStart = Math.max(0, offset - 2);
+        long windowEnd = Math.min(size, offset + MAX_UTF8_CONTINUATION);
+        byte[] window = new byte[(int)(windowEnd - windowStart)];
+        data.readFully(windowStart, window, 0, window.length);
+
+        if (utf16)
+            return alignUtf16(window, windowStart, windowEnd, offset, getUtf16Layout(data));
+        else
+            return alignUtf8(window, windowStart, windowEnd, offset);
+    }
+
+    private static long alignUtf8(byte[] window, long windowStart, long windowEnd, long offset) {
+        long aligned = offset;
+
+        // Continuation bytes have the form 10xxxxxx.
+        while (aligned < windowEnd && aligned - offset < MAX_UTF8_CONTINUATION
+                && (window[(int)(aligned - windowStart)] & 0xC0) == 0x80) {
+            aligned++;
+        }
+
+        return aligned;
+    }
+
+    private static long alignUtf16(byte[] window, long windowStart, long windowEnd, long offset,
+            Utf16Layout layout) {
+        if (offset <= layout.textStart)
+            return Math.min(layout.textStart, windowEnd);
+
+        // Round up to the next code unit.
+        long aligned = offset + ((offset - layout.textStart) & 1);
+
+        // A low surrogate after a high surrogate belongs to the character before it.
+        if (aligned + 2 <= windowEnd && aligned - 2 >= layout.textStart
+                && Character.isHighSurrogate(unitAt(window, windowStart, aligned - 2, layout))
+                && Character.isLowSurrogate(unitAt(window, windowStart, aligned, layout))) {
+            aligned += 2;
+        }
+
+        return Math.min(aligned, windowEnd);
+    }
+
+    private static char unitAt(byte[] window, long windowStart, long offset, Utf16Layout layout) {
+        int first = window[(int)(offset - windowStart)] & 0xFF;
+        int second = window[(int)(offset - windowStart) + 1] & 0xFF;
+
+        if (layout.bigEndian)
+            return (char)((first << 8) | second);
+        else
+            return (char)((second << 8) | first);
+    }
+
+    /**
+     * Reads the byte order mark at the start of the source, if there is one.  Without a byte
+     * order mark the text is treated as big endian.
+     */
+    private Utf16Layout getUtf16Layout(ByteSource data) throws IOException {
+        Utf16Layout layout = utf16Layouts.get(data);
+
+        if (layout == null) {
+            byte[] bom = new byte[2];
+            int count = data.readFully(0, bom, 0, 2);
+
+            if (count == 2 && (bom[0] & 0xFF) == 0xFF && (bom[1] & 0xFF) == 0xFE)
+                layout = new Utf16Layout(false, 2);
+            else if (count == 2 && (bom[0] & 0xFF) == 0xFE && (bom[1] & 0xFF) == 0xFF)
+                layout = new Utf16Layout(true, 2);
+            else
+                layout = new Utf16Layout(true, 0);
+
+            utf16Layouts.put(data, layout);
+        }
+
+        return layout;
+    }
+
+    private CharsetDecoder getDecoder(Charset charset) {
+        CharsetDecoder decoder = decoders.get().computeIfAbsent(charset, c -> c.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT));
+
+        decoder.reset();
+
+        return decoder;
+    }
+
+    /**
+     * The byte order of UTF-16 text, and the offset of its first character.
+     */
+    private static class Utf16Layout {
+        private final boolean bigEndian;
+        private final long textStart;
+        private final Charset charset;
+
+        private Utf16Layout(boolean bigEndian, long textStart) {
+            this.bigEndian = bigEndian;
+            this.textStart = textStart;
+            this.charset = bigEndian ? StandardCharsets.UTF_16BE : StandardCharsets.UTF_16LE;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.fileviewer.dataprocessing;
+
+import java.nio.CharBuffer;
+
+/**
+ * A window of decoded text together with the byte offset at which each of its characters
+ * starts, so that a position found in the text can be mapped back to the file exactly.
+ */
+final class TextWindow {
+    private final char[] chars;
+    private final int length;
+
+    // The offset of each character, followed by the offset just past the last character.
+    private final long[] offsets;
+
+    /**
+     * @param chars The decoded characters.  Only the first length are part of the window.
+     * @param length The number of characters in the window.
+     * @param offsets The byte offset of each character, with one extra entry giving the offset
+     *                just past the last character, or null if they were not recorded.
+     */
+    TextWindow(char[] chars, int length, long[] offsets) {
+        this.chars = chars;
+        this.length = length;
+        this.offsets = offsets;
+    }
+
+    /**
+     * @return The characters of the window, without copying them.
+     */
+    CharBuffer getText() {
+        return CharBuffer.wrap(chars, 0, length);
+    }
+
+    int length() {
+        return length;
+    }
+
+    char charAt(int index) {
+        return chars[index];
+    }
+
+    /**
+     * @param index The index of a character, or length for the end of the window.
+     * @return The offset of the first byte of the character.
+     */
+    long getByteOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * @param byteOffset An offset in the file.
+     * @return The index of the first character starting at or after the offset, or length if
+     *         there is none.
+     */
+    int indexOf(long byteOffset) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (offsets[middle] < byteOffset)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low;
+    }
+}
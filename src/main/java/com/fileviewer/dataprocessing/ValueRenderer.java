@@ -0,0 +1,134 @@
+package com.fileviewer.dataprocessing;
+
+import static com.fileviewer.dataprocessing.DataViewer.DataType;
+
+/**
+ * Writes the text for individual data values straight into a char array, using lookup tables
+ * for the values 0 - 255 so that rendering a value never allocates.
+ */
+final class ValueRenderer {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // Two hex digits for every byte value, 0x00 - 0xff.
+    private static final char[] HEX_TABLE = new char[256 * 2];
+
+    // Up to three decimal digits for every byte value, 0 - 255, with their lengths.
+    private static final char[] DECIMAL_TABLE = new char[256 * 3];
+    private static final byte[] DECIMAL_LENGTHS = new byte[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            HEX_TABLE[i * 2] = HEX_DIGITS[i >> 4];
+            HEX_TABLE[i * 2 + 1] = HEX_DIGITS[i & 0xF];
+
+            String decimal = Integer.toString(i);
+            decimal.getChars(0, decimal.length(), DECIMAL_TABLE, i * 3);
+            DECIMAL_LENGTHS[i] = (byte)decimal.length();
+        }
+    }
+
+    private ValueRenderer() {
+    }
+
+    /**
+     * Returns the most characters a single value can render to in the view supplied, so that an
+     * output array can be sized before rendering.
+     */
+    static int maxCharsPerValue(Enum<DataType> type) {
+        if (type == DataType.Hex)
+            return 3;
+        else if (type == DataType.Bytes)
+            return 4;
+        else if (type == DataType.UTF8Bytes || type == DataType.UTF16Bytes)
+            return 6;
+        else
+            return 1;
+    }
+
+    /**
+     * Returns the number of characters a single value renders to in the view supplied, without
+     * rendering it.  Takes the same values as write.
+     */
+    static int charCount(Enum<DataType> type, int value) {
+        if (type == DataType.Bytes || type == DataType.UTF8Bytes || type == DataType.UTF16Bytes) {
+            if (value >= 0 && value < 256)
+                return DECIMAL_LENGTHS[value] + 1;
+
+            int length = 2;
+            for (int remaining = value / 10; remaining > 0; remaining /= 10)
+                length++;
+
+            return length;
+        } else if (type == DataType.Hex) {
+            return 3;
+        } else {
+            return 1;
+        }
+    }
+
+    /**
+     * Writes the text of a single value in the view supplied.
+     * NOTE: Character views expect a UTF-16 code unit, and all other views expect a value no
+     * greater than 0xFFFF.
+     *
+     * @param type The type of view to render.
+     * @param value The value to render.
+     * @param out The array to write to.
+     * @param position The index of out to start writing at.
+     * @return The index of out after the last character written.
+     */
+    static int write(Enum<DataType> type, int value, char[] out, int position) {
+        if (type == DataType.Bytes || type == DataType.UTF8Bytes || type == DataType.UTF16Bytes) {
+            return writeDecimal(value, out, position);
+        } else if (type == DataType.Characters || type == DataType.UTF8Characters
+                || type == DataType.UTF16Characters) {
+            out[position] = (char)value;
+
+            return position + 1;
+        } else if (type == DataType.Hex) {
+            return writeHex(value, out, position);
+        } else {
+            throw new RuntimeException("No Data Type detected.");
+        }
+    }
+
+    /**
+     * Writes a byte value as two lower case hex digits followed by a space.
+     */
+    static int writeHex(int value, char[] out, int position) {
+        int index = (value & 0xFF) * 2;
+
+        out[position] = HEX_TABLE[index];
+        out[position + 1] = HEX_TABLE[index + 1];
+        out[position + 2] = ' ';
+
+        return position + 3;
+    }
+
+    /**
+     * Writes a value as decimal digits followed by a space.
+     */
+    static int writeDecimal(int value, char[] out, int position) {
+        if (value >= 0 && value < 256) {
+            int length = DECIMAL_LENGTHS[value];
+            System.arraycopy(DECIMAL_TABLE, value * 3, out, position, length);
+            position += length;
+        } else {
+            // Values above a byte only come from UTF code units, so are at most five digits.
+            int length = 1;
+            for (int remaining = value / 10; remaining > 0; remaining /= 10)
+                length++;
+
+            for (int i = position + length - 1, remaining = value; i >= position; i--) {
+                out[i] = (char)('0' + (remaining % 10));
+                remaining /= 10;
+            }
+
+            position += length;
+        }
+
+        out[position] = ' ';
+
+        return position + 1;
+    }
+}
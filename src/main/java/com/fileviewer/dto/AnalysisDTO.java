@@ -0,0 +1,67 @@
+package com.fileviewer.dto;
+
+public class AnalysisDTO {
+    private long[] histogram = new long[256];
+    private double entropy;
+    private double[] blockEntropies = new double[0];
+    private int blockSize;
+    private long fileSize;
+    private boolean errorOccurred = false;
+    private String errorMessage;
+
+    public void setHistogram(long[] histogram) {
+        this.histogram = histogram;
+    }
+
+    public long[] getHistogram() {
+        return histogram;
+    }
+
+    public void setEntropy(double entropy) {
+        this.entropy = entropy;
+    }
+
+    public double getEntropy() {
+        return entropy;
+    }
+
+    public void setBlockEntropies(double[] blockEntropies) {
+        this.blockEntropies = blockEntropies;
+    }
+
+    public double[] getBlockEntropies() {
+        return blockEntropies;
+    }
+
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setErrorOccurred(boolean errorOccurred) {
+        this.errorOccurred = errorOccurred;
+    }
+
+    public boolean isErrorOccurred() {
+        return errorOccurred;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
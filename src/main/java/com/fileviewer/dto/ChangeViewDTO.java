@@ -1,40 +1,7 @@
 package com.fileviewer.dto;
 
-public class ChangeViewDTO {
-    private int currentPage;
-    private String data;
-    private boolean errorOccurred = false;
-    private String errorMessage;
-
-    public int getCurrentPage() {
-        return currentPage;
-    }
-
-    public void setCurrentPage(int currentPage) {
-        this.currentPage = currentPage;
-    }
-
-    public String getData() {
-        return data;
-    }
-
-    public void setData(String data) {
-        this.data = data;
-    }
-
-    public boolean isErrorOccurred() {
-        return errorOccurred;
-    }
-
-    public void setErrorOccurred(boolean errorOccurred) {
-        this.errorOccurred=errorOccurred;
-    }
-
-    public String getErrorMessage() {
-        return errorMessage;
-    }
-
-    public void setErrorMessage(String errorMessage) {
-        this.errorMessage = errorMessage;
+public class ChangeViewDTO extends PageChangeDTO {
+    public ChangeViewDTO() {
+        super();
     }
 }
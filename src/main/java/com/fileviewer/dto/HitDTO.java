@@ -0,0 +1,35 @@
+package com.fileviewer.dto;
+
+public class HitDTO extends PageChangeDTO {
+    private long hitStartByteIndex;
+    private long hitNumber;
+    private long hitCount;
+
+    public HitDTO() {
+        super();
+    }
+
+    public void setHitStartByteIndex(long hitStartByteIndex) {
+        this.hitStartByteIndex = hitStartByteIndex;
+    }
+
+    public long getHitStartByteIndex() {
+        return hitStartByteIndex;
+    }
+
+    public void setHitNumber(long hitNumber) {
+        this.hitNumber = hitNumber;
+    }
+
+    public long getHitNumber() {
+        return hitNumber;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+}
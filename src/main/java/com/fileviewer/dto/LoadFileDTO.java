@@ -1,18 +1,22 @@
 package com.fileviewer.dto;
 
+import com.fileviewer.observer.ProgObserver;
+
 public class LoadFileDTO extends PageChangeDTO {
-    private int fileSize;
+    private long fileSize;
     private String filename;
+    private int pageSize;
+    private ProgObserver loadProgress;
 
     public LoadFileDTO() {
         super();
     }
 
-    public void setFileSize(int fileSize) {
+    public void setFileSize(long fileSize) {
         this.fileSize = fileSize;
     }
 
-    public int getFileSize() {
+    public long getFileSize() {
         return fileSize;
     }
 
@@ -23,4 +27,24 @@ public class LoadFileDTO extends PageChangeDTO {
     public String getFilename() {
         return filename;
     }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setLoadProgress(ProgObserver loadProgress) {
+        this.loadProgress = loadProgress;
+    }
+
+    /**
+     * @return The ProgObserver of loading which continues in the background, or null if the
+     * file was fully loaded.
+     */
+    public ProgObserver getLoadProgress() {
+        return loadProgress;
+    }
 }
@@ -2,7 +2,9 @@ package com.fileviewer.dto;
 
 public class PageChangeDTO {
     private String data;
-    private int currentPage;
+    private long currentPage;
+    private long startByteIndex;
+    private int[] highlights = new int[0];
     private boolean errorOccurred = false;
     private String errorMessage;
 
@@ -14,14 +16,34 @@ public class PageChangeDTO {
         return data;
     }
 
-    public void setCurrentPage(int currentPage) {
+    public void setCurrentPage(long currentPage) {
         this.currentPage = currentPage;
     }
 
-    public int getCurrentPage() {
+    public long getCurrentPage() {
         return currentPage;
     }
 
+    public void setStartByteIndex(long startByteIndex) {
+        this.startByteIndex = startByteIndex;
+    }
+
+    public long getStartByteIndex() {
+        return startByteIndex;
+    }
+
+    /**
+     * @param highlights The start and end character indexes of each search hit on the page,
+     *                   in pairs.
+     */
+    public void setHighlights(int[] highlights) {
+        this.highlights = highlights;
+    }
+
+    public int[] getHighlights() {
+        return highlights;
+    }
+
     public void setErrorOccurred(boolean errorOccurred) {
         this.errorOccurred = errorOccurred;
     }
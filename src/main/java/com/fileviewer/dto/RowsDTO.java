@@ -0,0 +1,69 @@
+package com.fileviewer.dto;
+
+import static com.fileviewer.dataprocessing.DataViewer.DataType;
+
+public class RowsDTO {
+    private String[] rows;
+    private long startByteIndex;
+    private int bytesPerRow;
+    private long fileSize;
+    private DataType type;
+    private boolean errorOccurred = false;
+    private String errorMessage;
+
+    public void setRows(String[] rows) {
+        this.rows = rows;
+    }
+
+    public String[] getRows() {
+        return rows;
+    }
+
+    public void setStartByteIndex(long startByteIndex) {
+        this.startByteIndex = startByteIndex;
+    }
+
+    public long getStartByteIndex() {
+        return startByteIndex;
+    }
+
+    public void setBytesPerRow(int bytesPerRow) {
+        this.bytesPerRow = bytesPerRow;
+    }
+
+    public int getBytesPerRow() {
+        return bytesPerRow;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setType(DataType type) {
+        this.type = type;
+    }
+
+    public DataType getType() {
+        return type;
+    }
+
+    public void setErrorOccurred(boolean errorOccurred) {
+        this.errorOccurred = errorOccurred;
+    }
+
+    public boolean isErrorOccurred() {
+        return errorOccurred;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -1,18 +1,34 @@
 package com.fileviewer.gui;
 
 import com.fileviewer.controller.Controller;
-import com.fileviewer.dto.ChangeViewDTO;
+import com.fileviewer.dto.HitDTO;
 import com.fileviewer.dto.LoadFileDTO;
 import com.fileviewer.dto.PageChangeDTO;
-import com.fileviewer.gui.progressbar.ProgressBar;
+import com.fileviewer.dto.SearchDTO;
+import com.fileviewer.gui.analysis.AnalysisPanel;
+import com.fileviewer.gui.executor.RequestExecutor;
 import com.fileviewer.gui.progressbar.ProgressBarFactory;
+import com.fileviewer.gui.scrollview.ScrollViewer;
+import com.fileviewer.observer.ProgListener;
 import com.fileviewer.observer.ProgObserver;
 import com.fileviewer.observer.ProgObserverFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultCaret;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Highlighter;
 import java.awt.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.BiFunction;
+import java.util.function.LongConsumer;
 import static com.fileviewer.dataprocessing.DataViewer.DataType;
 
 /**
@@ -21,18 +37,42 @@ import static com.fileviewer.dataprocessing.DataViewer.DataType;
 public class GUI extends JFrame {
     private static final Logger logger = LogManager.getLogger(GUI.class);
 
+    // The most search hits listed for the user to jump to.
+    private static final int MAX_LISTED_HITS = 1000;
+
+    private static final Highlighter.HighlightPainter HIT_PAINTER =
+            new DefaultHighlighter.DefaultHighlightPainter(Color.YELLOW);
+
     private final Controller controller;
     private final ProgObserverFactory progObserverFactory;
     private final ProgressBarFactory progressBarFactory;
+    private final RequestExecutor requestExecutor;
 
-    private JTextArea textArea;                 // The main text area to display the data.
-    private JScrollPane scrollableTextArea;     // The JScrollPane object to wrap the text area.
+    private final JTextArea textArea;           // The main text area to display the data.
+    private final JScrollPane scrollableTextArea;   // The JScrollPane wrapping the text area.
+    private final ScrollViewer scrollViewer;    // Scrollable view of the whole file.
+    private final AnalysisPanel analysisPanel;  // Byte histogram and entropy of the file.
+    private final JTabbedPane viewTabs;         // Switches between the page and scroll views.
     private final Container container;
 
     private final JLabel pageInfoLabel;         // Displays the current page.
     private final JLabel fileSizeLabel;         // Displays the current file size.
     private final JLabel fileNameLabel;         // Displays the current file name.
 
+    private final JLabel searchInfoLabel;       // Displays the number of search hits.
+    private final DefaultComboBoxModel<Long> hitListModel;  // Listed hits, in offset order.
+
+    private boolean textSearchAsYouType = false;   // Whether typing repeats a text search.
+
+    // The page of the committed session, put back if a request fails after streaming part of a
+    // new page into the text area.  Only accessed on the EDT.
+    private String committedPage = "";
+    private int[] committedHighlights = new int[0];
+    private boolean showingCommittedPage = true;
+
+    private ProgObserver backgroundLoad;        // Loading of the current file, if still running.
+    private ProgListener backgroundLoadListener;
+
     private static enum Page {
         FIRST_PAGE,
         NEXT_PAGE,
@@ -45,15 +85,17 @@ public class GUI extends JFrame {
      * @param controller The Controller class used to provide functionality.
      * @param progObserverFactory A ProgObserverFactory object to create ProgObserver instances.
      * @param progressBarFactory A ProgressBarFactory object to create ProgressBar instances.
+     * @param requestExecutor The RequestExecutor used to run requests in the background.
      */
     public GUI(Controller controller, ProgObserverFactory progObserverFactory,
-            ProgressBarFactory progressBarFactory) {
+            ProgressBarFactory progressBarFactory, RequestExecutor requestExecutor) {
         logger.debug("Constructing GUI.");
 
         // Dependencies.
         this.controller = controller;
         this.progObserverFactory = progObserverFactory;
         this.progressBarFactory = progressBarFactory;
+        this.requestExecutor = requestExecutor;
 
         this.setTitle("Matt's File Viewer v1.0");
         this.setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -64,7 +106,7 @@ public class GUI extends JFrame {
         container.setLayout(new BorderLayout());
 
         Container controlsContainer = new Container();
-        controlsContainer.setLayout(new GridLayout(3, 1));
+        controlsContainer.setLayout(new GridLayout(5, 1));
 
         Container btnContainer = new Container();
         btnContainer.setLayout(new GridLayout(2, 5));
@@ -99,6 +141,12 @@ public class GUI extends JFrame {
         JButton firstPageBtn = new JButton("First Page");
         firstPageBtn.addActionListener(e -> displayPage(Page.FIRST_PAGE));
 
+        JButton nxtHitBtn = new JButton("Next Hit   ▶▶");
+        nxtHitBtn.addActionListener(e -> displayHit(true));
+
+        JButton prevHitBtn = new JButton("◀◀   Prev. Hit");
+        prevHitBtn.addActionListener(e -> displayHit(false));
+
         JButton loadBtn = new JButton("Load File");
         loadBtn.addActionListener(e -> loadFile());
 
@@ -113,11 +161,101 @@ public class GUI extends JFrame {
         btnContainer.add(UTF16ByteBtn);
 
         Container pageControlsContainer = new Container();
-        pageControlsContainer.setLayout(new GridLayout(1, 3));
+        pageControlsContainer.setLayout(new GridLayout(1, 5));
 
+        pageControlsContainer.add(prevHitBtn);
         pageControlsContainer.add(prevPageBtn);
         pageControlsContainer.add(firstPageBtn);
         pageControlsContainer.add(nxtPageBtn);
+        pageControlsContainer.add(nxtHitBtn);
+
+        JTextField goToField = new JTextField();
+        goToField.setToolTipText("An offset or page number, in decimal or 0x hex.  "
+                + "Start an offset with + or - to move relative to the current page.");
+        goToField.addActionListener(e -> goTo(goToField.getText(), false));
+
+        JButton goToOffsetBtn = new JButton("Go to Offset");
+        goToOffsetBtn.addActionListener(e -> goTo(goToField.getText(), false));
+
+        JButton goToPageBtn = new JButton("Go to Page");
+        goToPageBtn.addActionListener(e -> goTo(goToField.getText(), true));
+
+        Container goToContainer = new Container();
+        goToContainer.setLayout(new GridLayout(1, 3));
+
+        goToContainer.add(goToField);
+        goToContainer.add(goToOffsetBtn);
+        goToContainer.add(goToPageBtn);
+
+        JTextField searchField = new JTextField();
+        searchField.setToolTipText("Bytes to find as hex digits, e.g. DE AD BE EF, or text to "
+                + "find in the current character view.");
+
+        JButton findBytesBtn = new JButton("Find Bytes");
+        findBytesBtn.addActionListener(e -> {
+                textSearchAsYouType = false;
+                findBytes(searchField.getText());
+            });
+
+        JCheckBox regexBox = new JCheckBox("Regex");
+        regexBox.setToolTipText("Find Text treats the text as a regular expression.");
+
+        JButton findTextBtn = new JButton("Find Text");
+        findTextBtn.addActionListener(e -> {
+                textSearchAsYouType = true;
+                findText(searchField.getText(), regexBox.isSelected());
+            });
+
+        JCheckBox asYouTypeBox = new JCheckBox("As You Type");
+        asYouTypeBox.setToolTipText("Repeats the last kind of search each time the search text "
+                + "changes.");
+
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+                @Override
+                public void insertUpdate(DocumentEvent e) {
+                    searchTextChanged();
+                }
+
+                @Override
+                public void removeUpdate(DocumentEvent e) {
+                    searchTextChanged();
+                }
+
+                @Override
+                public void changedUpdate(DocumentEvent e) {
+                }
+
+                private void searchTextChanged() {
+                    if (asYouTypeBox.isSelected())
+                        searchAsYouType(searchField.getText(), regexBox.isSelected());
+                }
+            });
+
+        hitListModel = new DefaultComboBoxModel<>();
+        JComboBox<Long> hitList = new JComboBox<>(hitListModel);
+        hitList.setToolTipText("The offsets of the first " + MAX_LISTED_HITS + " hits found.");
+
+        JButton goToHitBtn = new JButton("Go to Hit");
+        goToHitBtn.addActionListener(e -> {
+                Long hit = (Long)hitListModel.getSelectedItem();
+                if (hit != null)
+                    goToOffset(hit, false);
+            });
+
+        searchInfoLabel = new JLabel();
+        searchInfoLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        Container searchContainer = new Container();
+        searchContainer.setLayout(new GridLayout(1, 8));
+
+        searchContainer.add(searchField);
+        searchContainer.add(findBytesBtn);
+        searchContainer.add(findTextBtn);
+        searchContainer.add(regexBox);
+        searchContainer.add(asYouTypeBox);
+        searchContainer.add(hitList);
+        searchContainer.add(goToHitBtn);
+        searchContainer.add(searchInfoLabel);
 
         pageInfoLabel = new JLabel();
         setPageLabel(1);
@@ -140,53 +278,85 @@ public class GUI extends JFrame {
 
         controlsContainer.add(btnContainer);
         controlsContainer.add(pageControlsContainer);
+        controlsContainer.add(goToContainer);
+        controlsContainer.add(searchContainer);
         controlsContainer.add(infoControlsContainer);
 
         textArea = new JTextArea();
         textArea.setWrapStyleWord(false);
         textArea.setLineWrap(true);
         textArea.setEditable(false);
+        // Appending a page should not drag the view to its end.
+        ((DefaultCaret)textArea.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
 
         scrollableTextArea = new JScrollPane(textArea);
         scrollableTextArea.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
 
+        scrollViewer = new ScrollViewer(controller, progObserverFactory, requestExecutor);
+
+        analysisPanel = new AnalysisPanel(controller, progObserverFactory, progressBarFactory,
+                requestExecutor, this, this::showAnalyzedBlock);
+
+        viewTabs = new JTabbedPane();
+        viewTabs.addTab("Page View", scrollableTextArea);
+        viewTabs.addTab("Scroll View", scrollViewer);
+        viewTabs.addTab("Analysis", analysisPanel);
+
         container.add(controlsContainer, BorderLayout.SOUTH);
-        container.add(scrollableTextArea, BorderLayout.CENTER);
+        container.add(viewTabs, BorderLayout.CENTER);
 
         this.setVisible(true);
     }
 
     /**
-     * Resets the main data view area.
+     * Resets the main data view area.  The text area and its document are reused, only their
+     * contents are cleared.
+     * NOTE: Must be called on the Event Dispatch Thread.
      */
     public void resetTextOutput() {
-        container.remove(scrollableTextArea);
-
-        textArea = new JTextArea();
-        textArea.setEditable(false);
-        textArea.setLineWrap(true);
-        textArea.setWrapStyleWord(false);
-
-        scrollableTextArea = new JScrollPane(textArea);
-        scrollableTextArea.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
+        textArea.getHighlighter().removeAllHighlights();
+        textArea.setText("");
+    }
 
-        container.add(scrollableTextArea, BorderLayout.CENTER);
-        container.revalidate();
+    /**
+     * Highlights the search hits on the page in the main data view area.  Hits beyond the text
+     * appended so far are cut short, so this is repeated as more of the page is appended.
+     * NOTE: Must be called on the Event Dispatch Thread.
+     * @param highlights The start and end character indexes of each hit, in pairs.
+     */
+    public void highlightHits(int[] highlights) {
+        Highlighter highlighter = textArea.getHighlighter();
+        highlighter.removeAllHighlights();
+
+        int length = textArea.getDocument().getLength();
+        for (int i = 0; i + 1 < highlights.length; i += 2) {
+            int start = Math.min(highlights[i], length);
+            int end = Math.min(highlights[i + 1], length);
+            if (start >= end)
+                continue;
+
+            try {
+                highlighter.addHighlight(start, end, HIT_PAINTER);
+            } catch (BadLocationException e) {
+                logger.error("Unable to highlight hit.");
+            }
+        }
     }
 
     /**
      * Appends a string to the main data view area.
+     * NOTE: Must be called on the Event Dispatch Thread.
      * @param text A String containing the text to append.
      */
     public void appendTextOutput(final String text) {
         textArea.append(text);
     }
 
-    public void setPageLabel(int pageNumber) {
+    public void setPageLabel(long pageNumber) {
         pageInfoLabel.setText("Page number: " + pageNumber);
     }
 
-    public void setFileSizeLabel(int fileSize) {
+    public void setFileSizeLabel(long fileSize) {
         fileSizeLabel.setText("File size: " + fileSize + " bytes");
     }
 
@@ -214,32 +384,20 @@ public class GUI extends JFrame {
 
     /**
      * Changes the display of data in the main text area to that of a different DataType.
+     * Supersedes any page request still in progress.
      * @param type The DataType to display.
      */
     private void changeViewType(DataType type) {
-        this.setEnabled(false);
-
-        Thread thread = new Thread(() -> {
-                ProgObserver observer = progObserverFactory.getInstance();
-                showProgressBar(observer);
-
-                ChangeViewDTO dto = controller.changeViewType(type, observer);
+        ProgObserver observer = progObserverFactory.getInstance();
+        showProgressBar(observer);
 
-                if (!dto.isErrorOccurred()) {
-                    resetTextOutput();
-                    appendTextOutput(dto.getData());
+        submitPageRequest(new PageWorker<>(observer,
+                (o, sink) -> controller.changeViewType(type, o, sink),
+                dto -> {
                     setPageLabel(dto.getCurrentPage());
-
-                    observer.setIsFinished(true);
-                } else {
-                    observer.setIsFinished(true);
-
-                    displayError(dto.getErrorMessage());
-                }
-
-                this.setEnabled(true);
-            });
-        thread.start();
+                    scrollViewer.refresh();
+                },
+                this::displayError));
     }
 
     /**
@@ -247,97 +405,530 @@ public class GUI extends JFrame {
      * for the user to select the file.
      */
     private void loadFile() {
-        this.setEnabled(false);
-        new Thread(() -> {
-            ProgObserver observer = progObserverFactory.getInstance();
+        JFileChooser fileChooser = new JFileChooser();
+        int returnVal = fileChooser.showOpenDialog(this);
 
-            JFileChooser fileChooser = new JFileChooser();
-            int returnVal = fileChooser.showOpenDialog(this);
+        if (returnVal != JFileChooser.APPROVE_OPTION)
+            return;
 
-            if (returnVal == JFileChooser.APPROVE_OPTION) {
-                showProgressBar(observer);
+        this.setEnabled(false);
 
-                LoadFileDTO dto = controller.loadFile(observer,
-                        fileChooser.getSelectedFile());
+        // Searches and analyses of the current file are stopped before it is replaced, so none
+        // of their results can be shown against the new file.
+        clearSearch();
+        analysisPanel.clear();
 
-                if (!dto.isErrorOccurred()) {
-                    resetTextOutput();
+        ProgObserver observer = progObserverFactory.getInstance();
+        showProgressBar(observer);
 
-                    appendTextOutput(dto.getData());
+        submitPageRequest(new PageWorker<>(observer,
+                (o, sink) -> controller.loadFile(o, fileChooser.getSelectedFile(), sink),
+                dto -> {
                     setFileNameLabel(dto.getFilename());
                     setPageLabel(dto.getCurrentPage());
                     setFileSizeLabel(dto.getFileSize());
+                    watchBackgroundLoad(dto);
+                    scrollViewer.refresh();
+                },
+                this::displayError));
+    }
+
+    /**
+     * Shows how many pages of the file are available while it continues loading in the
+     * background.  Any previously watched file is no longer reported.
+     * @param dto The LoadFileDTO of the file just loaded.
+     */
+    private void watchBackgroundLoad(LoadFileDTO dto) {
+        if (backgroundLoad != null)
+            backgroundLoad.removeListener(backgroundLoadListener);
+
+        backgroundLoad = dto.getLoadProgress();
+        if (backgroundLoad == null)
+            return;
 
-                    observer.setIsFinished(true);
-                } else {
-                    observer.setIsFinished(true);
+        long fileSize = dto.getFileSize();
+        int pageSize = dto.getPageSize();
+        long pageCount = (fileSize + pageSize - 1) / pageSize;
 
-                    displayError(dto.getErrorMessage());
+        backgroundLoadListener = observer -> {
+                long loaded = observer.getProcessedBytes();
+
+                if (loaded >= fileSize) {
+                    setFileSizeLabel(fileSize);
+                    return;
                 }
-            }
 
-            this.setEnabled(true);
-        }).start();
+                fileSizeLabel.setText("File size: " + fileSize + " bytes (" + (loaded / pageSize)
+                        + " of " + pageCount + " pages loaded)");
+            };
+        backgroundLoad.addListener(backgroundLoadListener);
     }
 
     /**
      * Displays the specified page of the data in the specified main text area using the currently
-     * selected DataType.
+     * selected DataType.  Supersedes any page request still in progress, so that rapid clicks
+     * only wait on the latest one.
      * @param page A Page enum selection specifying the page to display.
      */
     private void displayPage(Enum<Page> page) {
-        this.setEnabled(false);
-        Thread thread = new Thread(() -> {
-            ProgObserver observer = progObserverFactory.getInstance();
-            showProgressBar(observer);
+        ProgObserver observer = progObserverFactory.getInstance();
+        showProgressBar(observer);
+
+        submitPageRequest(new PageWorker<>(observer,
+                (o, sink) -> {
+                    if (page == Page.NEXT_PAGE)
+                        return controller.showNextPage(o, sink);
+                    else if (page == Page.PREV_PAGE)
+                        return controller.showPrevPage(o, sink);
+                    else
+                        return controller.showFirstPage(o, sink);
+                },
+                dto -> setPageLabel(dto.getCurrentPage()),
+                this::displayMessage));
+    }
 
-            PageChangeDTO dto;
-            if (page == Page.FIRST_PAGE)
-                dto = controller.showFirstPage(observer);
-            else if (page == Page.NEXT_PAGE)
-                dto = controller.showNextPage(observer);
-            else if (page == Page.PREV_PAGE)
-                dto = controller.showPrevPage(observer);
-            else
-                dto = controller.showFirstPage(observer);
-
-            if (!dto.isErrorOccurred()) {
-                resetTextOutput();
-                appendTextOutput(dto.getData());
-                setPageLabel(dto.getCurrentPage());
+    /**
+     * Displays the page starting at the next or previous hit of the latest search.  Supersedes
+     * any page request still in progress.
+     * @param forward True for the next hit, or false for the previous hit.
+     */
+    private void displayHit(boolean forward) {
+        ProgObserver observer = progObserverFactory.getInstance();
+        showProgressBar(observer);
+
+        submitPageRequest(new PageWorker<HitDTO>(observer,
+                (o, sink) -> forward ? controller.showNextHit(o, sink)
+                        : controller.showPrevHit(o, sink),
+                dto -> {
+                    setPageLabel(dto.getCurrentPage());
+                    searchInfoLabel.setText("Hit " + dto.getHitNumber() + " of "
+                            + dto.getHitCount());
+                    scrollViewer.scrollToOffset(dto.getStartByteIndex());
+                },
+                this::displayMessage));
+    }
 
-                observer.setIsFinished(true);
-            } else {
-                observer.setIsFinished(true);
+    private void submitPageRequest(PageWorker<?> worker) {
+        requestExecutor.submit(RequestExecutor.Channel.PAGE, worker, worker.observer);
+    }
 
-                displayMessage(dto.getErrorMessage());
-            }
+    /**
+     * Jumps straight to the offset or page number typed by the user, rendering only that page.
+     * Supersedes any page request still in progress.
+     * @param text The offset or page number, as parsed by OffsetParser.
+     * @param page True to go to a page number, or false to go to an offset.
+     */
+    private void goTo(String text, boolean page) {
+        long value;
+        try {
+            value = OffsetParser.parse(text);
+        } catch (NumberFormatException e) {
+            displayError("\"" + text.trim() + "\" is not a valid " + (page ? "page number."
+                    : "offset."));
+            return;
+        }
+
+        if (page)
+            goToPage(value);
+        else
+            goToOffset(value, OffsetParser.isRelative(text));
+    }
+
+    /**
+     * Jumps straight to the page starting at an offset, rendering only that page.
+     * Supersedes any page request still in progress.
+     * @param offset The byte offset to go to.
+     * @param relative True if the offset is relative to the start of the current page.
+     */
+    private void goToOffset(long offset, boolean relative) {
+        ProgObserver observer = progObserverFactory.getInstance();
+        showProgressBar(observer);
+
+        submitPageRequest(new PageWorker<>(observer,
+                (o, sink) -> controller.goToOffset(offset, relative, o, sink),
+                dto -> {
+                    setPageLabel(dto.getCurrentPage());
+                    scrollViewer.scrollToOffset(dto.getStartByteIndex());
+                },
+                this::displayMessage));
+    }
+
+    /**
+     * Shows a block selected in the analysis in the page view.
+     * @param offset The offset of the start of the block.
+     */
+    private void showAnalyzedBlock(long offset) {
+        viewTabs.setSelectedComponent(scrollableTextArea);
+        goToOffset(offset, false);
+    }
+
+    /**
+     * Jumps straight to a page number, rendering only that page.
+     * Supersedes any page request still in progress.
+     * @param pageNumber The number of the page to go to, counting from 1.
+     */
+    private void goToPage(long pageNumber) {
+        ProgObserver observer = progObserverFactory.getInstance();
+        showProgressBar(observer);
+
+        submitPageRequest(new PageWorker<>(observer,
+                (o, sink) -> controller.goToPage(pageNumber, o, sink),
+                dto -> {
+                    setPageLabel(dto.getCurrentPage());
+                    scrollViewer.scrollToOffset(dto.getStartByteIndex());
+                },
+                this::displayMessage));
+    }
+
+    /**
+     * Searches the whole file for the hex byte pattern typed by the user, listing the hits as
+     * they are found.  Page requests carry on as normal while the search runs.  Supersedes any
+     * search still in progress.
+     * @param text The pattern, as parsed by PatternParser.
+     */
+    private void findBytes(String text) {
+        byte[] pattern;
+        try {
+            pattern = PatternParser.parseHex(text);
+        } catch (NumberFormatException e) {
+            displayError("\"" + text.trim() + "\" is not a valid hex pattern.");
+            return;
+        }
+
+        submitSearchRequest((o, hitSink) -> controller.findBytes(pattern, o, hitSink), false);
+    }
+
+    /**
+     * Searches the whole file for the text typed by the user, in the current character view,
+     * listing the hits as they are found.  Page requests carry on as normal while the search
+     * runs.  Supersedes any search still in progress.
+     * @param text The text or regular expression to find.
+     * @param regex True if the text is a regular expression.
+     */
+    private void findText(String text, boolean regex) {
+        submitSearchRequest((o, hitSink) -> controller.findText(text, regex, o, hitSink), false);
+    }
+
+    /**
+     * Repeats the last kind of search, bytes or text, as the search text is typed.  Each search
+     * supersedes the one before it, cancelling its scan, so a keystroke never waits for the
+     * previous search to finish, and an extended query only narrows the previous hits.  Hex
+     * which is not yet a whole pattern, such as an odd number of digits, is ignored until it is.
+     * @param text The text in the search field.
+     * @param regex True if text searches treat the text as a regular expression.
+     */
+    private void searchAsYouType(String text, boolean regex) {
+        if (text.isBlank()) {
+            clearSearch();
+            return;
+        }
+
+        if (textSearchAsYouType) {
+            submitSearchRequest((o, hitSink) -> controller.findText(text, regex, o, hitSink),
+                    true);
+            return;
+        }
+
+        byte[] pattern;
+        try {
+            pattern = PatternParser.parseHex(text);
+        } catch (NumberFormatException e) {
+            return;
+        }
+
+        submitSearchRequest((o, hitSink) -> controller.findBytes(pattern, o, hitSink), true);
+    }
+
+    /**
+     * Cancels any search still running and clears the listed hits.
+     */
+    private void clearSearch() {
+        requestExecutor.cancel(RequestExecutor.Channel.SEARCH);
+        hitListModel.removeAllElements();
+        searchInfoLabel.setText("");
+    }
+
+    /**
+     * @param request The Controller search to run.
+     * @param live True if the search was started by typing, which shows its progress and any
+     *             error in the search label rather than in dialogs that would take the focus
+     *             away from the search field.
+     */
+    private void submitSearchRequest(BiFunction<ProgObserver, LongConsumer, SearchDTO> request,
+            boolean live) {
+        hitListModel.removeAllElements();
+        searchInfoLabel.setText("Searching...");
 
-            this.setEnabled(true);
-        });
-        thread.start();
+        ProgObserver observer = progObserverFactory.getInstance();
+        if (!live)
+            showProgressBar(observer);
+
+        SearchWorker worker = new SearchWorker(observer, request, live);
+        requestExecutor.submit(RequestExecutor.Channel.SEARCH, worker, observer);
     }
 
     /**
-     * Displays the Progress Bar above the GUI and disables the main GUI.
+     * Displays the Progress Bar above the GUI.  The bar listens to the observer for updates and
+     * closes itself once the task has finished.
      * NOTE: This function is non-blocking and will return immediately.
      * @param observer A ProgObserver object which is used to update the Progress Bar.
      */
     private void showProgressBar(ProgObserver observer) {
-        Thread thread = new Thread(() -> {
-                ProgressBar progressBar = progressBarFactory.getInstance(this, observer);
+        progressBarFactory.getInstance(this, observer);
+    }
 
-                while(!observer.isFinished()) {
-                    progressBar.setPercentage(observer.getPercentage());
+    /**
+     * Runs a search off the Event Dispatch Thread.  The first MAX_LISTED_HITS hits found are
+     * published as they arrive and inserted into the hit list in offset order, while the rest
+     * are only counted.
+     */
+    private class SearchWorker extends SwingWorker<SearchDTO, Long> {
+        private final ProgObserver observer;
+        private final BiFunction<ProgObserver, LongConsumer, SearchDTO> request;
+        private final boolean live;
+        private final AtomicLong hitCount = new AtomicLong();
+
+        /**
+         * @param observer The ProgObserver passed to the request and finished once it completes.
+         * @param request The Controller search to run in the background, given the observer
+         *                and a sink for the offsets of the hits.
+         * @param live True if the progress and any error are shown in the search label.
+         */
+        SearchWorker(ProgObserver observer,
+                BiFunction<ProgObserver, LongConsumer, SearchDTO> request, boolean live) {
+            this.observer = observer;
+            this.request = request;
+            this.live = live;
+
+            if (live)
+                observer.addListener(o -> showProgress());
+        }
+
+        @Override
+        protected SearchDTO doInBackground() {
+            return request.apply(observer, hit -> {
+                    if (hitCount.incrementAndGet() <= MAX_LISTED_HITS)
+                        publish(hit);
+                });
+        }
+
+        @Override
+        protected void process(List<Long> hits) {
+            if (isSuperseded())
+                return;
+
+            for (Long hit : hits)
+                insertHit(hit);
+
+            if (hitListModel.getSelectedItem() == null)
+                hitListModel.setSelectedItem(hitListModel.getElementAt(0));
+
+            showProgress();
+        }
+
+        @Override
+        protected void done() {
+            observer.setIsFinished(true);
+
+            if (isSuperseded())
+                return;
+
+            SearchDTO dto = null;
+            try {
+                dto = get();
+            } catch (InterruptedException | ExecutionException e) {
+                logger.error("Unable to complete the search!", e);
+            }
 
-                    try {
-                        Thread.sleep(20);
-                    } catch (Exception ignored) {}
-                }
+            String errorMessage = dto != null ? dto.getErrorMessage() : "Unable to search!";
+
+            if (dto != null && !dto.isErrorOccurred()) {
+                searchInfoLabel.setText(dto.getHitCount() + " hits"
+                        + (dto.isTruncated() ? ", only the first are indexed" : ""));
+            } else if (live) {
+                searchInfoLabel.setText(errorMessage);
+            } else {
+                searchInfoLabel.setText("");
+                displayMessage(errorMessage);
+            }
+        }
+
+        /**
+         * Shows the number of hits found so far, and how far a live search has got, while the
+         * search is running.
+         */
+        private void showProgress() {
+            if (isDone() || isSuperseded())
+                return;
+
+            String text = "Searching... " + hitCount.get() + " hits";
+            if (live)
+                text += " (" + (int)observer.getPercentage() + "%)";
+
+            searchInfoLabel.setText(text);
+        }
+
+        /**
+         * Inserts a hit into the hit list, keeping the list in offset order.
+         */
+        private void insertHit(long hit) {
+            int low = 0;
+            int high = hitListModel.getSize();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (hitListModel.getElementAt(middle) < hit)
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+
+            hitListModel.insertElementAt(hit, low);
+        }
+
+        private boolean isSuperseded() {
+            return isCancelled()
+                    || !requestExecutor.isLatest(RequestExecutor.Channel.SEARCH, this);
+        }
+    }
+
+    /**
+     * Runs a Controller request off the Event Dispatch Thread and streams the page into the main
+     * text area as it is rendered.  Each rendered chunk is published, and Swing coalesces them
+     * into batches that are each appended to the reused document with a single insert on the EDT.
+     * @param <T> The type of DTO returned by the request.
+     */
+    private class PageWorker<T extends PageChangeDTO> extends SwingWorker<T, String> {
+        private final ProgObserver observer;
+        private final BiFunction<ProgObserver, Consumer<String>, T> request;
+        private final Consumer<T> onSuccess;
+        private final Consumer<String> onError;
+
+        private boolean cleared = false;    // Only accessed on the EDT.
+        private boolean failed = false;     // Only accessed on the EDT.
+        private int[] highlights = null;    // Only accessed on the EDT.
+
+        /**
+         * @param observer The ProgObserver passed to the request and finished once it completes.
+         * @param request The Controller request to run in the background, given the observer
+         *                and a sink for the rendered chunks of the page.
+         * @param onSuccess Updates the GUI on the EDT when the request succeeds.
+         * @param onError Reports the error message on the EDT when the request fails.
+         */
+        PageWorker(ProgObserver observer, BiFunction<ProgObserver, Consumer<String>, T> request,
+                Consumer<T> onSuccess, Consumer<String> onError) {
+            this.observer = observer;
+            this.request = request;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+        }
+
+        @Override
+        protected T doInBackground() {
+            return request.apply(observer, this::publish);
+        }
+
+        @Override
+        protected void process(List<String> chunks) {
+            if (isSuperseded() || failed)
+                return;
+
+            clearOnce();
+
+            // The document and its views are updated within the append, so its duration is
+            // the layout cost of the batch.
+            long layoutStart = System.nanoTime();
+
+            if (chunks.size() == 1) {
+                appendTextOutput(chunks.get(0));
+            } else {
+                int length = 0;
+                for (String chunk : chunks)
+                    length += chunk.length();
+
+                StringBuilder batch = new StringBuilder(length);
+                for (String chunk : chunks)
+                    batch.append(chunk);
+
+                appendTextOutput(batch.toString());
+            }
+
+            controller.recordLayoutTime(System.nanoTime() - layoutStart);
+
+            // Chunks may still arrive after the request has completed.
+            if (highlights != null)
+                highlightHits(highlights);
+        }
+
+        @Override
+        protected void done() {
+            observer.setIsFinished(true);
+
+            // Only the latest request re-enables the window, as a newer one may still be loading.
+            if (isSuperseded()) {
+                logger.debug("Discarding superseded page request.");
+                return;
+            }
+
+            setEnabled(true);
 
-                logger.debug("Trying to destroy ProgressBar...");
-                progressBar.destroyProgressBar();
-        });
-        thread.start();
+            T dto = null;
+            try {
+                dto = get();
+            } catch (InterruptedException | ExecutionException e) {
+                logger.error("Unable to complete the page request!", e);
+            }
+
+            if (dto != null && !dto.isErrorOccurred()) {
+                // Pages that published nothing still replace the previous page.
+                clearOnce();
+                highlights = dto.getHighlights();
+                highlightHits(highlights);
+
+                committedPage = dto.getData();
+                committedHighlights = highlights;
+                showingCommittedPage = true;
+
+                onSuccess.accept(dto);
+            } else {
+                failed = true;
+                restoreCommittedPage();
+
+                onError.accept(dto != null ? dto.getErrorMessage() : "Unable to display data!");
+            }
+        }
+
+        /**
+         * Puts back the page of the committed session if this or a superseded request streamed
+         * part of a page which was never committed.
+         */
+        private void restoreCommittedPage() {
+            if (showingCommittedPage)
+                return;
+
+            logger.debug("Restoring the committed page.");
+
+            resetTextOutput();
+            appendTextOutput(committedPage);
+            highlightHits(committedHighlights);
+            showingCommittedPage = true;
+        }
+
+        /**
+         * @return True if a newer page request has been made since this one.
+         */
+        private boolean isSuperseded() {
+            return isCancelled() || !requestExecutor.isLatest(RequestExecutor.Channel.PAGE, this);
+        }
+
+        /**
+         * Clears the previous page the first time this worker touches the text area.
+         */
+        private void clearOnce() {
+            if (!cleared) {
+                resetTextOutput();
+                cleared = true;
+                showingCommittedPage = false;
+            }
+        }
     }
 }
@@ -0,0 +1,51 @@
+package com.fileviewer.gui;
+
+/**
+ * Parses the offsets and page numbers typed into the GUI.
+ * Numbers are decimal, or hexadecimal with a 0x prefix, and may be grouped with commas,
+ * underscores or spaces.  A leading + or - marks an offset as relative to the current page.
+ */
+final class OffsetParser {
+    private OffsetParser() {
+    }
+
+    /**
+     * @param text The text typed by the user.
+     * @return True if the text starts with a + or - sign.
+     */
+    static boolean isRelative(String text) {
+        String trimmed = text.trim();
+
+        return trimmed.startsWith("+") || trimmed.startsWith("-");
+    }
+
+    /**
+     * Parses the number in the text supplied, including its sign.
+     * @param text The text typed by the user.
+     * @return The value of the number.
+     * @throws NumberFormatException If the text is not a valid number.
+     */
+    static long parse(String text) {
+        String number = text.trim().replaceAll("[,_\\s]", "");
+
+        boolean negative = false;
+        if (number.startsWith("+") || number.startsWith("-")) {
+            negative = number.startsWith("-");
+            number = number.substring(1);
+        }
+
+        int radix = 10;
+        if (number.startsWith("0x") || number.startsWith("0X")) {
+            radix = 16;
+            number = number.substring(2);
+        }
+
+        // A second sign would otherwise be accepted by parseLong.
+        if (number.isEmpty() || number.startsWith("+") || number.startsWith("-"))
+            throw new NumberFormatException("Not a number: " + text);
+
+        long value = Long.parseLong(number, radix);
+
+        return negative ? -value : value;
+    }
+}
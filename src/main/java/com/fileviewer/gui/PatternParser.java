@@ -0,0 +1,37 @@
+package com.fileviewer.gui;
+
+/**
+ * Parses the byte patterns typed into the GUI's search box.
+ * Patterns are written as pairs of hex digits, optionally prefixed with 0x and separated by
+ * spaces, commas, colons or underscores, e.g. "DE AD BE EF", "0xDEADBEEF" or "de:ad:be:ef".
+ */
+final class PatternParser {
+    private PatternParser() {
+    }
+
+    /**
+     * Parses the hex bytes in the text supplied.
+     * @param text The text typed by the user.
+     * @return The bytes of the pattern.
+     * @throws NumberFormatException If the text is empty or is not whole bytes of hex digits.
+     */
+    static byte[] parseHex(String text) {
+        String digits = text.replaceAll("0[xX]", "").replaceAll("[,:_\\s]", "");
+
+        if (digits.isEmpty() || digits.length() % 2 != 0)
+            throw new NumberFormatException("Not a hex pattern: " + text);
+
+        byte[] pattern = new byte[digits.length() / 2];
+        for (int i = 0; i < pattern.length; i++) {
+            int high = Character.digit(digits.charAt(i * 2), 16);
+            int low = Character.digit(digits.charAt((i * 2) + 1), 16);
+
+            if (high < 0 || low < 0)
+                throw new NumberFormatException("Not a hex pattern: " + text);
+
+            pattern[i] = (byte)((high << 4) | low);
+        }
+
+        return pattern;
+    }
+}
@@ -0,0 +1,312 @@
+package com.fileviewer.gui.analysis;
+
+import com.fileviewer.controller.Controller;
+import com.fileviewer.dto.AnalysisDTO;
+import com.fileviewer.gui.executor.RequestExecutor;
+import com.fileviewer.gui.progressbar.ProgressBarFactory;
+import com.fileviewer.observer.ProgObserver;
+import com.fileviewer.observer.ProgObserverFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongConsumer;
+
+/**
+ * Shows the byte frequencies of the whole loaded file, and a plot of the entropy of each of its
+ * blocks, for triaging unknown files.  The analysis runs in the background on its own channel,
+ * so pages can be changed while it runs, and its ProgressBar can cancel it.
+ *
+ * NOTE: All methods must be called on the Event Dispatch Thread.
+ */
+public class AnalysisPanel extends JPanel {
+    private static final Logger logger = LogManager.getLogger(AnalysisPanel.class);
+
+    private static final double MAX_ENTROPY = 8;
+    private static final int MARGIN = 4;
+
+    private final Controller controller;
+    private final ProgObserverFactory progObserverFactory;
+    private final ProgressBarFactory progressBarFactory;
+    private final RequestExecutor requestExecutor;
+    private final JFrame parent;
+    private final LongConsumer offsetSelected;
+
+    private final JLabel summaryLabel;
+    private final HistogramCanvas histogramCanvas;
+    private final EntropyCanvas entropyCanvas;
+
+    private AnalysisDTO analysis = null;        // The latest completed analysis, if any.
+
+    /**
+     * @param controller The Controller used to analyze the file.
+     * @param progObserverFactory A ProgObserverFactory object to create ProgObserver instances.
+     * @param progressBarFactory A ProgressBarFactory object to create ProgressBar instances.
+     * @param requestExecutor The RequestExecutor used to run the analysis in the background.
+     * @param parent The JFrame the ProgressBar is shown above.
+     * @param offsetSelected Given the offset of a block when it is clicked in the entropy plot.
+     */
+    public AnalysisPanel(Controller controller, ProgObserverFactory progObserverFactory,
+            ProgressBarFactory progressBarFactory, RequestExecutor requestExecutor,
+            JFrame parent, LongConsumer offsetSelected) {
+        logger.debug("Constructing AnalysisPanel.");
+
+        this.controller = controller;
+        this.progObserverFactory = progObserverFactory;
+        this.progressBarFactory = progressBarFactory;
+        this.requestExecutor = requestExecutor;
+        this.parent = parent;
+        this.offsetSelected = offsetSelected;
+
+        this.setLayout(new BorderLayout());
+
+        JButton analyzeBtn = new JButton("Analyze File");
+        analyzeBtn.addActionListener(e -> analyze());
+
+        summaryLabel = new JLabel();
+        summaryLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        Container controlsContainer = new Container();
+        controlsContainer.setLayout(new GridLayout(1, 2));
+
+        controlsContainer.add(analyzeBtn);
+        controlsContainer.add(summaryLabel);
+
+        histogramCanvas = new HistogramCanvas();
+        entropyCanvas = new EntropyCanvas();
+
+        Container plotsContainer = new Container();
+        plotsContainer.setLayout(new GridLayout(2, 1));
+
+        plotsContainer.add(histogramCanvas);
+        plotsContainer.add(entropyCanvas);
+
+        this.add(controlsContainer, BorderLayout.NORTH);
+        this.add(plotsContainer, BorderLayout.CENTER);
+    }
+
+    /**
+     * Discards the analysis shown, and cancels any still running, as the file has changed.
+     */
+    public void clear() {
+        requestExecutor.cancel(RequestExecutor.Channel.ANALYSIS);
+
+        analysis = null;
+        summaryLabel.setText("");
+
+        histogramCanvas.repaint();
+        entropyCanvas.repaint();
+    }
+
+    /**
+     * Analyzes the whole loaded file in the background, superseding any analysis still running.
+     */
+    private void analyze() {
+        ProgObserver observer = progObserverFactory.getInstance();
+        progressBarFactory.getInstance(parent, observer);
+
+        summaryLabel.setText("Analyzing...");
+
+        SwingWorker<AnalysisDTO, Void> worker = new SwingWorker<>() {
+                @Override
+                protected AnalysisDTO doInBackground() {
+                    return controller.analyzeFile(observer);
+                }
+
+                @Override
+                protected void done() {
+                    observer.setIsFinished(true);
+
+                    if (isCancelled()
+                            || !requestExecutor.isLatest(RequestExecutor.Channel.ANALYSIS, this))
+                        return;
+
+                    AnalysisDTO dto = null;
+                    try {
+                        dto = get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        logger.error("Unable to complete the analysis!", e);
+                    }
+
+                    showAnalysis(dto);
+                }
+            };
+
+        requestExecutor.submit(RequestExecutor.Channel.ANALYSIS, worker, observer);
+    }
+
+    private void showAnalysis(AnalysisDTO dto) {
+        if (dto == null || dto.isErrorOccurred()) {
+            analysis = null;
+            summaryLabel.setText(dto != null ? dto.getErrorMessage() : "Unable to analyze!");
+        } else {
+            analysis = dto;
+            summaryLabel.setText(String.format("Entropy: %.3f bits per byte, %d byte blocks",
+                    dto.getEntropy(), dto.getBlockSize()));
+        }
+
+        histogramCanvas.repaint();
+        entropyCanvas.repaint();
+    }
+
+    /**
+     * Paints the background of a plot and its title, and returns the area left for the plot.
+     */
+    private static Rectangle paintFrame(JComponent canvas, Graphics g, String title) {
+        g.setColor(canvas.getBackground());
+        g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        g.setColor(canvas.getForeground());
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(title, MARGIN, metrics.getAscent());
+
+        int top = metrics.getHeight() + MARGIN;
+
+        return new Rectangle(MARGIN, top, Math.max(1, canvas.getWidth() - (2 * MARGIN)),
+                Math.max(1, canvas.getHeight() - top - MARGIN));
+    }
+
+    /**
+     * Plots how often each byte value occurs, on a log scale so that rare values are still
+     * visible beside the most common one.
+     */
+    private class HistogramCanvas extends JComponent {
+        private HistogramCanvas() {
+            this.setOpaque(true);
+            this.setBackground(Color.WHITE);
+            this.setForeground(Color.BLACK);
+            this.setToolTipText("");
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Rectangle plot = paintFrame(this, g, "Byte frequency (log scale)");
+
+            if (analysis == null)
+                return;
+
+            long[] histogram = analysis.getHistogram();
+
+            long max = 0;
+            for (long count : histogram)
+                max = Math.max(max, count);
+
+            if (max == 0)
+                return;
+
+            g.setColor(Color.BLUE);
+
+            for (int value = 0; value < histogram.length; value++) {
+                int left = plot.x + (value * plot.width / histogram.length);
+                int right = plot.x + ((value + 1) * plot.width / histogram.length);
+                int height = (int)(plot.height * Math.log1p(histogram[value]) / Math.log1p(max));
+
+                g.fillRect(left, plot.y + plot.height - height, Math.max(1, right - left),
+                        height);
+            }
+        }
+
+        @Override
+        public String getToolTipText(MouseEvent e) {
+            if (analysis == null)
+                return null;
+
+            int width = Math.max(1, getWidth() - (2 * MARGIN));
+            int value = ((e.getX() - MARGIN) * 256) / width;
+
+            if (value < 0 || value > 255)
+                return null;
+
+            long count = analysis.getHistogram()[value];
+            double percentage = analysis.getFileSize() > 0
+                    ? (count * 100.0) / analysis.getFileSize() : 0;
+
+            return String.format("0x%02X: %d bytes (%.2f%%)", value, count, percentage);
+        }
+    }
+
+    /**
+     * Plots the entropy of each block through the file.  Blocks which share a column of pixels
+     * are drawn at the highest entropy among them, so that short sections of compressed or
+     * encrypted data are not hidden.  Clicking a column selects the offset of its first block.
+     */
+    private class EntropyCanvas extends JComponent {
+        private EntropyCanvas() {
+            this.setOpaque(true);
+            this.setBackground(Color.WHITE);
+            this.setForeground(Color.BLACK);
+            this.setToolTipText("");
+
+            this.addMouseListener(new MouseAdapter() {
+                    @Override
+                    public void mouseClicked(MouseEvent e) {
+                        int block = getBlockAt(e.getX());
+                        if (block >= 0)
+                            offsetSelected.accept((long)block * analysis.getBlockSize());
+                    }
+                });
+        }
+
+        /**
+         * @return The index of the first block in the column of pixels, or -1 if there is none.
+         */
+        private int getBlockAt(int x) {
+            if (analysis == null || analysis.getBlockEntropies().length == 0)
+                return -1;
+
+            int width = Math.max(1, getWidth() - (2 * MARGIN));
+            long block = ((long)(x - MARGIN) * analysis.getBlockEntropies().length) / width;
+
+            if (block < 0 || block >= analysis.getBlockEntropies().length)
+                return -1;
+
+            return (int)block;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Rectangle plot = paintFrame(this, g, "Entropy through the file (0 to 8 bits per "
+                    + "byte)");
+
+            if (analysis == null)
+                return;
+
+            double[] entropies = analysis.getBlockEntropies();
+            if (entropies.length == 0)
+                return;
+
+            g.setColor(Color.LIGHT_GRAY);
+            g.drawLine(plot.x, plot.y, plot.x + plot.width, plot.y);
+
+            g.setColor(Color.RED);
+
+            for (int x = 0; x < plot.width; x++) {
+                int first = (int)(((long)x * entropies.length) / plot.width);
+                int last = (int)Math.max(first + 1, ((long)(x + 1) * entropies.length)
+                        / plot.width);
+
+                double entropy = 0;
+                for (int i = first; i < last && i < entropies.length; i++)
+                    entropy = Math.max(entropy, entropies[i]);
+
+                int height = (int)(plot.height * entropy / MAX_ENTROPY);
+                g.drawLine(plot.x + x, plot.y + plot.height, plot.x + x,
+                        plot.y + plot.height - height);
+            }
+        }
+
+        @Override
+        public String getToolTipText(MouseEvent e) {
+            int block = getBlockAt(e.getX());
+            if (block < 0)
+                return null;
+
+            return String.format("Offset %d: %.3f bits per byte", (long)block
+                    * analysis.getBlockSize(), analysis.getBlockEntropies()[block]);
+        }
+    }
+}
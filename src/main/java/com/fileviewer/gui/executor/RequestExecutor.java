@@ -0,0 +1,52 @@
+package com.fileviewer.gui.executor;
+
+import com.fileviewer.observer.ProgObserver;
+
+import javax.swing.*;
+
+/**
+ * Runs the GUI's background requests, grouped into channels.  The requests of a channel run one
+ * at a time, in the order they were submitted, and never wait on the requests of another channel.
+ * Each new request supersedes the one before it on the same channel, so that only the latest
+ * request of each channel does any lasting work.
+ */
+public interface RequestExecutor {
+    /**
+     * Enum to represent the independent streams of requests made by the GUI.
+     */
+    public static enum Channel {
+        PAGE,       // Page navigation, view changes and file loads.
+        ROWS,       // Rows fetched by the scroll view.
+        SEARCH,     // Searches of the whole file.
+        ANALYSIS,   // Analyses of the whole file.
+    }
+
+    /**
+     * Runs the worker in the background.  The previous request on the channel is superseded:
+     * its observer is cancelled and its worker is cancelled, so that it is skipped if it has not
+     * yet started.
+     * NOTE: Must be called on the Event Dispatch Thread.
+     * @param channel The Channel the request belongs to.
+     * @param worker The SwingWorker to run.
+     * @param observer The ProgObserver used by the worker to record progress.
+     */
+    void submit(Channel channel, SwingWorker<?, ?> worker, ProgObserver observer);
+
+    /**
+     * Supersedes the latest request on the channel without submitting a new one.  Its observer
+     * and worker are cancelled as they would be by submit.
+     * NOTE: Must be called on the Event Dispatch Thread.
+     * @param channel The Channel whose request is cancelled.
+     */
+    void cancel(Channel channel);
+
+    /**
+     * Returns whether the worker is the most recent request on the channel.  Superseded workers
+     * should discard their results rather than update the GUI.
+     * NOTE: Must be called on the Event Dispatch Thread.
+     * @param channel The Channel the request belongs to.
+     * @param worker The SwingWorker to check.
+     * @return True if no newer request has been submitted on the channel.
+     */
+    boolean isLatest(Channel channel, SwingWorker<?, ?> worker);
+}
@@ -0,0 +1,76 @@
+package com.fileviewer.gui.executor;
+
+import com.fileviewer.observer.ProgObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.swing.*;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class RequestExecutorImpl implements RequestExecutor {
+    private static final Logger logger = LogManager.getLogger(RequestExecutorImpl.class);
+
+    private final Map<Channel, ExecutorService> executors = new EnumMap<>(Channel.class);
+
+    private final Map<Channel, SwingWorker<?, ?>> latestWorkers = new EnumMap<>(Channel.class);
+    private final Map<Channel, ProgObserver> latestObservers = new EnumMap<>(Channel.class);
+
+    /**
+     * Constructs a RequestExecutor with one thread per Channel, so that a slow request on one
+     * channel never holds up the other.  A superseded request may keep running until it next
+     * checks its observer, but it only ever delays the requests of its own channel.
+     */
+    public RequestExecutorImpl() {
+        logger.debug("Constructing RequestExecutorImpl.");
+
+        for (Channel channel : Channel.values()) {
+            executors.put(channel, Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "RequestExecutor-" + channel);
+                    thread.setDaemon(true);
+
+                    return thread;
+                }));
+        }
+    }
+
+    public synchronized void submit(Channel channel, SwingWorker<?, ?> worker,
+            ProgObserver observer) {
+        if (channel == null || worker == null || observer == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        SwingWorker<?, ?> previousWorker = latestWorkers.put(channel, worker);
+        ProgObserver previousObserver = latestObservers.put(channel, observer);
+
+        // The new request is recorded first, as cancelling may run the previous worker's done().
+        if (previousWorker != null && !previousWorker.isDone()) {
+            logger.debug("Superseding " + channel + " request.");
+
+            previousObserver.setCancelled(true);
+            previousWorker.cancel(false);
+        }
+
+        executors.get(channel).execute(worker);
+    }
+
+    public synchronized void cancel(Channel channel) {
+        if (channel == null)
+            throw new NullPointerException("Parameters cannot be null.");
+
+        SwingWorker<?, ?> previousWorker = latestWorkers.remove(channel);
+        ProgObserver previousObserver = latestObservers.remove(channel);
+
+        if (previousWorker != null && !previousWorker.isDone()) {
+            logger.debug("Cancelling " + channel + " request.");
+
+            previousObserver.setCancelled(true);
+            previousWorker.cancel(false);
+        }
+    }
+
+    public synchronized boolean isLatest(Channel channel, SwingWorker<?, ?> worker) {
+        return latestWorkers.get(channel) == worker;
+    }
+}
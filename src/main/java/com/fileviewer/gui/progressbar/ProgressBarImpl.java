@@ -1,5 +1,6 @@
 package com.fileviewer.gui.progressbar;
 
+import com.fileviewer.observer.ProgListener;
 import com.fileviewer.observer.ProgObserver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -7,7 +8,11 @@ import org.apache.logging.log4j.Logger;
 import javax.swing.*;
 import java.awt.*;
 
-public class ProgressBarImpl extends JDialog implements ProgressBar {
+/**
+ * A ProgressBar which listens to its ProgObserver, showing the percentage, throughput and
+ * estimated time remaining as they change, and closing itself once the task has finished.
+ */
+public class ProgressBarImpl extends JDialog implements ProgressBar, ProgListener {
     private final static Logger logger = LogManager.getLogger(ProgressBarImpl.class);
 
     private final JProgressBar progressBar;
@@ -20,7 +25,8 @@ public class ProgressBarImpl extends JDialog implements ProgressBar {
 
         this.observer = observer;
 
-        this.setSize(200, 100);
+        this.setSize(300, 100);
+        this.setMinimumSize(new Dimension(300, 100));
         this.setResizable(false);
         this.setAlwaysOnTop(true);
 
@@ -35,6 +41,7 @@ public class ProgressBarImpl extends JDialog implements ProgressBar {
         progressBar = new JProgressBar(0, 100);
         progressBar.setValue(0);
         progressBar.setStringPainted(true);
+        progressBar.setString("0%");
 
         this.add(progressBar, BorderLayout.CENTER);
 
@@ -46,6 +53,22 @@ public class ProgressBarImpl extends JDialog implements ProgressBar {
 
         this.pack();
         this.setVisible(true);
+
+        observer.addListener(this);
+    }
+
+    public void progressChanged(ProgObserver observer) {
+        if (observer.isFinished()) {
+            logger.debug("Trying to destroy ProgressBar...");
+
+            observer.removeListener(this);
+            destroyProgressBar();
+
+            return;
+        }
+
+        setPercentage(observer.getPercentage());
+        progressBar.setString(describeProgress(observer));
     }
 
     public void setPercentage(double percentage) {
@@ -68,6 +91,25 @@ public class ProgressBarImpl extends JDialog implements ProgressBar {
         super.setTitle(title);
     }
 
+    /**
+     * Returns the text shown on the bar, adding the throughput and time remaining once the
+     * observer is able to estimate them.
+     */
+    private static String describeProgress(ProgObserver observer) {
+        StringBuilder text = new StringBuilder();
+        text.append((int)observer.getPercentage()).append('%');
+
+        double throughput = observer.getThroughput();
+        if (throughput > 0)
+            text.append(String.format(" - %.1f MB/s", throughput / (1024 * 1024)));
+
+        long remaining = observer.getEstimatedTimeRemaining();
+        if (remaining >= 0)
+            text.append(" - ").append((remaining + 999) / 1000).append("s left");
+
+        return text.toString();
+    }
+
     private void cancelTask() {
         logger.info("Trying to cancel task...");
 
@@ -0,0 +1,281 @@
+package com.fileviewer.gui.scrollview;
+
+import com.fileviewer.controller.Controller;
+import com.fileviewer.dto.RowsDTO;
+import com.fileviewer.gui.executor.RequestExecutor;
+import com.fileviewer.observer.ProgObserver;
+import com.fileviewer.observer.ProgObserverFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+
+import static com.fileviewer.dataprocessing.DataViewer.DataType;
+
+/**
+ * A virtualized view of the whole loaded file.  The scrollbar spans the entire file, and only the
+ * rows currently visible are fetched and painted, so scrolling to any position costs the same
+ * regardless of the file size.
+ *
+ * NOTE: All methods must be called on the Event Dispatch Thread.
+ */
+public class ScrollViewer extends JPanel {
+    private static final Logger logger = LogManager.getLogger(ScrollViewer.class);
+
+    // The scrollbar works in ints, so very large files scroll several rows per unit.
+    private static final long MAX_SCROLL_UNITS = 1 << 30;
+    private static final int WHEEL_ROWS = 3;
+    private static final int OFFSET_DIGITS = 12;
+
+    private final Controller controller;
+    private final ProgObserverFactory progObserverFactory;
+    private final RequestExecutor requestExecutor;
+
+    private final RowCanvas canvas;
+    private final JScrollBar scrollBar;
+
+    private long fileSize = 0;
+    private int bytesPerRow = getBytesPerRow(DataType.Characters);
+    private long rowScale = 1;              // Rows per scrollbar unit.
+    private long firstRow = 0;              // The row at the top of the view.
+
+    private String[] rows = new String[0];  // The most recently fetched rows.
+    private long rowsStartByte = 0;         // The offset of the first fetched row.
+
+    private boolean updatingScrollBar = false;
+
+    /**
+     * @param controller The Controller used to fetch rows.
+     * @param progObserverFactory A ProgObserverFactory object to create ProgObserver instances.
+     * @param requestExecutor The RequestExecutor used to fetch rows in the background.
+     */
+    public ScrollViewer(Controller controller, ProgObserverFactory progObserverFactory,
+            RequestExecutor requestExecutor) {
+        logger.debug("Constructing ScrollViewer.");
+
+        this.controller = controller;
+        this.progObserverFactory = progObserverFactory;
+        this.requestExecutor = requestExecutor;
+
+        this.setLayout(new BorderLayout());
+
+        canvas = new RowCanvas();
+        scrollBar = new JScrollBar(JScrollBar.VERTICAL);
+
+        scrollBar.addAdjustmentListener(e -> {
+                if (updatingScrollBar)
+                    return;
+
+                firstRow = Math.min((long)e.getValue() * rowScale, getLastFirstRow());
+                requestRows();
+            });
+
+        // The wheel moves by rows rather than scrollbar units, which span many rows in a large
+        // file.
+        canvas.addMouseWheelListener(e -> {
+                long row = firstRow + ((long)e.getWheelRotation() * WHEEL_ROWS);
+                firstRow = Math.max(0, Math.min(row, getLastFirstRow()));
+
+                updateScrollBar();
+                requestRows();
+            });
+
+        canvas.addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentResized(ComponentEvent e) {
+                    updateScrollBar();
+                    requestRows();
+                }
+            });
+
+        this.add(canvas, BorderLayout.CENTER);
+        this.add(scrollBar, BorderLayout.EAST);
+    }
+
+    /**
+     * Fetches the visible rows again, picking up a newly loaded file or a change of DataType.
+     * The view stays at the same byte offset where possible.
+     */
+    public void refresh() {
+        requestRows();
+    }
+
+    /**
+     * Scrolls the view so that the row holding the offset supplied is at the top.
+     * @param byteIndex The offset of the byte to show.
+     */
+    public void scrollToOffset(long byteIndex) {
+        firstRow = Math.max(0, byteIndex / bytesPerRow);
+
+        updateScrollBar();
+        requestRows();
+    }
+
+    /**
+     * Returns the number of bytes shown on each row for the DataType supplied.  Text views show
+     * more bytes per row, as each byte renders to fewer characters.
+     */
+    private static int getBytesPerRow(DataType type) {
+        if (type == DataType.Characters || type == DataType.UTF8Characters
+                || type == DataType.UTF16Characters)
+            return 64;
+        else
+            return 16;
+    }
+
+    private long getTotalRows() {
+        return (fileSize + bytesPerRow - 1) / bytesPerRow;
+    }
+
+    private long getLastFirstRow() {
+        return Math.max(0, getTotalRows() - canvas.getVisibleRowCount() + 1);
+    }
+
+    private void updateScrollBar() {
+        long totalRows = getTotalRows();
+
+        rowScale = Math.max(1, (totalRows + MAX_SCROLL_UNITS - 1) / MAX_SCROLL_UNITS);
+        firstRow = Math.min(firstRow, getLastFirstRow());
+
+        int units = (int)((totalRows + rowScale - 1) / rowScale);
+        int extent = (int)Math.min(units, Math.max(1, canvas.getVisibleRowCount() / rowScale));
+
+        updatingScrollBar = true;
+        scrollBar.setValues((int)(firstRow / rowScale), extent, 0, units);
+        scrollBar.setBlockIncrement(Math.max(1, extent - 1));
+        updatingScrollBar = false;
+    }
+
+    /**
+     * Fetches the visible rows in the background, superseding any earlier request which has not
+     * yet completed.  Only the latest request updates the view.
+     */
+    private void requestRows() {
+        ProgObserver observer = progObserverFactory.getInstance();
+
+        int requestBytesPerRow = bytesPerRow;
+        long requestStart = firstRow * requestBytesPerRow;
+        int requestRowCount = canvas.getVisibleRowCount();
+
+        SwingWorker<RowsDTO, Void> worker = new SwingWorker<>() {
+                @Override
+                protected RowsDTO doInBackground() {
+                    return controller.fetchRows(requestStart, requestBytesPerRow, requestRowCount,
+                            observer);
+                }
+
+                @Override
+                protected void done() {
+                    if (isCancelled()
+                            || !requestExecutor.isLatest(RequestExecutor.Channel.ROWS, this))
+                        return;
+
+                    try {
+                        showRows(get());
+                    } catch (Exception e) {
+                        logger.error("Unable to fetch rows.");
+                    }
+                }
+            };
+
+        requestExecutor.submit(RequestExecutor.Channel.ROWS, worker, observer);
+    }
+
+    private void showRows(RowsDTO dto) {
+        if (dto.isErrorOccurred()) {
+            fileSize = 0;
+            rows = new String[0];
+
+            updateScrollBar();
+            canvas.repaint();
+
+            return;
+        }
+
+        fileSize = dto.getFileSize();
+
+        // The DataType has changed, so fetch again with its row size at the same offset.
+        int typeBytesPerRow = getBytesPerRow(dto.getType());
+        if (typeBytesPerRow != dto.getBytesPerRow()) {
+            firstRow = (firstRow * bytesPerRow) / typeBytesPerRow;
+            bytesPerRow = typeBytesPerRow;
+
+            updateScrollBar();
+            requestRows();
+
+            return;
+        }
+
+        rows = dto.getRows();
+        rowsStartByte = dto.getStartByteIndex();
+
+        updateScrollBar();
+        canvas.repaint();
+    }
+
+    /**
+     * Paints the fetched rows directly, with the byte offset of each row in the margin.
+     */
+    private class RowCanvas extends JComponent {
+        private RowCanvas() {
+            this.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
+            this.setOpaque(true);
+            this.setBackground(Color.WHITE);
+            this.setForeground(Color.BLACK);
+        }
+
+        private int getRowHeight() {
+            return getFontMetrics(getFont()).getHeight();
+        }
+
+        private int getVisibleRowCount() {
+            return Math.max(1, (getHeight() / getRowHeight()) + 1);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
+
+            g.setColor(getForeground());
+            g.setFont(getFont());
+
+            FontMetrics metrics = g.getFontMetrics();
+            int rowHeight = metrics.getHeight();
+
+            for (int i = 0; i < getVisibleRowCount(); i++) {
+                long rowStart = (firstRow + i) * bytesPerRow;
+                long rowIndex = (rowStart - rowsStartByte) / bytesPerRow;
+
+                if (rowStart < rowsStartByte || rowIndex >= rows.length)
+                    continue;
+
+                String text = formatOffset(rowStart) + "  " + printable(rows[(int)rowIndex]);
+                g.drawString(text, 4, (i * rowHeight) + metrics.getAscent());
+            }
+        }
+
+        private String formatOffset(long offset) {
+            String hex = Long.toHexString(offset);
+
+            return "0".repeat(Math.max(0, OFFSET_DIGITS - hex.length())) + hex;
+        }
+
+        /**
+         * Replaces control characters, which cannot be drawn on a single line.
+         */
+        private String printable(String row) {
+            char[] chars = row.toCharArray();
+
+            for (int i = 0; i < chars.length; i++) {
+                if (Character.isISOControl(chars[i]))
+                    chars[i] = '.';
+            }
+
+            return new String(chars);
+        }
+    }
+}
@@ -1,35 +1,53 @@
 package com.fileviewer.model;
 
+import com.fileviewer.dataprocessing.ByteSource;
+
 import static com.fileviewer.dataprocessing.DataViewer.DataType;
 
 /**
  * The class where the main application data will be stored.
+ * The state is held as an immutable Session which is replaced atomically, so that readers
+ * never block and always see a consistent snapshot.  The individual accessors operate on the
+ * current Session.
  */
 public interface Model {
+    /**
+     * @return The current Session.
+     */
+    Session getSession();
+
+    /**
+     * Replaces the current Session, but only if it has not been changed since it was read.
+     * @param expected The Session the update was derived from.
+     * @param updated The Session to replace it with.
+     * @return True if the Session was replaced, or false if another change got there first.
+     */
+    boolean compareAndSetSession(Session expected, Session updated);
+
     /**
      * Sets the data for the main application.
-     * This should be an int array containing the raw bytes of the file loaded.
-     * @param lastFileLoadedData An int array containing the raw bytes of the file loaded.
+     * This should be a ByteSource providing the raw bytes of the file loaded.
+     * @param lastFileLoadedData A ByteSource providing the raw bytes of the file loaded.
      */
-    void setLastFileLoadedData(int[] lastFileLoadedData);
+    void setLastFileLoadedData(ByteSource lastFileLoadedData);
 
     /**
      * Returns the data from the last loaded file.
-     * @return The raw byte data in an int array.
+     * @return The ByteSource of the raw byte data.
      */
-    int[] getLastFileLoadedData();
+    ByteSource getLastFileLoadedData();
 
     /**
      * Sets the index to start reading the data from.
-     * @param startByteIndex An int specifying the byte number to stat reading the data.
+     * @param startByteIndex A long specifying the byte number to stat reading the data.
      */
-    void setStartByteIndex(int startByteIndex);
+    void setStartByteIndex(long startByteIndex);
 
     /**
      * Returns the index to start reading the data from.
-     * @return An int representing the byte number to start reading the data.
+     * @return A long representing the byte number to start reading the data.
      */
-    int getStartByteIndex();
+    long getStartByteIndex();
 
     /**
      * Sets the current DataType to display.
@@ -43,9 +61,9 @@ public interface Model {
     DataType getCurrentType();
 
     /**
-     * @return An int representing the current page of the data.
+     * @return A long representing the current page of the data.
      */
-    int getCurrentPage();
+    long getCurrentPage();
 
     /**
      * @return The maximum bytes of data to display per page.
@@ -1,8 +1,11 @@
 package com.fileviewer.model;
 
+import com.fileviewer.dataprocessing.ByteSource;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static com.fileviewer.dataprocessing.DataViewer.DataType;
 
 public class ModelImpl implements Model {
@@ -10,55 +13,64 @@ public class ModelImpl implements Model {
 
     private static final int MAX_BYTES_PER_PAGE = 10000;
 
-    private int[] lastFileLoadedData = null;
-    private int startByteIndex = 0;
-    private DataType currentType = DataType.Characters;
-    private String data = null;
+    private final AtomicReference<Session> session;
+    private volatile String data = null;
 
     public ModelImpl() {
         logger.debug("Constructing ModelImpl");
+
+        session = new AtomicReference<>(new Session(null, DataType.Characters, 0,
+                MAX_BYTES_PER_PAGE));
+    }
+
+    public Session getSession() {
+        return session.get();
+    }
+
+    public boolean compareAndSetSession(Session expected, Session updated) {
+        if (updated == null)
+            throw new NullPointerException("Session cannot be null.");
+
+        return session.compareAndSet(expected, updated);
     }
 
-    public synchronized void setLastFileLoadedData(int[] lastFileLoadedData) {
-        this.lastFileLoadedData = lastFileLoadedData;
+    public void setLastFileLoadedData(ByteSource lastFileLoadedData) {
+        session.updateAndGet(current -> current.withData(lastFileLoadedData));
     }
 
-    public synchronized int[] getLastFileLoadedData() {
-        return lastFileLoadedData;
+    public ByteSource getLastFileLoadedData() {
+        return session.get().getData();
     }
 
-    public synchronized void setStartByteIndex(int startByteIndex) {
-        this.startByteIndex = startByteIndex;
+    public void setStartByteIndex(long startByteIndex) {
+        session.updateAndGet(current -> current.withStartByteIndex(startByteIndex));
     }
 
-    public synchronized int getStartByteIndex() {
-        return startByteIndex;
+    public long getStartByteIndex() {
+        return session.get().getStartByteIndex();
     }
 
-    public synchronized int getCurrentPage() {
-        if (startByteIndex == 0)
-            return 1;
-        else
-            return (startByteIndex / MAX_BYTES_PER_PAGE) + 1;
+    public long getCurrentPage() {
+        return session.get().getCurrentPage();
     }
 
-    public synchronized DataType getCurrentType() {
-        return this.currentType;
+    public DataType getCurrentType() {
+        return session.get().getType();
     }
 
-    public synchronized void setCurrentType(DataType currentType) {
-        this.currentType = currentType;
+    public void setCurrentType(DataType currentType) {
+        session.updateAndGet(current -> current.withType(currentType));
     }
 
-    public synchronized int getMaxBytesPerPage() {
-        return MAX_BYTES_PER_PAGE;
+    public int getMaxBytesPerPage() {
+        return session.get().getPageSize();
     }
 
-    public synchronized String getData() {
+    public String getData() {
         return data;
     }
 
-    public synchronized void setData(String data) {
+    public void setData(String data) {
         this.data = data;
     }
 }
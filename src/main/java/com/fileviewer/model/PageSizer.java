@@ -0,0 +1,46 @@
+package com.fileviewer.model;
+
+import static com.fileviewer.dataprocessing.DataViewer.DataType;
+
+/**
+ * Decides the number of bytes shown on a page of each DataType.  The sizes are configured per
+ * DataType, as the length of the rendered text per byte differs greatly between views.  In
+ * adaptive mode the sizes are then tuned from the measured render and layout times of the pages
+ * shown, so that a page change takes roughly the target latency on the current machine.
+ *
+ * The size is only asked for when a file is loaded or the view changes.  Every page of one
+ * session is the same size, so that page numbers, page boundaries and prefetched pages stay
+ * the same while the user moves around the file.
+ */
+public interface PageSizer {
+    /**
+     * @param type The DataType of the page.
+     * @return The number of bytes to show on each page of a new session of the DataType.
+     */
+    int getPageSize(DataType type);
+
+    /**
+     * Configures the page size of a DataType.  In adaptive mode this is the starting point from
+     * which the size is tuned.
+     *
+     * @param type The DataType to configure.
+     * @param pageSize The number of bytes to show on each page.
+     */
+    void setPageSize(DataType type, int pageSize);
+
+    /**
+     * Records a page being shown.
+     *
+     * @param type The DataType of the page.
+     * @param byteCount The number of bytes on the page.
+     * @param renderNanos The time taken to render the page, or 0 if it was already rendered.
+     */
+    void recordPage(DataType type, long byteCount, long renderNanos);
+
+    /**
+     * Adds to the time spent laying out the text of the page last recorded.
+     *
+     * @param nanos The time spent.
+     */
+    void recordLayoutTime(long nanos);
+}
@@ -0,0 +1,162 @@
+package com.fileviewer.model;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.fileviewer.dataprocessing.DataViewer.DataType;
+
+public class PageSizerImpl implements PageSizer {
+    private static final Logger logger = LogManager.getLogger(PageSizerImpl.class);
+
+    public static final int MIN_PAGE_SIZE = 1024;
+    public static final int MAX_PAGE_SIZE = 1024 * 1024;
+
+    // Tuned sizes are rounded down to whole rows of the widest byte views.
+    private static final int PAGE_SIZE_ALIGNMENT = 64;
+
+    // Tuned sizes within this fraction of the current size are ignored, so that the page
+    // boundaries do not move on every page change.
+    private static final double TOLERANCE = 0.2;
+
+    // The weight given to each new measurement in the moving averages.
+    private static final double SMOOTHING = 0.3;
+
+    private final long targetNanos;
+
+    private final Map<DataType, Integer> pageSizes = new EnumMap<>(DataType.class);
+    private final Map<DataType, Rates> rates = new EnumMap<>(DataType.class);
+
+    // The page last recorded, which any layout time is added to.
+    private DataType pendingType = null;
+    private long pendingByteCount = 0;
+    private long pendingLayoutNanos = 0;
+
+    /**
+     * Constructs a PageSizer which always uses the configured page sizes.
+     */
+    public PageSizerImpl() {
+        this(0);
+    }
+
+    /**
+     * @param targetMillis The time a page change should take in adaptive mode, or 0 to always
+     *                     use the configured page sizes.
+     */
+    public PageSizerImpl(long targetMillis) {
+        logger.debug("Constructing PageSizerImpl.");
+
+        if (targetMillis < 0)
+            throw new IllegalArgumentException("Target latency cannot be negative.");
+
+        this.targetNanos = targetMillis * 1_000_000;
+
+        // Roughly 10,000 characters of text per page in every view.
+        pageSizes.put(DataType.Characters, 10000);
+        pageSizes.put(DataType.UTF8Characters, 10000);
+        pageSizes.put(DataType.UTF16Characters, 20000);
+        pageSizes.put(DataType.Hex, 3500);
+        pageSizes.put(DataType.Bytes, 2500);
+        pageSizes.put(DataType.UTF8Bytes, 2500);
+        pageSizes.put(DataType.UTF16Bytes, 5000);
+    }
+
+    public synchronized int getPageSize(DataType type) {
+        if (type == null)
+            throw new NullPointerException("Type cannot be null.");
+
+        int pageSize = pageSizes.get(type);
+
+        Rates typeRates = rates.get(type);
+        if (targetNanos == 0 || typeRates == null)
+            return pageSize;
+
+        double nanosPerByte = typeRates.renderNanosPerByte + typeRates.layoutNanosPerByte;
+        if (nanosPerByte <= 0)
+            return pageSize;
+
+        long tuned = (long)(targetNanos / nanosPerByte);
+        tuned = Math.max(MIN_PAGE_SIZE, Math.min(MAX_PAGE_SIZE, tuned));
+        tuned -= tuned % PAGE_SIZE_ALIGNMENT;
+
+        if (Math.abs(tuned - pageSize) <= pageSize * TOLERANCE)
+            return pageSize;
+
+        logger.debug("Tuning " + type + " page size from " + pageSize + " to " + tuned
+                + " bytes.");
+
+        pageSizes.put(type, (int)tuned);
+
+        return (int)tuned;
+    }
+
+    public synchronized void setPageSize(DataType type, int pageSize) {
+        if (type == null)
+            throw new NullPointerException("Type cannot be null.");
+
+        if (pageSize < 1)
+            throw new IllegalArgumentException("Page size must be positive.");
+
+        pageSizes.put(type, pageSize);
+    }
+
+    public synchronized void recordPage(DataType type, long byteCount, long renderNanos) {
+        if (type == null)
+            throw new NullPointerException("Type cannot be null.");
+
+        completePendingPage();
+
+        if (byteCount <= 0)
+            return;
+
+        if (renderNanos > 0)
+            getRates(type).renderNanosPerByte = average(getRates(type).renderNanosPerByte,
+                    (double)renderNanos / byteCount);
+
+        pendingType = type;
+        pendingByteCount = byteCount;
+        pendingLayoutNanos = 0;
+    }
+
+    public synchronized void recordLayoutTime(long nanos) {
+        if (pendingType != null && nanos > 0)
+            pendingLayoutNanos += nanos;
+    }
+
+    /**
+     * Folds the layout time of the page last recorded into the averages of its DataType, now
+     * that no more of it will be laid out.
+     */
+    private void completePendingPage() {
+        if (pendingType == null)
+            return;
+
+        if (pendingLayoutNanos > 0)
+            getRates(pendingType).layoutNanosPerByte = average(
+                    getRates(pendingType).layoutNanosPerByte,
+                    (double)pendingLayoutNanos / pendingByteCount);
+
+        pendingType = null;
+    }
+
+    private Rates getRates(DataType type) {
+        return rates.computeIfAbsent(type, key -> new Rates());
+    }
+
+    private static double average(double current, double sample) {
+        if (current == 0)
+            return sample;
+
+        return current + (SMOOTHING * (sample - current));
+    }
+
+    /**
+     * The moving averages of the time taken per byte of a DataType.
+     */
+    private static class Rates {
+        private double renderNanosPerByte = 0;
+        private double layoutNanosPerByte = 0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.fileviewer.model;
+
+import com.fileviewer.dataprocessing.ByteSource;
+
+import static com.fileviewer.dataprocessing.DataViewer.DataType;
+
+/**
+ * An immutable snapshot of the viewing session: the data loaded, the view it is shown in, the
+ * offset of the current page and the number of bytes on it.  Each change produces a new
+ * Session, so a render can run against one snapshot without any lock while other requests
+ * proceed.
+ */
+public final class Session {
+    private final ByteSource data;
+    private final DataType type;
+    private final long startByteIndex;
+    private final int pageSize;
+
+    public Session(ByteSource data, DataType type, long startByteIndex, int pageSize) {
+        if (type == null)
+            throw new NullPointerException("Type cannot be null.");
+
+        this.data = data;
+        this.type = type;
+        this.startByteIndex = startByteIndex;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @return The ByteSource of the loaded file, or null if no file has been loaded.
+     */
+    public ByteSource getData() {
+        return data;
+    }
+
+    public DataType getType() {
+        return type;
+    }
+
+    public long getStartByteIndex() {
+        return startByteIndex;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return A long representing the current page of the data, counting from 1.
+     */
+    public long getCurrentPage() {
+        return (startByteIndex / pageSize) + 1;
+    }
+
+    public Session withData(ByteSource data) {
+        return new Session(data, type, startByteIndex, pageSize);
+    }
+
+    public Session withType(DataType type) {
+        return new Session(data, type, startByteIndex, pageSize);
+    }
+
+    public Session withStartByteIndex(long startByteIndex) {
+        return new Session(data, type, startByteIndex, pageSize);
+    }
+
+    public Session withPageSize(int pageSize) {
+        return new Session(data, type, startByteIndex, pageSize);
+    }
+}
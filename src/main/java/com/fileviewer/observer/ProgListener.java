@@ -0,0 +1,15 @@
+package com.fileviewer.observer;
+
+/**
+ * Receives notifications of changes to a ProgObserver.
+ * Notifications are coalesced: several changes made in quick succession result in a single
+ * notification, so the listener should read the current state from the observer rather than
+ * expect one call per change.
+ */
+public interface ProgListener {
+    /**
+     * Called on the observer's notification thread after its state has changed.
+     * @param observer The ProgObserver which has changed.
+     */
+    void progressChanged(ProgObserver observer);
+}
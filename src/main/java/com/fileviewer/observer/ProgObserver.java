@@ -3,12 +3,39 @@ package com.fileviewer.observer;
 /**
  * The ProgObserver class is used for communication between the Progress Bar and any long-running
  * tasks in order to display task progress to the user.
+ * Implementations must be safe to update from the task's thread while being read from others.
+ * Rather than polling, interested parties register a ProgListener to be told of changes.
  */
 public interface ProgObserver {
     double getPercentage();
 
     void setPercentage(double percentage);
 
+    /**
+     * Records the number of bytes processed so far, and updates the percentage to match.
+     * Reports may arrive out of order from parallel workers, so the count never goes back.
+     * The throughput is measured from the first report of the current task; a report with a
+     * different total, or with no bytes processed, starts a new measurement.
+     * @param processedBytes The number of bytes processed so far.
+     * @param totalBytes The total number of bytes the task will process.
+     */
+    void setProgress(long processedBytes, long totalBytes);
+
+    long getProcessedBytes();
+
+    long getTotalBytes();
+
+    /**
+     * @return The average number of bytes processed per second, or 0 if not yet known.
+     */
+    double getThroughput();
+
+    /**
+     * @return The estimated number of milliseconds until the task completes, or -1 if not yet
+     * known.
+     */
+    long getEstimatedTimeRemaining();
+
     boolean isFinished();
 
     void setIsFinished(boolean finished);
@@ -16,4 +43,13 @@ public interface ProgObserver {
     boolean isCancelled();
 
     void setCancelled(boolean cancelled);
+
+    /**
+     * Registers a listener to be notified of changes.  The listener is notified once straight
+     * away, so that it sees the current state even if the task has already finished.
+     * @param listener The ProgListener to notify.
+     */
+    void addListener(ProgListener listener);
+
+    void removeListener(ProgListener listener);
 }
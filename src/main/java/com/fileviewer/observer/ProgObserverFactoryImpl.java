@@ -3,14 +3,31 @@ package com.fileviewer.observer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.swing.*;
+import java.util.concurrent.Executor;
+
 public class ProgObserverFactoryImpl implements ProgObserverFactory {
     private static final Logger logger = LogManager.getLogger(ProgObserverFactoryImpl.class);
 
+    private final Executor notifier;
+
+    /**
+     * Constructs a factory whose observers notify their listeners on the Event Dispatch Thread.
+     */
     public ProgObserverFactoryImpl() {
+        this(SwingUtilities::invokeLater);
+    }
+
+    /**
+     * @param notifier The Executor that observers notify their listeners on.
+     */
+    public ProgObserverFactoryImpl(Executor notifier) {
         logger.debug("Constructing ProgObserverFactoryImpl.");
+
+        this.notifier = notifier;
     }
 
     public ProgObserver getInstance() {
-        return new ProgObserverImpl();
+        return new ProgObserverImpl(notifier);
     }
 }
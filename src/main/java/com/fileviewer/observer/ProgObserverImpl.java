@@ -3,19 +3,36 @@ package com.fileviewer.observer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
 public class ProgObserverImpl implements ProgObserver {
     private final Logger logger = LogManager.getLogger(ProgObserverImpl.class);
 
-    private double percentage;
-    private boolean finished;
-    private boolean cancelled;
+    private final Executor notifier;
+    private final List<ProgListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean notificationPending = new AtomicBoolean(false);
+
+    private volatile double percentage;
+    private volatile boolean finished;
+    private volatile boolean cancelled;
+    private final AtomicReference<Progress> progress;
 
-    protected ProgObserverImpl() {
+    /**
+     * @param notifier The Executor that listeners are notified on, for example the EDT.
+     */
+    protected ProgObserverImpl(Executor notifier) {
         logger.debug("Constructing ProgObserverImpl.");
 
+        this.notifier = notifier;
+
         percentage = 0;
         finished = false;
         cancelled = false;
+        progress = new AtomicReference<>(new Progress(0, 0, System.nanoTime()));
     }
 
     public double getPercentage() {
@@ -24,6 +41,50 @@ public class ProgObserverImpl implements ProgObserver {
 
     public void setPercentage(double percentage) {
         this.percentage = percentage;
+
+        notifyListeners();
+    }
+
+    public void setProgress(long processedBytes, long totalBytes) {
+        long now = System.nanoTime();
+
+        // Reports from parallel workers may arrive out of order, so progress never goes back.
+        Progress current = progress.updateAndGet(previous -> {
+                if (totalBytes != previous.totalBytes || processedBytes == 0)
+                    return new Progress(processedBytes, totalBytes, now);
+
+                return new Progress(Math.max(processedBytes, previous.processedBytes), totalBytes,
+                        previous.startNanos);
+            });
+
+        if (totalBytes > 0)
+            percentage = ((double)current.processedBytes / totalBytes) * 100;
+
+        notifyListeners();
+    }
+
+    public long getProcessedBytes() {
+        return progress.get().processedBytes;
+    }
+
+    public long getTotalBytes() {
+        return progress.get().totalBytes;
+    }
+
+    public double getThroughput() {
+        return progress.get().getThroughput(System.nanoTime());
+    }
+
+    public long getEstimatedTimeRemaining() {
+        Progress current = progress.get();
+
+        double throughput = current.getThroughput(System.nanoTime());
+        if (throughput <= 0 || current.totalBytes <= 0)
+            return -1;
+
+        long remaining = Math.max(0, current.totalBytes - current.processedBytes);
+
+        return (long)((remaining / throughput) * 1000);
     }
 
     public boolean isFinished() {
@@ -32,6 +93,8 @@ public class ProgObserverImpl implements ProgObserver {
 
     public void setIsFinished(boolean finished) {
         this.finished = finished;
+
+        notifyListeners();
     }
 
     public boolean isCancelled() {
@@ -40,5 +103,63 @@ public class ProgObserverImpl implements ProgObserver {
 
     public void setCancelled(boolean cancelled) {
         this.cancelled = cancelled;
+
+        notifyListeners();
+    }
+
+    public void addListener(ProgListener listener) {
+        if (listener == null)
+            throw new NullPointerException("Listener cannot be null.");
+
+        listeners.add(listener);
+
+        notifyListeners();
+    }
+
+    public void removeListener(ProgListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Schedules a notification of the listeners, unless one is already pending.  The pending
+     * flag is cleared before the listeners run, so changes made while they run are not lost.
+     */
+    private void notifyListeners() {
+        if (listeners.isEmpty())
+            return;
+
+        if (!notificationPending.compareAndSet(false, true))
+            return;
+
+        notifier.execute(() -> {
+                notificationPending.set(false);
+
+                for (ProgListener listener : listeners)
+                    listener.progressChanged(this);
+            });
+    }
+
+    /**
+     * An immutable sample of the bytes processed, so that the counts and the start time are
+     * always read together.
+     */
+    private static final class Progress {
+        private final long processedBytes;
+        private final long totalBytes;
+        private final long startNanos;
+
+        private Progress(long processedBytes, long totalBytes, long startNanos) {
+            this.processedBytes = processedBytes;
+            this.totalBytes = totalBytes;
+            this.startNanos = startNanos;
+        }
+
+        private double getThroughput(long now) {
+            long elapsed = now - startNanos;
+            if (elapsed <= 0 || processedBytes <= 0)
+                return 0;
+
+            return processedBytes / (elapsed / 1e9);
+        }
     }
 }
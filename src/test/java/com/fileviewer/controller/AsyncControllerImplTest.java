@@ -0,0 +1,142 @@
+package com.fileviewer.controller;
+
+import com.fileviewer.dto.AnalysisDTO;
+import com.fileviewer.dto.PageChangeDTO;
+import com.fileviewer.dto.SearchDTO;
+import com.fileviewer.observer.ProgObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Unit test for AsyncControllerImpl class.
+ */
+public class AsyncControllerImplTest {
+    private static final Logger logger = LogManager.getLogger(AsyncControllerImplTest.class);
+
+    public AsyncControllerImplTest() {
+        logger.debug("Constructing AsyncControllerImplTest");
+    }
+
+    private Controller controller;
+    private ProgObserver observer;
+
+    @BeforeEach
+    public void initMocks() {
+        controller = Mockito.mock(Controller.class);
+        observer = Mockito.mock(ProgObserver.class);
+    }
+
+    @Test
+    public void testShowNextPage_Completes() throws Exception {
+        PageChangeDTO dto = new PageChangeDTO();
+        Mockito.when(controller.showNextPage(Mockito.eq(observer), any())).thenReturn(dto);
+
+        AsyncController asyncController = new AsyncControllerImpl(controller, Runnable::run);
+
+        CompletableFuture<PageChangeDTO> future = asyncController.showNextPage(observer, null);
+
+        assertSame(dto, future.get(5, TimeUnit.SECONDS));
+        Mockito.verify(observer).setIsFinished(true);
+        Mockito.verify(observer, Mockito.never()).setCancelled(true);
+    }
+
+    @Test
+    public void testShowNextPage_CancelPropagatesToObserver() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        // Stands in for a render which runs until it sees the observer cancelled.
+        Mockito.doAnswer(invocation -> {
+                    cancelled.countDown();
+                    return null;
+                }).when(observer).setCancelled(true);
+        Mockito.when(controller.showNextPage(Mockito.eq(observer), any()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    cancelled.await(5, TimeUnit.SECONDS);
+
+                    return new PageChangeDTO();
+                });
+
+        AsyncController asyncController = new AsyncControllerImpl(controller,
+                runnable -> new Thread(runnable).start());
+
+        CompletableFuture<PageChangeDTO> future = asyncController.showNextPage(observer, null);
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+
+        assertTrue(future.isCancelled());
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShowNextPage_CancelledBeforeStartNeverRuns() {
+        Queue<Runnable> queued = new ArrayDeque<>();
+
+        AsyncController asyncController = new AsyncControllerImpl(controller, queued::add);
+
+        CompletableFuture<PageChangeDTO> future = asyncController.showNextPage(observer, null);
+        future.cancel(true);
+
+        queued.poll().run();
+
+        Mockito.verify(controller, Mockito.never()).showNextPage(any(), any());
+        Mockito.verify(observer).setCancelled(true);
+        Mockito.verify(observer).setIsFinished(true);
+    }
+
+    @Test
+    public void testFindBytes_StreamsHitsAndCompletes() throws Exception {
+        SearchDTO dto = new SearchDTO();
+        Mockito.when(controller.findBytes(any(), Mockito.eq(observer), any()))
+                .thenAnswer(invocation -> {
+                    invocation.<LongConsumer>getArgument(2).accept(42);
+
+                    return dto;
+                });
+
+        AsyncController asyncController = new AsyncControllerImpl(controller, Runnable::run);
+
+        List<Long> hits = new ArrayList<>();
+        CompletableFuture<SearchDTO> future = asyncController.findBytes(new byte[] {1, 2},
+                observer, hits::add);
+
+        assertSame(dto, future.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(42L), hits);
+        Mockito.verify(observer).setIsFinished(true);
+    }
+
+    @Test
+    public void testAnalyzeFile_CancelledBeforeStartNeverRuns() {
+        Queue<Runnable> queued = new ArrayDeque<>();
+
+        AsyncController asyncController = new AsyncControllerImpl(controller, queued::add);
+
+        CompletableFuture<AnalysisDTO> future = asyncController.analyzeFile(observer);
+        future.cancel(true);
+
+        queued.poll().run();
+
+        Mockito.verify(controller, Mockito.never()).analyzeFile(any());
+        Mockito.verify(observer).setCancelled(true);
+        Mockito.verify(observer).setIsFinished(true);
+    }
+}
@@ -1,12 +1,25 @@
 package com.fileviewer.controller;
 
+import com.fileviewer.dataprocessing.ArrayByteSource;
+import com.fileviewer.dataprocessing.ByteSource;
 import com.fileviewer.dataprocessing.DataViewer;
 import com.fileviewer.dataprocessing.FileLoader;
+import com.fileviewer.dataprocessing.PageCache;
+import com.fileviewer.dataprocessing.PagePrefetcher;
+import com.fileviewer.dataprocessing.Searcher;
+import com.fileviewer.dataprocessing.SearcherImpl;
+import com.fileviewer.dto.AnalysisDTO;
 import com.fileviewer.dto.ChangeViewDTO;
+import com.fileviewer.dto.HitDTO;
 import com.fileviewer.dto.LoadFileDTO;
 import com.fileviewer.dto.PageChangeDTO;
+import com.fileviewer.dto.RowsDTO;
+import com.fileviewer.dto.SearchDTO;
 import com.fileviewer.model.Model;
 import com.fileviewer.model.ModelImpl;
+import com.fileviewer.model.PageSizer;
+import com.fileviewer.model.PageSizerImpl;
+import com.fileviewer.model.Session;
 import com.fileviewer.observer.ProgObserver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -18,8 +31,15 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.*;
 
 /**
@@ -49,28 +69,30 @@ public class ControllerImplTest {
         return new File(path);
     }
 
-    private static int[] getTestFileData(File testFile) throws IOException {
+    private static ByteSource getTestFileData(File testFile) throws IOException {
         if (testFile.length() >= Integer.MAX_VALUE)
             throw new IOException("Test file is too large for test.");
 
-        int[] testFileData = new int[(int)testFile.length()];
+        byte[] testFileData = new byte[(int)testFile.length()];
 
         BufferedInputStream is = new BufferedInputStream(new FileInputStream(testFile));
         int readByte;
         int count = 0;
         while ((readByte = is.read()) != -1) {
-            testFileData[count] = readByte;
+            testFileData[count] = (byte)readByte;
             count++;
         }
 
         is.close();
 
-        return testFileData;
+        return new ArrayByteSource(testFileData);
     }
 
     private FileLoader fileLoader;
     private Model model;
     private DataViewer dataViewer;
+    private PageCache pageCache;
+    private PagePrefetcher pagePrefetcher;
     private ProgObserver observer;
 
     @BeforeEach
@@ -78,26 +100,28 @@ public class ControllerImplTest {
         fileLoader = Mockito.mock(FileLoader.class);
         model = Mockito.mock(Model.class);
         dataViewer = Mockito.mock(DataViewer.class);
+        pageCache = Mockito.mock(PageCache.class);
+        pagePrefetcher = Mockito.mock(PagePrefetcher.class);
         observer = Mockito.mock(ProgObserver.class);
     }
 
     @Test
     public void testLoadFile_ValidFile() throws IOException {
         File testFile = getTestFile1();
-        int[] testFileData = getTestFileData(testFile);
+        ByteSource testFileData = getTestFileData(testFile);
 
         Mockito.when(fileLoader.loadFile(testFile, observer)).thenReturn(testFileData);
 
-        Mockito.when(model.getMaxBytesPerPage()).thenReturn(1000);
-        Mockito.when(model.getCurrentType()).thenReturn(DataViewer.DataType.Characters);
-        Mockito.when(model.getLastFileLoadedData()).thenReturn(testFileData);
-        Mockito.when(model.getCurrentPage()).thenReturn(1);
+        Session session = new Session(null, DataViewer.DataType.Characters, 0, 1000);
+        Mockito.when(model.getSession()).thenReturn(session);
+        Mockito.when(model.compareAndSetSession(Mockito.eq(session), any())).thenReturn(true);
 
         String testString = "TEST STRING";
-        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyInt(), anyInt())).
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong())).
                 thenReturn(testString);
 
-        Controller controller = new ControllerImpl(fileLoader, model, dataViewer);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
 
         LoadFileDTO dto = controller.loadFile(observer, testFile);
 
@@ -108,16 +132,57 @@ public class ControllerImplTest {
     }
 
     @Test
-    public void testLoadFile_InValidFileTooBig() {
-        File testFile = Mockito.mock(File.class);
-        Mockito.when(testFile.length()).thenReturn((long)Integer.MAX_VALUE + 1);
+    public void testLoadFile_InValidFileLoadError() {
+        File testFile = getTestFile1();
+
+        Mockito.when(fileLoader.loadFile(testFile, observer)).thenReturn(null);
 
-        Controller controller = new ControllerImpl(fileLoader, model, dataViewer);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
 
         LoadFileDTO dto = controller.loadFile(observer, testFile);
 
         assertEquals(true, dto.isErrorOccurred());
-        assertEquals("File size was too large.", dto.getErrorMessage());
+        assertEquals("An unknown error occurred.", dto.getErrorMessage());
+    }
+
+    @Test
+    public void testLoadFile_CancelledWhileStreaming() throws IOException {
+        ByteSource previousData = Mockito.spy(getTestFileData(getTestFile1()));
+        ByteSource loadedData = Mockito.spy(getTestFileData(getTestFile2()));
+        File testFile = getTestFile2();
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(previousData);
+        model.setCurrentType(DataViewer.DataType.Characters);
+
+        Mockito.when(fileLoader.loadFile(testFile, observer)).thenReturn(loadedData);
+
+        // The user cancels the load after the first chunk of the page has been shown.
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        Mockito.when(observer.isCancelled()).thenAnswer(invocation -> cancelled.get());
+        Mockito.when(dataViewer.streamDisplayData(any(), any(), any(), anyLong(), anyLong(),
+                any())).thenAnswer(invocation -> {
+                    Consumer<String> sink = invocation.getArgument(5);
+                    sink.accept("FIRST ");
+                    cancelled.set(true);
+                    sink.accept("SECOND");
+
+                    return true;
+                });
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+
+        List<String> chunks = new ArrayList<>();
+        LoadFileDTO dto = controller.loadFile(observer, testFile, chunks::add);
+
+        assertEquals(true, dto.isErrorOccurred());
+        assertEquals("The request was cancelled.", dto.getErrorMessage());
+        assertEquals(List.of("FIRST ", "SECOND"), chunks);
+        assertSame(previousData, model.getSession().getData());
+        Mockito.verify(loadedData).close();
+        Mockito.verify(previousData, Mockito.never()).close();
     }
 
     @Test
@@ -125,12 +190,13 @@ public class ControllerImplTest {
         Model model = new ModelImpl();
 
         String testString = "TEST STRING";
-        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyInt(), anyInt()))
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
                 .thenReturn(testString);
 
         DataViewer.DataType testChangeType = DataViewer.DataType.Hex;
 
-        Controller controller = new ControllerImpl(fileLoader, model, dataViewer);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
         ChangeViewDTO dto = controller.changeViewType(testChangeType, observer);
 
         assertEquals(false, dto.isErrorOccurred());
@@ -143,22 +209,109 @@ public class ControllerImplTest {
         Model model = new ModelImpl();
         model.setCurrentType(DataViewer.DataType.Characters);
 
-        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyInt(), anyInt()))
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
                 .thenReturn(null);
 
         DataViewer.DataType testChangeType = DataViewer.DataType.UTF8Characters;
 
-        Controller controller = new ControllerImpl(fileLoader, model, dataViewer);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
         ChangeViewDTO dto = controller.changeViewType(testChangeType, observer);
 
         assertEquals(true, dto.isErrorOccurred());
         assertEquals(DataViewer.DataType.Characters, model.getCurrentType());
     }
 
+    @Test
+    public void testChangeViewType_KeepsCurrentPage() throws IOException {
+        File testFileLarge = getTestFile2();
+        ByteSource testData = getTestFileData(testFileLarge);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Hex);
+        model.setStartByteIndex(model.getMaxBytesPerPage());
+
+        String testString = "TEST STRING";
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
+                .thenReturn(testString);
+
+        // The page starts part way through a code point.
+        long alignedStart = model.getMaxBytesPerPage() + 2;
+        Mockito.when(dataViewer.alignStartIndex(testData, DataViewer.DataType.UTF8Characters,
+                model.getMaxBytesPerPage())).thenReturn(alignedStart);
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+        ChangeViewDTO dto = controller.changeViewType(DataViewer.DataType.UTF8Characters,
+                observer);
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(2, dto.getCurrentPage());
+        assertEquals(alignedStart, model.getStartByteIndex());
+        Mockito.verify(dataViewer).fetchDisplayData(testData, observer,
+                DataViewer.DataType.UTF8Characters, alignedStart,
+                alignedStart + model.getMaxBytesPerPage());
+    }
+
+    @Test
+    public void testChangeViewType_UsesPageSizeOfType() throws IOException {
+        File testFileLarge = getTestFile2();
+        ByteSource testData = getTestFileData(testFileLarge);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Characters);
+        model.setStartByteIndex(5000);
+
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
+                .thenReturn("TEST STRING");
+        Mockito.when(dataViewer.alignStartIndex(any(), any(), anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+
+        PageSizer pageSizer = new PageSizerImpl();
+        pageSizer.setPageSize(DataViewer.DataType.Hex, 1500);
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher, pageSizer);
+        ChangeViewDTO dto = controller.changeViewType(DataViewer.DataType.Hex, observer);
+
+        // The Hex view starts at the same offset, with its own page size.
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(5000, dto.getStartByteIndex());
+        assertEquals(4, dto.getCurrentPage());
+        assertEquals(1500, model.getMaxBytesPerPage());
+
+        // Switching back does not move the position either.
+        dto = controller.changeViewType(DataViewer.DataType.Characters, observer);
+        assertEquals(5000, dto.getStartByteIndex());
+
+        dto = controller.changeViewType(DataViewer.DataType.Hex, observer);
+        assertEquals(5000, dto.getStartByteIndex());
+
+        // A new page size does not move the pages of the current session.
+        pageSizer.setPageSize(DataViewer.DataType.Hex, 2000);
+        PageChangeDTO nextDto = controller.showNextPage(observer);
+
+        assertEquals(false, nextDto.isErrorOccurred());
+        assertEquals(6500, nextDto.getStartByteIndex());
+        assertEquals(5, nextDto.getCurrentPage());
+        Mockito.verify(dataViewer).fetchDisplayData(testData, observer, DataViewer.DataType.Hex,
+                6500, 8000);
+
+        PageChangeDTO prevDto = controller.showPrevPage(observer);
+        assertEquals(5000, prevDto.getStartByteIndex());
+
+        // It takes effect from the next view change.
+        dto = controller.changeViewType(DataViewer.DataType.Hex, observer);
+        assertEquals(5000, dto.getStartByteIndex());
+        assertEquals(2000, model.getMaxBytesPerPage());
+    }
+
     @Test
     public void testShowNextPage_SmallFileOnePage() throws IOException {
         File testFile = getTestFile1();
-        int[] testData = getTestFileData(testFile);
+        ByteSource testData = getTestFileData(testFile);
 
         Model model = new ModelImpl();
         model.setLastFileLoadedData(testData);
@@ -166,7 +319,8 @@ public class ControllerImplTest {
         model.setStartByteIndex(0);
         model.setLastFileLoadedData(testData);
 
-        Controller controller = new ControllerImpl(fileLoader, model, dataViewer);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
         PageChangeDTO dto = controller.showNextPage(observer);
 
         assertEquals(true, dto.isErrorOccurred());
@@ -176,7 +330,7 @@ public class ControllerImplTest {
     @Test
     public void testShowNextPage_BigFileMultiplePages() throws IOException {
         File testFileLarge = getTestFile2();
-        int[] testData = getTestFileData(testFileLarge);
+        ByteSource testData = getTestFileData(testFileLarge);
 
         Model model = new ModelImpl();
         model.setLastFileLoadedData(testData);
@@ -184,20 +338,223 @@ public class ControllerImplTest {
         model.setStartByteIndex(0);
 
         String testString = "TEST STRING";
-        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyInt(), anyInt()))
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
                 .thenReturn(testString);
 
-        Controller controller = new ControllerImpl(fileLoader, model, dataViewer);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+        PageChangeDTO dto = controller.showNextPage(observer);
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(2, dto.getCurrentPage());
+    }
+
+    @Test
+    public void testShowNextPage_ServedFromPrefetch() throws IOException {
+        File testFileLarge = getTestFile2();
+        ByteSource testData = getTestFileData(testFileLarge);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Characters);
+        model.setStartByteIndex(0);
+
+        String testString = "PREFETCHED STRING";
+        Mockito.when(pagePrefetcher.takePage(any(), any(), anyLong(), anyLong()))
+                .thenReturn(testString);
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+        PageChangeDTO dto = controller.showNextPage(observer);
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(testString, dto.getData());
+        Mockito.verify(dataViewer, Mockito.never())
+                .fetchDisplayData(any(), any(), any(), anyLong(), anyLong());
+        Mockito.verify(pagePrefetcher).prefetchNeighbours(testData,
+                DataViewer.DataType.Characters, model.getMaxBytesPerPage(),
+                model.getMaxBytesPerPage());
+    }
+
+    @Test
+    public void testShowNextPage_Streamed() throws IOException {
+        File testFileLarge = getTestFile2();
+        ByteSource testData = getTestFileData(testFileLarge);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Characters);
+        model.setStartByteIndex(0);
+
+        Mockito.when(dataViewer.streamDisplayData(any(), any(), any(), anyLong(), anyLong(),
+                any())).thenAnswer(invocation -> {
+                    Consumer<String> sink = invocation.getArgument(5);
+                    sink.accept("FIRST ");
+                    sink.accept("SECOND");
+
+                    return true;
+                });
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+
+        List<String> chunks = new ArrayList<>();
+        PageChangeDTO dto = controller.showNextPage(observer, chunks::add);
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(List.of("FIRST ", "SECOND"), chunks);
+        assertEquals("FIRST SECOND", dto.getData());
+        Mockito.verify(pageCache).put(any(), Mockito.eq("FIRST SECOND"));
+    }
+
+    @Test
+    public void testShowNextPage_CancelledWhileStreaming() throws IOException {
+        File testFileLarge = getTestFile2();
+        ByteSource testData = getTestFileData(testFileLarge);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Characters);
+        model.setStartByteIndex(0);
+
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        Mockito.when(observer.isCancelled()).thenAnswer(invocation -> cancelled.get());
+        Mockito.when(dataViewer.streamDisplayData(any(), any(), any(), anyLong(), anyLong(),
+                any())).thenAnswer(invocation -> {
+                    Consumer<String> sink = invocation.getArgument(5);
+                    sink.accept("FIRST ");
+                    cancelled.set(true);
+                    sink.accept("SECOND");
+
+                    return true;
+                });
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+
+        List<String> chunks = new ArrayList<>();
+        PageChangeDTO dto = controller.showNextPage(observer, chunks::add);
+
+        // The chunks already streamed are not committed, so the GUI must put back the page.
+        assertEquals(true, dto.isErrorOccurred());
+        assertEquals("The request was cancelled.", dto.getErrorMessage());
+        assertEquals(List.of("FIRST ", "SECOND"), chunks);
+        assertEquals(0, model.getStartByteIndex());
+        assertEquals(1, model.getCurrentPage());
+    }
+
+    @Test
+    public void testShowNextPage_SessionChangedWhileRendering() throws IOException {
+        File testFileLarge = getTestFile2();
+        ByteSource testData = getTestFileData(testFileLarge);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Characters);
+        model.setStartByteIndex(0);
+
+        // Another request switches the view while this page is rendering.
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> {
+                    model.setCurrentType(DataViewer.DataType.Hex);
+
+                    return "TEST STRING";
+                });
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
         PageChangeDTO dto = controller.showNextPage(observer);
 
+        assertEquals(true, dto.isErrorOccurred());
+        assertEquals("The view was changed by another request.", dto.getErrorMessage());
+        assertEquals(0, model.getStartByteIndex());
+        assertEquals(DataViewer.DataType.Hex, model.getCurrentType());
+    }
+
+    @Test
+    public void testGoToOffset_ValidAbsoluteAndRelative() throws IOException {
+        File testFileLarge = getTestFile2();
+        ByteSource testData = getTestFileData(testFileLarge);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Characters);
+        model.setStartByteIndex(0);
+
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
+                .thenReturn("TEST STRING");
+        Mockito.when(dataViewer.alignStartIndex(any(), any(), anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+
+        long offset = model.getMaxBytesPerPage() + 5;
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+        PageChangeDTO dto = controller.goToOffset(offset, false, observer);
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(offset, dto.getStartByteIndex());
+        assertEquals(2, dto.getCurrentPage());
+        Mockito.verify(dataViewer).fetchDisplayData(testData, observer,
+                DataViewer.DataType.Characters, offset, offset + model.getMaxBytesPerPage());
+
+        dto = controller.goToOffset(-5, true, observer);
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(model.getMaxBytesPerPage(), model.getStartByteIndex());
+    }
+
+    @Test
+    public void testGoToOffset_InvalidOutsideFile() throws IOException {
+        File testFile = getTestFile1();
+        ByteSource testData = getTestFileData(testFile);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setStartByteIndex(0);
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+
+        assertEquals(true, controller.goToOffset(testData.size(), false, observer)
+                .isErrorOccurred());
+        assertEquals(true, controller.goToOffset(-1, true, observer).isErrorOccurred());
+        assertEquals(true, controller.goToOffset(Long.MAX_VALUE, true, observer)
+                .isErrorOccurred());
+        assertEquals(0, model.getStartByteIndex());
+    }
+
+    @Test
+    public void testGoToPage_Valid() throws IOException {
+        File testFileLarge = getTestFile2();
+        ByteSource testData = getTestFileData(testFileLarge);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Characters);
+        model.setStartByteIndex(0);
+
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
+                .thenReturn("TEST STRING");
+        Mockito.when(dataViewer.alignStartIndex(any(), any(), anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+        PageChangeDTO dto = controller.goToPage(2, observer);
+
         assertEquals(false, dto.isErrorOccurred());
         assertEquals(2, dto.getCurrentPage());
+        assertEquals(model.getMaxBytesPerPage(), model.getStartByteIndex());
+
+        assertEquals(true, controller.goToPage(0, observer).isErrorOccurred());
+        assertEquals(true, controller.goToPage(Long.MAX_VALUE, observer).isErrorOccurred());
     }
 
     @Test
     public void testShowPrevPage_InvalidSmallFile() throws IOException {
         File testFile = getTestFile1();
-        int[] testData = getTestFileData(testFile);
+        ByteSource testData = getTestFileData(testFile);
 
         Model model = new ModelImpl();
         model.setLastFileLoadedData(testData);
@@ -205,10 +562,11 @@ public class ControllerImplTest {
         model.setStartByteIndex(0);
 
         String testString = "TEST STRING";
-        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyInt(), anyInt()))
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
                 .thenReturn(testString);
 
-        Controller controller = new ControllerImpl(fileLoader, model, dataViewer);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
         PageChangeDTO dto = controller.showPrevPage(observer);
 
         assertEquals(1, model.getCurrentPage());
@@ -217,7 +575,7 @@ public class ControllerImplTest {
     @Test
     public void testShowPrevPage_ValidLargeFile() throws IOException {
         File largeTestFile = getTestFile2();
-        int[] testData = getTestFileData(largeTestFile);
+        ByteSource testData = getTestFileData(largeTestFile);
 
         Model model = new ModelImpl();
         model.setLastFileLoadedData(testData);
@@ -226,10 +584,11 @@ public class ControllerImplTest {
         model.setStartByteIndex(model.getMaxBytesPerPage() + 1);
 
         String testString = "TEST STRING";
-        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyInt(), anyInt()))
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
                 .thenReturn(testString);
 
-        Controller controller = new ControllerImpl(fileLoader, model, dataViewer);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
 
         assertEquals(2, model.getCurrentPage());
 
@@ -241,7 +600,7 @@ public class ControllerImplTest {
     @Test
     public void testShowFirstPage_InvalidSmallFile() throws IOException {
         File testFile = getTestFile1();
-        int[] testData = getTestFileData(testFile);
+        ByteSource testData = getTestFileData(testFile);
 
         Model model = new ModelImpl();
         model.setLastFileLoadedData(testData);
@@ -249,10 +608,11 @@ public class ControllerImplTest {
         model.setStartByteIndex(0);
 
         String testString = "TEST STRING";
-        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyInt(), anyInt()))
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
                 .thenReturn(testString);
 
-        Controller controller = new ControllerImpl(fileLoader, model, dataViewer);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
 
         assertEquals(1, model.getCurrentPage());
 
@@ -264,7 +624,7 @@ public class ControllerImplTest {
     @Test
     public void testShowFirstPage_ValidLargeFile() throws IOException {
         File testFile = getTestFile2();
-        int[] testData = getTestFileData(testFile);
+        ByteSource testData = getTestFileData(testFile);
 
         Model model = new ModelImpl();
         model.setLastFileLoadedData(testData);
@@ -273,15 +633,314 @@ public class ControllerImplTest {
         model.setStartByteIndex(model.getMaxBytesPerPage() + 1);
 
         String testString = "TEST STRING";
-        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyInt(), anyInt()))
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
                 .thenReturn(testString);
 
         assertEquals(2, model.getCurrentPage());
 
-        Controller controller = new ControllerImpl(fileLoader, model, dataViewer);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
         PageChangeDTO dto = controller.showFirstPage(observer);
 
         assertEquals(false, dto.isErrorOccurred());
         assertEquals(1, dto.getCurrentPage());
     }
+
+    @Test
+    public void testFindBytes_Valid() throws IOException {
+        File testFile = getTestFile1();
+        ByteSource testData = getTestFileData(testFile);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setStartByteIndex(0);
+
+        byte[] bytes = new byte[(int)testData.size()];
+        testData.readFully(0, bytes, 0, bytes.length);
+        byte[] pattern = new byte[] {bytes[10], bytes[11], bytes[12]};
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+
+        List<Long> hits = new ArrayList<>();
+        SearchDTO dto = controller.findBytes(pattern, observer, hit -> {
+                synchronized (hits) {
+                    hits.add(hit);
+                }
+            });
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(hits.size(), dto.getHitCount());
+        assertEquals(true, hits.contains(10L));
+        assertEquals(0, model.getStartByteIndex());
+    }
+
+    @Test
+    public void testFindBytes_FileReplacedWhileSearching() throws IOException {
+        ByteSource previousData = Mockito.spy(getTestFileData(getTestFile1()));
+        ByteSource loadedData = getTestFileData(getTestFile2());
+        File testFile = getTestFile2();
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(previousData);
+        model.setCurrentType(DataViewer.DataType.Characters);
+
+        Mockito.when(fileLoader.loadFile(testFile, observer)).thenReturn(loadedData);
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
+                .thenReturn("TEST STRING");
+
+        Searcher searcher = Mockito.mock(Searcher.class);
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher, new PageSizerImpl(), searcher);
+
+        // Another file is loaded while the search is still reading the previous one.
+        Mockito.when(searcher.findBytes(Mockito.same(previousData), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    LoadFileDTO dto = controller.loadFile(observer, testFile);
+                    assertEquals(false, dto.isErrorOccurred());
+
+                    Mockito.verify(previousData, Mockito.never()).close();
+
+                    return 0L;
+                });
+
+        controller.findBytes(new byte[] {1}, observer, hit -> { });
+
+        Mockito.verify(previousData).close();
+
+        // Requests started after the file was replaced read the new file.
+        controller.findBytes(new byte[] {1}, observer, hit -> { });
+
+        Mockito.verify(searcher).findBytes(Mockito.same(loadedData), any(), any(), any());
+    }
+
+    @Test
+    public void testFindBytes_InvalidNoFileOrPattern() throws IOException {
+        Model model = new ModelImpl();
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+
+        SearchDTO dto = controller.findBytes(new byte[] {1}, observer, hit -> { });
+        assertEquals(true, dto.isErrorOccurred());
+        assertEquals("No file has been loaded.", dto.getErrorMessage());
+
+        model.setLastFileLoadedData(getTestFileData(getTestFile1()));
+
+        dto = controller.findBytes(new byte[0], observer, hit -> { });
+        assertEquals(true, dto.isErrorOccurred());
+    }
+
+    @Test
+    public void testFindText_ValidAndInvalidView() throws IOException {
+        File testFile = getTestFile1();
+        ByteSource testData = getTestFileData(testFile);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Hex);
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+
+        SearchDTO dto = controller.findText("a", false, observer, hit -> { });
+        assertEquals(true, dto.isErrorOccurred());
+
+        model.setCurrentType(DataViewer.DataType.Characters);
+
+        dto = controller.findText("(", true, observer, hit -> { });
+        assertEquals(true, dto.isErrorOccurred());
+
+        byte[] bytes = new byte[(int)testData.size()];
+        testData.readFully(0, bytes, 0, bytes.length);
+        String query = new String(bytes, 20, 3, StandardCharsets.ISO_8859_1);
+
+        List<Long> hits = new ArrayList<>();
+        dto = controller.findText(query, false, observer, hits::add);
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(hits.size(), dto.getHitCount());
+        assertEquals(true, hits.contains(20L));
+    }
+
+    @Test
+    public void testFindBytesAndText_NarrowExtendedQueries() throws IOException {
+        byte[] bytes = "abc ab abd xab abc abcab".getBytes(StandardCharsets.ISO_8859_1);
+        ByteSource testData = new ArrayByteSource(bytes);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Characters);
+
+        Searcher searcher = Mockito.spy(new SearcherImpl());
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher, new PageSizerImpl(), searcher);
+
+        controller.findBytes("ab".getBytes(StandardCharsets.ISO_8859_1), observer, hit -> { });
+
+        List<Long> hits = new ArrayList<>();
+        SearchDTO dto = controller.findBytes("xab".getBytes(StandardCharsets.ISO_8859_1),
+                observer, hits::add);
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(List.of(11L), hits);
+        Mockito.verify(searcher).refineBytes(any(), any(), any(), any(), any());
+
+        // "xab" does not occur within "abc", so the whole file is scanned again.
+        controller.findBytes("abc".getBytes(StandardCharsets.ISO_8859_1), observer, hit -> { });
+        Mockito.verify(searcher, Mockito.times(2)).findBytes(any(), any(), any(), any());
+
+        controller.findText("ab", false, observer, hit -> { });
+
+        hits.clear();
+        dto = controller.findText("abc", false, observer, hits::add);
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(List.of(0L, 15L, 19L), hits);
+        Mockito.verify(searcher).refineText(any(), any(), any(), any(), any(), any());
+
+        // "abca" is narrowed from "abc", but overlaps itself, so "abcab" is not narrowed from it.
+        controller.findText("abca", false, observer, hit -> { });
+        Mockito.verify(searcher, Mockito.times(2)).refineText(any(), any(), any(), any(), any(),
+                any());
+
+        hits.clear();
+        controller.findText("abcab", false, observer, hits::add);
+        assertEquals(List.of(19L), hits);
+        Mockito.verify(searcher, Mockito.times(2)).findText(any(), any(), any(), any(), any());
+
+        // A cancelled search is not narrowed from either.
+        Mockito.when(observer.isCancelled()).thenReturn(true);
+        controller.findText("a", false, observer, hit -> { });
+        Mockito.when(observer.isCancelled()).thenReturn(false);
+        controller.findText("ab", false, observer, hit -> { });
+        Mockito.verify(searcher, Mockito.times(4)).findText(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testAnalyzeFile() throws IOException {
+        Model model = new ModelImpl();
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+
+        AnalysisDTO dto = controller.analyzeFile(observer);
+        assertEquals(true, dto.isErrorOccurred());
+        assertEquals("No file has been loaded.", dto.getErrorMessage());
+
+        ByteSource testData = getTestFileData(getTestFile2());
+        model.setLastFileLoadedData(testData);
+
+        dto = controller.analyzeFile(observer);
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(testData.size(), dto.getFileSize());
+        assertEquals(testData.size(), Arrays.stream(dto.getHistogram()).sum());
+        assertEquals((testData.size() + dto.getBlockSize() - 1) / dto.getBlockSize(),
+                dto.getBlockEntropies().length);
+        assertEquals(true, dto.getEntropy() > 0 && dto.getEntropy() <= 8);
+        assertEquals(0, model.getStartByteIndex());
+    }
+
+    @Test
+    public void testShowNextAndPrevHit() throws IOException {
+        File testFileLarge = getTestFile2();
+        ByteSource testData = getTestFileData(testFileLarge);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Hex);
+        model.setStartByteIndex(0);
+
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
+                .thenReturn("TEST STRING");
+        Mockito.when(dataViewer.alignStartIndex(any(), any(), anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+        Mockito.when(dataViewer.locateCharacters(any(), any(), anyLong(), any()))
+                .thenAnswer(invocation -> new int[((long[])invocation.getArgument(3)).length]);
+
+        byte[] bytes = new byte[(int)testData.size()];
+        testData.readFully(0, bytes, 0, bytes.length);
+        byte[] pattern = {bytes[100], bytes[101]};
+
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i + 1 < bytes.length; i++) {
+            if (bytes[i] == pattern[0] && bytes[i + 1] == pattern[1])
+                expected.add((long)i);
+        }
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+
+        HitDTO dto = controller.showNextHit(observer);
+        assertEquals(true, dto.isErrorOccurred());
+
+        controller.findBytes(pattern, observer, hit -> { });
+
+        dto = controller.showNextHit(observer);
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals((long)expected.get(0), dto.getHitStartByteIndex());
+        assertEquals((long)expected.get(0), model.getStartByteIndex());
+        assertEquals(1, dto.getHitNumber());
+        assertEquals(expected.size(), dto.getHitCount());
+
+        // Every hit starting on the page is highlighted, and none of the others.
+        long pageEnd = expected.get(0) + model.getMaxBytesPerPage();
+        assertEquals(2 * expected.stream().filter(hit -> hit < pageEnd).count(),
+                dto.getHighlights().length);
+
+        if (expected.size() > 1) {
+            dto = controller.showNextHit(observer);
+            assertEquals((long)expected.get(1), dto.getHitStartByteIndex());
+            assertEquals(2, dto.getHitNumber());
+        }
+
+        dto = controller.showPrevHit(observer);
+        if (expected.size() > 1)
+            assertEquals((long)expected.get(0), dto.getHitStartByteIndex());
+        else
+            assertEquals(true, dto.isErrorOccurred());
+    }
+
+    @Test
+    public void testFetchRows_ValidLastRowsOfFile() throws IOException {
+        File testFile = getTestFile1();
+        ByteSource testData = getTestFileData(testFile);
+
+        Model model = new ModelImpl();
+        model.setLastFileLoadedData(testData);
+        model.setCurrentType(DataViewer.DataType.Hex);
+        model.setStartByteIndex(0);
+
+        String testString = "TEST ROW";
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
+                .thenReturn(testString);
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+
+        // Ask for three rows starting one and a half rows before the end of the file.
+        long startByteIndex = testData.size() - 24;
+        RowsDTO dto = controller.fetchRows(startByteIndex, 16, 3, observer);
+
+        assertEquals(false, dto.isErrorOccurred());
+        assertEquals(2, dto.getRows().length);
+        assertEquals(testData.size(), dto.getFileSize());
+        assertEquals(DataViewer.DataType.Hex, dto.getType());
+        assertEquals(0, model.getStartByteIndex());
+        Mockito.verify(pageCache, Mockito.never()).put(any(), any());
+    }
+
+    @Test
+    public void testFetchRows_InvalidNoFile() {
+        Model model = new ModelImpl();
+
+        Controller controller = new ControllerImpl(fileLoader, model, dataViewer, pageCache,
+                pagePrefetcher);
+
+        RowsDTO dto = controller.fetchRows(0, 16, 3, observer);
+
+        assertEquals(true, dto.isErrorOccurred());
+    }
 }
@@ -0,0 +1,105 @@
+package com.fileviewer.dataprocessing;
+
+import com.fileviewer.observer.ProgObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit test for AnalyzerImpl class.
+ */
+public class AnalyzerImplTest {
+    private final static Logger logger = LogManager.getLogger(AnalyzerImplTest.class);
+
+    public AnalyzerImplTest() {
+        logger.debug("Constructing AnalyzerImplTest");
+    }
+
+    private static long[] naiveHistogram(byte[] data, int from, int to) {
+        long[] histogram = new long[256];
+        for (int i = from; i < to; i++)
+            histogram[data[i] & 0xFF]++;
+
+        return histogram;
+    }
+
+    /**
+     * Returns data with sections of random bytes, text and zeros, so that the blocks differ.
+     */
+    private static byte[] getTestData(int length) {
+        byte[] data = new byte[length];
+        new Random(11).nextBytes(data);
+
+        for (int i = length / 3; i < length / 2; i++)
+            data[i] = (byte)('a' + (i % 26));
+
+        Arrays.fill(data, length / 2, (2 * length) / 3, (byte)0);
+
+        return data;
+    }
+
+    @Test
+    public void testAnalyze_MatchesSequentialCount() {
+        byte[] data = getTestData(100_003);
+
+        // Blocks both smaller and larger than a segment, neither dividing it evenly.
+        for (int blockSize : new int[] {300, 2500}) {
+            Analyzer analyzer = new AnalyzerImpl(new ForkJoinPool(4), 1000);
+            ProgObserver observer = Mockito.mock(ProgObserver.class);
+
+            ByteStatistics statistics = analyzer.analyze(new ArrayByteSource(data), blockSize,
+                    observer);
+
+            assertArrayEquals(naiveHistogram(data, 0, data.length), statistics.getHistogram());
+            assertEquals(data.length, statistics.getByteCount());
+            assertEquals(blockSize, statistics.getBlockSize());
+
+            double[] entropies = statistics.getBlockEntropies();
+            assertEquals((data.length + blockSize - 1) / blockSize, entropies.length);
+
+            for (int block = 0; block < entropies.length; block++) {
+                int from = block * blockSize;
+                int to = Math.min(data.length, from + blockSize);
+
+                assertEquals(ByteStatistics.entropy(naiveHistogram(data, from, to)),
+                        entropies[block], 1e-9);
+            }
+
+            Mockito.verify(observer, Mockito.atLeastOnce()).setProgress(data.length,
+                    data.length);
+        }
+    }
+
+    @Test
+    public void testAnalyze_Cancelled() {
+        Analyzer analyzer = new AnalyzerImpl(new ForkJoinPool(2), 100);
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+        Mockito.when(observer.isCancelled()).thenReturn(true);
+
+        assertNull(analyzer.analyze(new ArrayByteSource(new byte[10_000]), 256, observer));
+    }
+
+    @Test
+    public void testEntropy_Bounds() {
+        long[] histogram = new long[256];
+        assertEquals(0, ByteStatistics.entropy(histogram));
+
+        histogram[7] = 1000;
+        assertEquals(0, ByteStatistics.entropy(histogram), 1e-12);
+
+        histogram[8] = 1000;
+        assertEquals(1, ByteStatistics.entropy(histogram), 1e-12);
+
+        Arrays.fill(histogram, 3);
+        assertEquals(8, ByteStatistics.entropy(histogram), 1e-12);
+    }
+}
@@ -6,7 +6,15 @@ import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit test for DataViewerImpl class.
@@ -15,10 +23,10 @@ public class DataViewerImplTest {
 
     private final static Logger logger = LogManager.getLogger(DataViewerImplTest.class);
 
-    private static int[] getMockDataSmall() {
-        int[] data = {33, 35, 36, 34};
+    private static ByteSource getMockDataSmall() {
+        byte[] data = {33, 35, 36, 34};
 
-        return data;
+        return new ArrayByteSource(data);
     }
 
     @Test
@@ -27,7 +35,7 @@ public class DataViewerImplTest {
 
         DataViewer dataViewer = new DataViewerImpl();
 
-        int[] data = getMockDataSmall();
+        ByteSource data = getMockDataSmall();
         DataViewer.DataType type = DataViewer.DataType.Bytes;
         int startByteIndex = 0;
         int endByteIndex = 4;
@@ -44,7 +52,7 @@ public class DataViewerImplTest {
 
         DataViewer dataViewer = new DataViewerImpl();
 
-        int[] data = {'a', 'b', 'f', 'e'};
+        ByteSource data = new ArrayByteSource(new byte[] {'a', 'b', 'f', 'e'});
         DataViewer.DataType type = DataViewer.DataType.Characters;
         int startByteIndex = 0;
         int endByteIndex = 4;
@@ -61,7 +69,7 @@ public class DataViewerImplTest {
 
         DataViewer dataViewer = new DataViewerImpl();
 
-        int[] data = getMockDataSmall();
+        ByteSource data = getMockDataSmall();
         DataViewer.DataType type = DataViewer.DataType.Hex;
         int startByteIndex = 0;
         int endByteIndex = 4;
@@ -78,7 +86,7 @@ public class DataViewerImplTest {
 
         DataViewer dataViewer = new DataViewerImpl();
 
-        int[] data = getMockDataSmall();
+        ByteSource data = getMockDataSmall();
         DataViewer.DataType type = DataViewer.DataType.UTF8Characters;
         int startByteIndex = 0;
         int endByteIndex = 4;
@@ -95,7 +103,7 @@ public class DataViewerImplTest {
 
         DataViewer dataViewer = new DataViewerImpl();
 
-        int[] data = getMockDataSmall();
+        ByteSource data = getMockDataSmall();
         DataViewer.DataType type = DataViewer.DataType.UTF8Bytes;
         int startByteIndex = 0;
         int endByteIndex = 4;
@@ -112,7 +120,7 @@ public class DataViewerImplTest {
 
         DataViewer dataViewer = new DataViewerImpl();
 
-        int[] data = getMockDataSmall();
+        ByteSource data = getMockDataSmall();
         DataViewer.DataType type = DataViewer.DataType.UTF16Characters;
         int startByteIndex = 0;
         int endByteIndex = 4;
@@ -129,7 +137,7 @@ public class DataViewerImplTest {
 
         DataViewer dataViewer = new DataViewerImpl();
 
-        int[] data = getMockDataSmall();
+        ByteSource data = getMockDataSmall();
         DataViewer.DataType type = DataViewer.DataType.UTF16Bytes;
         int startByteIndex = 0;
         int endByteIndex = 4;
@@ -139,4 +147,242 @@ public class DataViewerImplTest {
 
         assertEquals("8483 9250 ", result);
     }
+
+    private static ByteSource getAllByteValues() {
+        byte[] data = new byte[256];
+        for (int i = 0; i < data.length; i++)
+            data[i] = (byte)i;
+
+        return new ArrayByteSource(data);
+    }
+
+    @Test
+    public void testDisplayData_HexMatchesFormatForAllBytes() {
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+
+        DataViewer dataViewer = new DataViewerImpl();
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 256; i++)
+            expected.append(String.format("%02x ", i));
+
+        String result = dataViewer.fetchDisplayData(getAllByteValues(), observer,
+                DataViewer.DataType.Hex, 0, 256);
+
+        assertEquals(expected.toString(), result);
+    }
+
+    @Test
+    public void testDisplayData_BytesMatchesAppendForAllBytes() {
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+
+        DataViewer dataViewer = new DataViewerImpl();
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 256; i++)
+            expected.append(i).append(" ");
+
+        String result = dataViewer.fetchDisplayData(getAllByteValues(), observer,
+                DataViewer.DataType.Bytes, 0, 256);
+
+        assertEquals(expected.toString(), result);
+    }
+
+    @Test
+    public void testDisplayData_CharsMatchesToStringForAllBytes() {
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+
+        DataViewer dataViewer = new DataViewerImpl();
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 256; i++)
+            expected.append(Character.toString(i));
+
+        String result = dataViewer.fetchDisplayData(getAllByteValues(), observer,
+                DataViewer.DataType.Characters, 0, 256);
+
+        assertEquals(expected.toString(), result);
+    }
+
+    @Test
+    public void testWriteDecimal_MatchesAppendForCodeUnits() {
+        char[] output = new char[6];
+
+        for (int value : new int[] {0, 9, 10, 99, 100, 255, 256, 999, 1000, 8483, 65535}) {
+            int length = ValueRenderer.writeDecimal(value, output, 0);
+
+            assertEquals(value + " ", new String(output, 0, length));
+        }
+    }
+
+    @Test
+    public void testDisplayData_Cancelled() {
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+        Mockito.when(observer.isCancelled()).thenReturn(true);
+
+        DataViewer dataViewer = new DataViewerImpl();
+
+        ByteSource data = new ArrayByteSource(new byte[100000]);
+
+        assertNull(dataViewer.fetchDisplayData(data, observer, DataViewer.DataType.Hex, 0,
+                100000));
+        assertNull(dataViewer.fetchDisplayData(data, observer,
+                DataViewer.DataType.UTF8Characters, 0, 100000));
+    }
+
+    /**
+     * Renders the data one small page at a time, as paging through the file would.
+     */
+    private static String renderInPages(ByteSource data, DataViewer.DataType type, int pageSize) {
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+
+        DataViewer dataViewer = new DataViewerImpl();
+
+        StringBuilder result = new StringBuilder();
+        for (long start = 0; start < data.size(); start += pageSize) {
+            result.append(dataViewer.fetchDisplayData(data, observer, type, start,
+                    start + pageSize));
+        }
+
+        return result.toString();
+    }
+
+    @Test
+    public void testDisplayData_UTF8CharPageBoundaries() {
+        // One, two, three and four byte sequences.
+        String text = "a\u00e9\u20ac\ud83d\ude00b\u00e9\ud83d\ude00";
+        ByteSource data = new ArrayByteSource(text.getBytes(StandardCharsets.UTF_8));
+
+        for (int pageSize = 1; pageSize <= 5; pageSize++)
+            assertEquals(text, renderInPages(data, DataViewer.DataType.UTF8Characters, pageSize));
+    }
+
+    @Test
+    public void testDisplayData_UTF16CharPageBoundaries() {
+        // Little endian with a byte order mark, including a surrogate pair.
+        String text = "ab\ud83d\ude00c\u20ac";
+        byte[] textBytes = text.getBytes(StandardCharsets.UTF_16LE);
+
+        byte[] bytes = new byte[textBytes.length + 2];
+        bytes[0] = (byte)0xFF;
+        bytes[1] = (byte)0xFE;
+        System.arraycopy(textBytes, 0, bytes, 2, textBytes.length);
+
+        ByteSource data = new ArrayByteSource(bytes);
+
+        for (int pageSize = 1; pageSize <= 5; pageSize++)
+            assertEquals(text, renderInPages(data, DataViewer.DataType.UTF16Characters, pageSize));
+    }
+
+    @Test
+    public void testDisplayData_UTF16CodePageBoundaries() {
+        String text = "a\ud83d\ude00";
+        ByteSource data = new ArrayByteSource(text.getBytes(StandardCharsets.UTF_16BE));
+
+        assertEquals("97 55357 56832 ", renderInPages(data, DataViewer.DataType.UTF16Bytes, 3));
+    }
+
+    @Test
+    public void testStreamDisplayData_MatchesFetchInChunks() {
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+
+        DataViewer dataViewer = new DataViewerImpl();
+
+        byte[] bytes = new byte[50000];
+        new Random(7).nextBytes(bytes);
+        ByteSource data = new ArrayByteSource(bytes);
+
+        for (DataViewer.DataType type : DataViewer.DataType.values()) {
+            List<String> chunks = new ArrayList<>();
+
+            assertTrue(dataViewer.streamDisplayData(data, observer, type, 0, bytes.length,
+                    chunks::add));
+
+            assertTrue(chunks.size() > 1);
+            assertEquals(dataViewer.fetchDisplayData(data, observer, type, 0, bytes.length),
+                    String.join("", chunks));
+        }
+    }
+
+    @Test
+    public void testStreamDisplayData_Cancelled() {
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+        Mockito.when(observer.isCancelled()).thenReturn(true);
+
+        DataViewer dataViewer = new DataViewerImpl();
+
+        ByteSource data = new ArrayByteSource(new byte[100000]);
+        List<String> chunks = new ArrayList<>();
+
+        assertFalse(dataViewer.streamDisplayData(data, observer, DataViewer.DataType.Hex, 0,
+                100000, chunks::add));
+        assertTrue(chunks.isEmpty());
+    }
+
+    @Test
+    public void testLocateCharacters_MatchesRenderedText() {
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+        DataViewer dataViewer = new DataViewerImpl();
+
+        ByteSource data = new ArrayByteSource("a7\u00e9b\u20ac\ud834\udd1ez"
+                .getBytes(StandardCharsets.UTF_8));
+        long[] offsets = {1, 2, 4, 5, 8, 12, data.size()};
+
+        // Each offset falls where the text rendered from the bytes before it ends.
+        for (DataViewer.DataType type : new DataViewer.DataType[] {DataViewer.DataType.Bytes,
+                DataViewer.DataType.Hex, DataViewer.DataType.Characters,
+                DataViewer.DataType.UTF8Bytes, DataViewer.DataType.UTF8Characters}) {
+            int[] indices = dataViewer.locateCharacters(data, type, 0, offsets);
+
+            for (int i = 0; i < offsets.length; i++) {
+                assertEquals(dataViewer.fetchDisplayData(data, observer, type, 0, offsets[i])
+                        .length(), indices[i], type + " at " + offsets[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testLocateCharacters_MatchesRenderedMalformedText() {
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+        DataViewer dataViewer = new DataViewerImpl();
+
+        // A truncated euro sign, a byte which never starts a sequence, and a truncated four
+        // byte sequence, each of which renders as a single replacement character.
+        ByteSource data = new ArrayByteSource(new byte[] {(byte)0xE2, (byte)0x82, 'A', 'B',
+                'C', (byte)0xFF, 'D', (byte)0xF0, (byte)0x9F, (byte)0x98, 'E', (byte)0xE2,
+                (byte)0x82, (byte)0xAC, 'F'});
+
+        long[] offsets = new long[(int)data.size() + 1];
+        for (int i = 0; i < offsets.length; i++)
+            offsets[i] = i;
+
+        for (DataViewer.DataType type : new DataViewer.DataType[] {
+                DataViewer.DataType.UTF8Bytes, DataViewer.DataType.UTF8Characters}) {
+            int[] indices = dataViewer.locateCharacters(data, type, 0, offsets);
+
+            for (int i = 0; i < offsets.length; i++) {
+                assertEquals(dataViewer.fetchDisplayData(data, observer, type, 0, offsets[i])
+                        .length(), indices[i], type + " at " + offsets[i]);
+            }
+        }
+
+        // The 'B' at offset 3 follows a single replacement character and the 'A'.
+        assertEquals("\uFFFDABC", dataViewer.fetchDisplayData(data, observer,
+                DataViewer.DataType.UTF8Characters, 0, 5));
+        assertEquals(2, dataViewer.locateCharacters(data, DataViewer.DataType.UTF8Characters,
+                0, new long[] {3})[0]);
+    }
+
+    @Test
+    public void testAlignStartIndex() {
+        DataViewer dataViewer = new DataViewerImpl();
+
+        // 'a', then the three byte sequence for the euro sign, then 'b'.
+        ByteSource data = new ArrayByteSource("a\u20acb".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(2, dataViewer.alignStartIndex(data, DataViewer.DataType.Hex, 2));
+        assertEquals(1, dataViewer.alignStartIndex(data, DataViewer.DataType.UTF8Characters, 1));
+        assertEquals(4, dataViewer.alignStartIndex(data, DataViewer.DataType.UTF8Characters, 2));
+        assertEquals(4, dataViewer.alignStartIndex(data, DataViewer.DataType.UTF8Bytes, 3));
+    }
 }
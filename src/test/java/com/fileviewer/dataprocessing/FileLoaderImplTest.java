@@ -1,18 +1,28 @@
 package com.fileviewer.dataprocessing;
 
 import com.fileviewer.observer.ProgObserver;
+import com.fileviewer.observer.ProgObserverFactoryImpl;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
 
 /**
  * Unit test for FileLoaderImpl class.
@@ -24,6 +34,21 @@ public class FileLoaderImplTest {
         logger.debug("Constructing FileLoaderImplTest");
     }
 
+    @TempDir
+    File tempDir;
+
+    /**
+     * Writes a file of random bytes spanning several load blocks, with a partial final block.
+     */
+    private File getLargeTestFile(byte[] data) throws IOException {
+        new Random(42).nextBytes(data);
+
+        File file = new File(tempDir, "large.bin");
+        Files.write(file.toPath(), data);
+
+        return file;
+    }
+
     private File getTestFile1() {
         String path = "." + File.separator + "src" + File.separator + "test" + File.separator
                 + "resources" + File.separator + "testfile1.txt";
@@ -39,28 +64,156 @@ public class FileLoaderImplTest {
 
         FileLoader fileLoader = new FileLoaderImpl();
 
-        int[] result = fileLoader.loadFile(testFile, progObserver);
+        ByteSource result = fileLoader.loadFile(testFile, progObserver);
 
-        assertEquals(testFile.length(), result.length);
+        assertEquals(testFile.length(), result.size());
+
+        byte[] resultBytes = new byte[(int)result.size()];
+        assertEquals(resultBytes.length, result.readFully(0, resultBytes, 0, resultBytes.length));
 
         BufferedInputStream fis = new BufferedInputStream(new FileInputStream(testFile));
         for (int i = 0; i < testFile.length(); i++) {
-            assertEquals(fis.read(), result[i]);
+            assertEquals(fis.read(), resultBytes[i] & 0xFF);
+        }
+
+        fis.close();
+        result.close();
+    }
+
+    @Test
+    public void loadFileTest_ValidFileLazy() throws IOException {
+        File testFile = getTestFile1();
+
+        ProgObserver progObserver = Mockito.mock(ProgObserver.class);
+
+        FileLoader fileLoader = new FileLoaderImpl(FileLoader.LoadMode.LAZY);
+
+        ByteSource result = fileLoader.loadFile(testFile, progObserver);
+
+        assertEquals(testFile.length(), result.size());
+
+        // Read a window from the middle of the file, as a page change would.
+        int start = 100;
+        byte[] resultBytes = new byte[50];
+        int count = result.readFully(start, resultBytes, 0, resultBytes.length);
+        assertEquals(resultBytes.length, count);
+
+        BufferedInputStream fis = new BufferedInputStream(new FileInputStream(testFile));
+        fis.skip(start);
+        for (int i = 0; i < resultBytes.length; i++) {
+            assertEquals(fis.read(), resultBytes[i] & 0xFF);
         }
 
         fis.close();
+        result.close();
+    }
+
+    @Test
+    public void loadFileTest_ValidFileBulk() throws IOException {
+        byte[] expected = new byte[(9 * 1024 * 1024) + 123];
+        File testFile = getLargeTestFile(expected);
+
+        ProgObserver progObserver = Mockito.mock(ProgObserver.class);
+
+        FileLoader fileLoader = new FileLoaderImpl(FileLoader.LoadMode.BULK);
+
+        ByteSource result = fileLoader.loadFile(testFile, progObserver);
+
+        assertEquals(expected.length, result.size());
+
+        byte[] resultBytes = new byte[(int)result.size()];
+        result.readFully(0, resultBytes, 0, resultBytes.length);
+
+        assertArrayEquals(expected, resultBytes);
+
+        // Progress is reported once per 4 MB block plus once on completion, not once per byte.
+        Mockito.verify(progObserver, Mockito.times(3)).setProgress(anyLong(),
+                Mockito.eq((long)expected.length));
+        Mockito.verify(progObserver, Mockito.times(1)).setPercentage(anyDouble());
+
+        result.close();
+    }
+
+    @Test
+    public void loadFileTest_ValidFileParallel() throws IOException {
+        byte[] expected = new byte[(9 * 1024 * 1024) + 123];
+        File testFile = getLargeTestFile(expected);
+
+        ProgObserver progObserver = Mockito.mock(ProgObserver.class);
+
+        FileLoader fileLoader = new FileLoaderImpl(FileLoader.LoadMode.PARALLEL);
+
+        ByteSource result = fileLoader.loadFile(testFile, progObserver);
+
+        assertEquals(expected.length, result.size());
+
+        byte[] resultBytes = new byte[(int)result.size()];
+        result.readFully(0, resultBytes, 0, resultBytes.length);
+
+        assertArrayEquals(expected, resultBytes);
+
+        result.close();
+    }
+
+    @Test
+    public void loadFileTest_ValidFileProgressive() throws Exception {
+        byte[] expected = new byte[(9 * 1024 * 1024) + 123];
+        File testFile = getLargeTestFile(expected);
+
+        ProgObserver progObserver = Mockito.mock(ProgObserver.class);
+
+        FileLoader fileLoader = new FileLoaderImpl(FileLoader.LoadMode.PROGRESSIVE,
+                new ProgObserverFactoryImpl(Runnable::run));
+
+        ByteSource result = fileLoader.loadFile(testFile, progObserver);
+
+        assertEquals(expected.length, result.size());
+
+        // Reads are served whether or not the loader has reached them yet.
+        byte[] resultBytes = new byte[(int)result.size()];
+        result.readFully(0, resultBytes, 0, resultBytes.length);
+
+        assertArrayEquals(expected, resultBytes);
+
+        CountDownLatch loaded = new CountDownLatch(1);
+        result.getLoadProgress().addListener(observer -> {
+                if (observer.isFinished())
+                    loaded.countDown();
+            });
+
+        assertTrue(loaded.await(10, TimeUnit.SECONDS));
+        assertEquals(expected.length, result.getAvailableBytes());
+
+        result.readFully(0, resultBytes, 0, resultBytes.length);
+        assertArrayEquals(expected, resultBytes);
+
+        result.close();
+    }
+
+    @Test
+    public void loadFileTest_CancelledParallel() throws IOException {
+        File testFile = getLargeTestFile(new byte[(9 * 1024 * 1024) + 123]);
+
+        ProgObserver progObserver = Mockito.mock(ProgObserver.class);
+        Mockito.when(progObserver.isCancelled()).thenReturn(true);
+
+        FileLoader fileLoader = new FileLoaderImpl(FileLoader.LoadMode.PARALLEL);
+
+        ByteSource result = fileLoader.loadFile(testFile, progObserver);
+
+        assertNull(result);
+        Mockito.verify(progObserver, Mockito.never()).setPercentage(anyDouble());
     }
 
     @Test
-    public void loadFileTest_InvalidFileTooLarge() {
-        File testFile = Mockito.mock(File.class);
-        Mockito.when(testFile.length()).thenReturn(((long)Integer.MAX_VALUE + 1));
+    public void loadFileTest_InvalidFileMissing() {
+        File testFile = new File(getTestFile1().getPath() + ".missing");
 
         ProgObserver progObserver = Mockito.mock(ProgObserver.class);
 
         FileLoader fileLoader = new FileLoaderImpl();
 
-        int[] result = fileLoader.loadFile(testFile, progObserver);
+        ByteSource result = fileLoader.loadFile(testFile, progObserver);
 
         assertNull(result);
     }
@@ -0,0 +1,101 @@
+package com.fileviewer.dataprocessing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for HitIndex class.
+ */
+public class HitIndexTest {
+    private final static Logger logger = LogManager.getLogger(HitIndexTest.class);
+
+    public HitIndexTest() {
+        logger.debug("Constructing HitIndexTest");
+    }
+
+    /**
+     * Hits of length 4 at 10, 20, 30 and 40, added out of order as a parallel search would.
+     */
+    private static HitIndex getTestIndex() {
+        HitIndex hits = new HitIndex();
+        hits.add(30, 34);
+        hits.add(10, 14);
+        hits.add(40, 44);
+        hits.add(20, 24);
+
+        return hits;
+    }
+
+    @Test
+    public void testNextAndPrevious() {
+        HitIndex hits = getTestIndex();
+
+        assertEquals(4, hits.size());
+        assertEquals(10, hits.next(0));
+        assertEquals(20, hits.next(10));
+        assertEquals(20, hits.next(15));
+        assertEquals(-1, hits.next(40));
+
+        assertEquals(30, hits.previous(40));
+        assertEquals(30, hits.previous(35));
+        assertEquals(-1, hits.previous(10));
+
+        assertEquals(2, hits.countBefore(30));
+    }
+
+    @Test
+    public void testGetOverlapping() {
+        HitIndex hits = getTestIndex();
+
+        // Hits cut by either end of the range are included.
+        assertArrayEquals(new long[] {10, 14, 20, 24}, hits.getOverlapping(12, 22));
+        assertArrayEquals(new long[] {30, 34}, hits.getOverlapping(25, 31));
+        assertArrayEquals(new long[0], hits.getOverlapping(14, 20));
+        assertArrayEquals(new long[0], hits.getOverlapping(50, 60));
+    }
+
+    @Test
+    public void testAdd_GrowsPastInitialCapacity() {
+        HitIndex hits = new HitIndex();
+        for (long i = 4999; i >= 0; i--)
+            hits.add(i * 2, (i * 2) + 1);
+
+        assertEquals(5000, hits.size());
+        assertEquals(4000, hits.next(3998));
+        assertArrayEquals(new long[] {9998, 9999}, hits.getOverlapping(9998, 10_000));
+    }
+
+    @Test
+    public void testAdd_KeepsFirstHitsInOffsetOrderWhenFull() {
+        HitIndex hits = new HitIndex(4);
+
+        // Later hits arrive first, as the segments of a parallel search finish out of order.
+        for (long i = 19; i >= 0; i--)
+            hits.add(i * 10, (i * 10) + 4);
+
+        assertEquals(4, hits.size());
+        assertTrue(hits.isTruncated());
+        assertArrayEquals(new long[] {0, 10, 20, 30}, hits.getStarts());
+        assertEquals(-1, hits.next(30));
+
+        // Hits beyond the last one kept are dropped without being indexed.
+        hits.add(100, 104);
+        assertArrayEquals(new long[] {0, 10, 20, 30}, hits.getStarts());
+    }
+
+    @Test
+    public void testIsTruncated_FalseWhenEveryHitFits() {
+        HitIndex hits = new HitIndex(4);
+        hits.add(30, 34);
+        hits.add(0, 4);
+
+        assertFalse(hits.isTruncated());
+        assertArrayEquals(new long[] {0, 30}, hits.getStarts());
+    }
+}
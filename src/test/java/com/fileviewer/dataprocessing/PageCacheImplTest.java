@@ -0,0 +1,92 @@
+package com.fileviewer.dataprocessing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit test for PageCacheImpl class.
+ */
+public class PageCacheImplTest {
+    private final static Logger logger = LogManager.getLogger(PageCacheImplTest.class);
+
+    public PageCacheImplTest() {
+        logger.debug("Constructing PageCacheImplTest");
+    }
+
+    private static ByteSource getMockData() {
+        return new ArrayByteSource(new byte[100]);
+    }
+
+    @Test
+    public void testGet_HitAndMiss() {
+        ByteSource data = getMockData();
+        PageCache pageCache = new PageCacheImpl(100);
+
+        PageKey hexKey = new PageKey(data, DataViewer.DataType.Hex, 0, 10);
+        PageKey bytesKey = new PageKey(data, DataViewer.DataType.Bytes, 0, 10);
+
+        pageCache.put(hexKey, "HEX PAGE");
+
+        assertEquals("HEX PAGE", pageCache.get(new PageKey(data, DataViewer.DataType.Hex, 0, 10)));
+        assertNull(pageCache.get(bytesKey));
+
+        assertEquals(1, pageCache.getHitCount());
+        assertEquals(1, pageCache.getMissCount());
+    }
+
+    @Test
+    public void testGet_DifferentSourceMisses() {
+        PageCache pageCache = new PageCacheImpl(100);
+
+        pageCache.put(new PageKey(getMockData(), DataViewer.DataType.Hex, 0, 10), "HEX PAGE");
+
+        assertNull(pageCache.get(new PageKey(getMockData(), DataViewer.DataType.Hex, 0, 10)));
+    }
+
+    @Test
+    public void testPut_EvictsLeastRecentlyUsed() {
+        ByteSource data = getMockData();
+        PageCache pageCache = new PageCacheImpl(10);
+
+        PageKey firstKey = new PageKey(data, DataViewer.DataType.Characters, 0, 10);
+        PageKey secondKey = new PageKey(data, DataViewer.DataType.Characters, 10, 10);
+        PageKey thirdKey = new PageKey(data, DataViewer.DataType.Characters, 20, 10);
+
+        pageCache.put(firstKey, "AAAA");
+        pageCache.put(secondKey, "BBBB");
+
+        // Use the first page so that the second becomes the least recently used.
+        pageCache.get(firstKey);
+
+        pageCache.put(thirdKey, "CCCC");
+
+        assertEquals("AAAA", pageCache.get(firstKey));
+        assertNull(pageCache.get(secondKey));
+        assertEquals("CCCC", pageCache.get(thirdKey));
+    }
+
+    @Test
+    public void testPut_PageLargerThanBudgetNotCached() {
+        PageCache pageCache = new PageCacheImpl(3);
+        PageKey key = new PageKey(getMockData(), DataViewer.DataType.Characters, 0, 10);
+
+        pageCache.put(key, "AAAA");
+
+        assertNull(pageCache.get(key));
+    }
+
+    @Test
+    public void testClear() {
+        PageCache pageCache = new PageCacheImpl(100);
+        PageKey key = new PageKey(getMockData(), DataViewer.DataType.Characters, 0, 10);
+
+        pageCache.put(key, "AAAA");
+        pageCache.clear();
+
+        assertNull(pageCache.get(key));
+    }
+}
@@ -0,0 +1,85 @@
+package com.fileviewer.dataprocessing;
+
+import com.fileviewer.observer.ProgObserverFactory;
+import com.fileviewer.observer.ProgObserverFactoryImpl;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * Unit test for PagePrefetcherImpl class.
+ */
+public class PagePrefetcherImplTest {
+    private final static Logger logger = LogManager.getLogger(PagePrefetcherImplTest.class);
+
+    public PagePrefetcherImplTest() {
+        logger.debug("Constructing PagePrefetcherImplTest");
+    }
+
+    @Test
+    public void testPrefetchNeighbours_CachesNextPage() throws Exception {
+        ByteSource data = new ArrayByteSource(new byte[100]);
+        DataViewer dataViewer = Mockito.mock(DataViewer.class);
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
+                .thenReturn("NEXT PAGE");
+
+        PageCache pageCache = Mockito.mock(PageCache.class);
+        ProgObserverFactory progObserverFactory = new ProgObserverFactoryImpl(Runnable::run);
+        PagePrefetcher pagePrefetcher = new PagePrefetcherImpl(dataViewer, progObserverFactory,
+                pageCache);
+
+        pagePrefetcher.prefetchNeighbours(data, DataViewer.DataType.Hex, 0, 10);
+
+        // Only the next page is prefetched from the start of the file.
+        Mockito.verify(pageCache, Mockito.timeout(5000))
+                .put(new PageKey(data, DataViewer.DataType.Hex, 10, 10), "NEXT PAGE");
+    }
+
+    @Test
+    public void testCancelAll_DropsPagesFinishedAfterCancel() throws Exception {
+        ByteSource data = new ArrayByteSource(new byte[100]);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // The render ignores cancellation, as one which is nearly complete would.
+        DataViewer dataViewer = Mockito.mock(DataViewer.class);
+        Mockito.when(dataViewer.fetchDisplayData(any(), any(), any(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> {
+                        if (started.getCount() == 0)
+                            return "FRESH PAGE";
+
+                        started.countDown();
+                        release.await(5, TimeUnit.SECONDS);
+
+                        return "STALE PAGE";
+                    });
+
+        PageCache pageCache = Mockito.mock(PageCache.class);
+        ProgObserverFactory progObserverFactory = new ProgObserverFactoryImpl(Runnable::run);
+        PagePrefetcher pagePrefetcher = new PagePrefetcherImpl(dataViewer, progObserverFactory,
+                pageCache);
+
+        pagePrefetcher.prefetchNeighbours(data, DataViewer.DataType.Hex, 0, 10);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        pagePrefetcher.cancelAll();
+        pageCache.clear();
+        release.countDown();
+
+        // Prefetches run one at a time, so the stale one has finished once a later one is cached.
+        pagePrefetcher.prefetchNeighbours(data, DataViewer.DataType.Hex, 50, 10);
+        Mockito.verify(pageCache, Mockito.timeout(5000).atLeastOnce())
+                .put(any(), Mockito.eq("FRESH PAGE"));
+
+        Mockito.verify(pageCache, Mockito.never()).put(any(), Mockito.eq("STALE PAGE"));
+    }
+}
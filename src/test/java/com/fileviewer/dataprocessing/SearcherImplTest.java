@@ -0,0 +1,219 @@
+package com.fileviewer.dataprocessing;
+
+import com.fileviewer.observer.ProgObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for SearcherImpl class.
+ */
+public class SearcherImplTest {
+    private final static Logger logger = LogManager.getLogger(SearcherImplTest.class);
+
+    public SearcherImplTest() {
+        logger.debug("Constructing SearcherImplTest");
+    }
+
+    private static List<Long> naiveFind(byte[] data, byte[] pattern) {
+        List<Long> hits = new ArrayList<>();
+
+        for (int i = 0; i + pattern.length <= data.length; i++) {
+            int j = 0;
+            while (j < pattern.length && data[i + j] == pattern[j])
+                j++;
+
+            if (j == pattern.length)
+                hits.add((long)i);
+        }
+
+        return hits;
+    }
+
+    private static List<Long> find(Searcher searcher, byte[] data, byte[] pattern,
+            ProgObserver observer) {
+        List<Long> hits = Collections.synchronizedList(new ArrayList<>());
+
+        long hitCount = searcher.findBytes(new ArrayByteSource(data), pattern, observer,
+                (start, end) -> {
+                    assertEquals(start + pattern.length, end);
+                    hits.add(start);
+                });
+
+        assertEquals(hits.size(), hitCount);
+        Collections.sort(hits);
+
+        return hits;
+    }
+
+    @Test
+    public void testFindBytes_MatchesStraddlingSegments() {
+        byte[] data = new byte[100_000];
+        new Random(7).nextBytes(data);
+
+        byte[] pattern = {(byte)0xCA, (byte)0xFE, (byte)0xBA, (byte)0xBE};
+
+        // Plant the pattern every 97 bytes, so that many copies straddle segment boundaries,
+        // and at the very end.
+        for (int offset = 0; offset + pattern.length <= data.length; offset += 97)
+            System.arraycopy(pattern, 0, data, offset, pattern.length);
+        System.arraycopy(pattern, 0, data, data.length - pattern.length, pattern.length);
+
+        Searcher searcher = new SearcherImpl(new ForkJoinPool(4), 1000, 1000, 100);
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+
+        List<Long> hits = find(searcher, data, pattern, observer);
+
+        assertEquals(naiveFind(data, pattern), hits);
+        assertTrue(hits.contains((long)data.length - pattern.length));
+        Mockito.verify(observer).setProgress(data.length, data.length);
+    }
+
+    @Test
+    public void testFindBytes_OverlappingAndSingleByteMatches() {
+        byte[] data = "xAAAAyAAzA".getBytes();
+
+        Searcher searcher = new SearcherImpl(new ForkJoinPool(2), 3, 3, 16);
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+
+        assertEquals(List.of(1L, 2L), find(searcher, data, "AAA".getBytes(), observer));
+        assertEquals(naiveFind(data, "A".getBytes()),
+                find(searcher, data, "A".getBytes(), observer));
+        assertEquals(List.of(), find(searcher, data, "xAAAAyAAzAx".getBytes(), observer));
+    }
+
+    @Test
+    public void testFindBytes_Cancelled() {
+        byte[] data = new byte[10_000];
+
+        Searcher searcher = new SearcherImpl(new ForkJoinPool(2), 100, 100, 10);
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+        Mockito.when(observer.isCancelled()).thenReturn(true);
+
+        assertEquals(-1, searcher.findBytes(new ArrayByteSource(data), new byte[] {0},
+                observer, (start, end) -> { }));
+    }
+
+    private static List<Long> findText(Searcher searcher, byte[] data,
+            DataViewer.DataType type, Pattern pattern) {
+        List<Long> hits = new ArrayList<>();
+
+        long hitCount = searcher.findText(new ArrayByteSource(data), type, pattern,
+                Mockito.mock(ProgObserver.class), (start, end) -> hits.add(start));
+
+        assertEquals(hits.size(), hitCount);
+
+        return hits;
+    }
+
+    @Test
+    public void testFindText_Utf8AcrossWindows() {
+        String text = "h\u00e9llo w\u00f6rld, \ud834\udd1e h\u00e9llo again, h\u00e9llo";
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+
+        // Windows of a few bytes split multibyte characters and matches.
+        Searcher searcher = new SearcherImpl(new ForkJoinPool(1), 100, 5, 8);
+
+        List<Long> expected = new ArrayList<>();
+        for (int i = text.indexOf("h\u00e9llo"); i >= 0; i = text.indexOf("h\u00e9llo", i + 1))
+            expected.add((long)text.substring(0, i).getBytes(StandardCharsets.UTF_8).length);
+
+        assertEquals(expected, findText(searcher, data, DataViewer.DataType.UTF8Characters,
+                Pattern.compile("h\u00e9llo", Pattern.LITERAL)));
+
+        long clef = text.substring(0, text.indexOf("\ud834\udd1e"))
+                .getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(List.of(clef), findText(searcher, data, DataViewer.DataType.UTF8Characters,
+                Pattern.compile("\ud834\udd1e h")));
+    }
+
+    @Test
+    public void testFindText_RegexMatchesDoNotOverlap() {
+        byte[] data = "aaaaaaa-bb-aaa".getBytes(StandardCharsets.ISO_8859_1);
+
+        Searcher searcher = new SearcherImpl(new ForkJoinPool(1), 100, 3, 4);
+
+        // The same as a single pass of the whole text: "aa" at 0, 2 and 4, then 11.
+        assertEquals(List.of(0L, 2L, 4L, 11L), findText(searcher, data,
+                DataViewer.DataType.Characters, Pattern.compile("aa")));
+
+        // Empty matches are not reported.
+        assertEquals(List.of(8L), findText(searcher, data, DataViewer.DataType.Characters,
+                Pattern.compile("b*")));
+    }
+
+    @Test
+    public void testFindText_Utf16WithByteOrderMark() {
+        String text = "one two one";
+        byte[] encoded = text.getBytes(StandardCharsets.UTF_16LE);
+
+        byte[] data = new byte[encoded.length + 2];
+        data[0] = (byte)0xFF;
+        data[1] = (byte)0xFE;
+        System.arraycopy(encoded, 0, data, 2, encoded.length);
+
+        Searcher searcher = new SearcherImpl(new ForkJoinPool(1), 100, 7, 6);
+
+        assertEquals(List.of(2L, 18L), findText(searcher, data,
+                DataViewer.DataType.UTF16Characters, Pattern.compile("one")));
+    }
+
+    @Test
+    public void testRefineBytes_ChecksOnlyCandidates() {
+        byte[] data = "ab abc abd xabc".getBytes(StandardCharsets.ISO_8859_1);
+
+        Searcher searcher = new SearcherImpl();
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+
+        // The hits of "ab", moved back by the position of "ab" in "xab".
+        List<Long> hits = new ArrayList<>();
+        long hitCount = searcher.refineBytes(new ArrayByteSource(data),
+                new long[] {-1, 2, 6, 11}, "xab".getBytes(StandardCharsets.ISO_8859_1),
+                observer, (start, end) -> hits.add(start));
+
+        assertEquals(List.of(11L), hits);
+        assertEquals(1, hitCount);
+        Mockito.verify(observer).setProgress(4, 4);
+
+        // The hits of "ab" narrowed to "abc", without the unchecked match at 0.
+        hits.clear();
+        searcher.refineBytes(new ArrayByteSource(data), new long[] {3, 7, 12},
+                "abc".getBytes(StandardCharsets.ISO_8859_1), observer,
+                (start, end) -> hits.add(start));
+
+        assertEquals(List.of(3L, 12L), hits);
+    }
+
+    @Test
+    public void testRefineText_MatchesFindText() {
+        String text = "h\u00e9 h\u00e9l h\u00e9llo, \ud834\udd1e h\u00e9llo h\u00e9lloh\u00e9llo";
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+
+        Searcher searcher = new SearcherImpl();
+        ByteSource source = new ArrayByteSource(data);
+
+        List<Long> candidates = findText(searcher, data, DataViewer.DataType.UTF8Characters,
+                Pattern.compile("h\u00e9", Pattern.LITERAL));
+
+        List<Long> hits = new ArrayList<>();
+        long hitCount = searcher.refineText(source, DataViewer.DataType.UTF8Characters,
+                candidates.stream().mapToLong(Long::longValue).toArray(), "h\u00e9llo",
+                Mockito.mock(ProgObserver.class), (start, end) -> hits.add(start));
+
+        assertEquals(findText(searcher, data, DataViewer.DataType.UTF8Characters,
+                Pattern.compile("h\u00e9llo", Pattern.LITERAL)), hits);
+        assertEquals(4, hitCount);
+    }
+}
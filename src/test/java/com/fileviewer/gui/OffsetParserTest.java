@@ -0,0 +1,46 @@
+package com.fileviewer.gui;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for OffsetParser class.
+ */
+public class OffsetParserTest {
+    private static final Logger logger = LogManager.getLogger(OffsetParserTest.class);
+
+    public OffsetParserTest() {
+        logger.debug("Constructing OffsetParserTest");
+    }
+
+    @Test
+    public void testParse_Valid() {
+        assertEquals(800000000L, OffsetParser.parse("800,000,000"));
+        assertEquals(0x1F4L, OffsetParser.parse(" 0x1f4 "));
+        assertEquals(0xFFL, OffsetParser.parse("0XFF"));
+        assertEquals(100L, OffsetParser.parse("+100"));
+        assertEquals(-0x10L, OffsetParser.parse("-0x10"));
+        assertEquals(1234567L, OffsetParser.parse("1_234 567"));
+    }
+
+    @Test
+    public void testParse_Invalid() {
+        assertThrows(NumberFormatException.class, () -> OffsetParser.parse(""));
+        assertThrows(NumberFormatException.class, () -> OffsetParser.parse("0x"));
+        assertThrows(NumberFormatException.class, () -> OffsetParser.parse("--5"));
+        assertThrows(NumberFormatException.class, () -> OffsetParser.parse("12ab"));
+    }
+
+    @Test
+    public void testIsRelative() {
+        assertTrue(OffsetParser.isRelative(" +10"));
+        assertTrue(OffsetParser.isRelative("-0x10"));
+        assertFalse(OffsetParser.isRelative("0x10"));
+    }
+}
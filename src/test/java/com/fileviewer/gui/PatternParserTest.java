@@ -0,0 +1,39 @@
+package com.fileviewer.gui;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for PatternParser class.
+ */
+public class PatternParserTest {
+    private static final Logger logger = LogManager.getLogger(PatternParserTest.class);
+
+    public PatternParserTest() {
+        logger.debug("Constructing PatternParserTest");
+    }
+
+    @Test
+    public void testParseHex_Valid() {
+        byte[] expected = {(byte)0xDE, (byte)0xAD, (byte)0xBE, (byte)0xEF};
+
+        assertArrayEquals(expected, PatternParser.parseHex("DE AD BE EF"));
+        assertArrayEquals(expected, PatternParser.parseHex(" 0xdeadbeef "));
+        assertArrayEquals(expected, PatternParser.parseHex("de:ad:be:ef"));
+        assertArrayEquals(expected, PatternParser.parseHex("0xDE, 0xAD, 0xBE, 0xEF"));
+        assertArrayEquals(new byte[] {0x00}, PatternParser.parseHex("00"));
+    }
+
+    @Test
+    public void testParseHex_Invalid() {
+        assertThrows(NumberFormatException.class, () -> PatternParser.parseHex(""));
+        assertThrows(NumberFormatException.class, () -> PatternParser.parseHex("0x"));
+        assertThrows(NumberFormatException.class, () -> PatternParser.parseHex("ABC"));
+        assertThrows(NumberFormatException.class, () -> PatternParser.parseHex("GG"));
+        assertThrows(NumberFormatException.class, () -> PatternParser.parseHex("-1"));
+    }
+}
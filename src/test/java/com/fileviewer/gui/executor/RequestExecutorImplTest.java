@@ -0,0 +1,148 @@
+package com.fileviewer.gui.executor;
+
+import com.fileviewer.observer.ProgObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.swing.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for RequestExecutorImpl class.
+ */
+public class RequestExecutorImplTest {
+    private static final Logger logger = LogManager.getLogger(RequestExecutorImplTest.class);
+
+    public RequestExecutorImplTest() {
+        logger.debug("Constructing RequestExecutorImplTest");
+    }
+
+    /**
+     * Returns a SwingWorker which waits on the latch before returning the value.
+     */
+    private static SwingWorker<String, Void> getWorker(CountDownLatch latch, String value) {
+        return new SwingWorker<>() {
+            @Override
+            protected String doInBackground() throws Exception {
+                latch.await(5, TimeUnit.SECONDS);
+
+                return value;
+            }
+        };
+    }
+
+    @Test
+    public void testSubmit_SupersedesPreviousRequest() throws Exception {
+        RequestExecutor requestExecutor = new RequestExecutorImpl();
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        ProgObserver firstObserver = Mockito.mock(ProgObserver.class);
+        SwingWorker<String, Void> first = getWorker(latch, "FIRST");
+        requestExecutor.submit(RequestExecutor.Channel.PAGE, first, firstObserver);
+
+        ProgObserver secondObserver = Mockito.mock(ProgObserver.class);
+        SwingWorker<String, Void> second = getWorker(latch, "SECOND");
+        requestExecutor.submit(RequestExecutor.Channel.PAGE, second, secondObserver);
+
+        latch.countDown();
+
+        assertEquals("SECOND", second.get(5, TimeUnit.SECONDS));
+        assertTrue(first.isCancelled());
+        Mockito.verify(firstObserver).setCancelled(true);
+        Mockito.verify(secondObserver, Mockito.never()).setCancelled(true);
+
+        assertFalse(requestExecutor.isLatest(RequestExecutor.Channel.PAGE, first));
+        assertTrue(requestExecutor.isLatest(RequestExecutor.Channel.PAGE, second));
+    }
+
+    @Test
+    public void testCancel_SupersedesWithoutNewRequest() throws Exception {
+        RequestExecutor requestExecutor = new RequestExecutorImpl();
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        ProgObserver observer = Mockito.mock(ProgObserver.class);
+        SwingWorker<String, Void> worker = getWorker(latch, "SEARCH");
+        requestExecutor.submit(RequestExecutor.Channel.SEARCH, worker, observer);
+
+        requestExecutor.cancel(RequestExecutor.Channel.SEARCH);
+        latch.countDown();
+
+        assertTrue(worker.isCancelled());
+        Mockito.verify(observer).setCancelled(true);
+        assertFalse(requestExecutor.isLatest(RequestExecutor.Channel.SEARCH, worker));
+
+        // Cancelling an empty channel does nothing.
+        requestExecutor.cancel(RequestExecutor.Channel.SEARCH);
+    }
+
+    @Test
+    public void testSubmit_ChannelsAreIndependent() throws Exception {
+        RequestExecutor requestExecutor = new RequestExecutorImpl();
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        ProgObserver pageObserver = Mockito.mock(ProgObserver.class);
+        SwingWorker<String, Void> page = getWorker(latch, "PAGE");
+        requestExecutor.submit(RequestExecutor.Channel.PAGE, page, pageObserver);
+
+        // The page request is still blocked, so rows must run on a thread of their own.
+        SwingWorker<String, Void> rows = getWorker(new CountDownLatch(0), "ROWS");
+        requestExecutor.submit(RequestExecutor.Channel.ROWS, rows,
+                Mockito.mock(ProgObserver.class));
+
+        assertEquals("ROWS", rows.get(5, TimeUnit.SECONDS));
+
+        latch.countDown();
+
+        assertEquals("PAGE", page.get(5, TimeUnit.SECONDS));
+        Mockito.verify(pageObserver, Mockito.never()).setCancelled(true);
+    }
+
+    @Test
+    public void testSubmit_SupersededRequestsOnlyDelayTheirChannel() throws Exception {
+        RequestExecutor requestExecutor = new RequestExecutorImpl();
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        // Superseded workers which are already running keep their thread until they return.
+        SwingWorker<?, ?>[] pages = new SwingWorker<?, ?>[RequestExecutor.Channel.values().length];
+        for (int i = 0; i < pages.length; i++) {
+            CountDownLatch started = new CountDownLatch(1);
+            pages[i] = new SwingWorker<String, Void>() {
+                    @Override
+                    protected String doInBackground() throws Exception {
+                        started.countDown();
+                        latch.await(5, TimeUnit.SECONDS);
+
+                        return "PAGE";
+                    }
+                };
+
+            requestExecutor.submit(RequestExecutor.Channel.PAGE, pages[i],
+                    Mockito.mock(ProgObserver.class));
+
+            // Only the first worker starts, as the others are cancelled while queued behind it.
+            if (i == 0)
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+        }
+
+        SwingWorker<String, Void> rows = getWorker(new CountDownLatch(0), "ROWS");
+        requestExecutor.submit(RequestExecutor.Channel.ROWS, rows,
+                Mockito.mock(ProgObserver.class));
+
+        assertEquals("ROWS", rows.get(2, TimeUnit.SECONDS));
+
+        latch.countDown();
+
+        assertEquals("PAGE", pages[pages.length - 1].get(5, TimeUnit.SECONDS));
+    }
+}
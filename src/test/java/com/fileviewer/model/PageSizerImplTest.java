@@ -0,0 +1,65 @@
+package com.fileviewer.model;
+
+import com.fileviewer.dataprocessing.DataViewer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit test for PageSizerImpl class.
+ */
+public class PageSizerImplTest {
+    private final static Logger logger = LogManager.getLogger(PageSizerImplTest.class);
+
+    public PageSizerImplTest() {
+        logger.debug("Constructing PageSizerImplTest");
+    }
+
+    @Test
+    public void testGetPageSize_FixedIgnoresTimings() {
+        PageSizer pageSizer = new PageSizerImpl();
+        pageSizer.setPageSize(DataViewer.DataType.Hex, 4096);
+
+        pageSizer.recordPage(DataViewer.DataType.Hex, 4096, 500_000_000L);
+
+        assertEquals(4096, pageSizer.getPageSize(DataViewer.DataType.Hex));
+        assertEquals(10000, pageSizer.getPageSize(DataViewer.DataType.Characters));
+    }
+
+    @Test
+    public void testGetPageSize_AdaptiveTunesToTarget() {
+        PageSizer pageSizer = new PageSizerImpl(50);
+        pageSizer.setPageSize(DataViewer.DataType.Hex, 10000);
+
+        // 10,000 bytes rendered in 50ms, and laid out in another 50ms.
+        pageSizer.recordPage(DataViewer.DataType.Hex, 10000, 50_000_000L);
+        pageSizer.recordLayoutTime(20_000_000L);
+        pageSizer.recordLayoutTime(30_000_000L);
+        pageSizer.recordPage(DataViewer.DataType.Hex, 10000, 0);
+
+        int pageSize = pageSizer.getPageSize(DataViewer.DataType.Hex);
+        assertEquals(4992, pageSize);
+
+        // Small differences leave the page boundaries where they are.
+        pageSizer.recordPage(DataViewer.DataType.Hex, pageSize, 28_000_000L);
+        assertEquals(pageSize, pageSizer.getPageSize(DataViewer.DataType.Hex));
+
+        // Other views are tuned separately.
+        assertEquals(10000, pageSizer.getPageSize(DataViewer.DataType.Characters));
+    }
+
+    @Test
+    public void testGetPageSize_AdaptiveClampsToLimits() {
+        PageSizer pageSizer = new PageSizerImpl(50);
+
+        pageSizer.recordPage(DataViewer.DataType.Bytes, 1000, 5_000_000_000L);
+        assertEquals(PageSizerImpl.MIN_PAGE_SIZE,
+                pageSizer.getPageSize(DataViewer.DataType.Bytes));
+
+        pageSizer.recordPage(DataViewer.DataType.Characters, 10000, 1);
+        assertEquals(PageSizerImpl.MAX_PAGE_SIZE,
+                pageSizer.getPageSize(DataViewer.DataType.Characters));
+    }
+}
@@ -0,0 +1,102 @@
+package com.fileviewer.observer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for ProgObserverImpl class.
+ */
+public class ProgObserverImplTest {
+    private static final Logger logger = LogManager.getLogger(ProgObserverImplTest.class);
+
+    public ProgObserverImplTest() {
+        logger.debug("Constructing ProgObserverImplTest");
+    }
+
+    /**
+     * Runs every queued notification, as the EDT would.
+     */
+    private static void runAll(Queue<Runnable> notifications) {
+        while (!notifications.isEmpty())
+            notifications.poll().run();
+    }
+
+    @Test
+    public void testNotifications_Coalesced() {
+        Queue<Runnable> notifications = new ArrayDeque<>();
+        ProgObserver observer = new ProgObserverImpl(notifications::add);
+
+        List<Double> seen = new ArrayList<>();
+        observer.addListener(o -> seen.add(o.getPercentage()));
+
+        observer.setPercentage(10);
+        observer.setPercentage(20);
+        observer.setPercentage(30);
+
+        assertEquals(1, notifications.size());
+        runAll(notifications);
+        assertEquals(List.of(30.0), seen);
+
+        observer.setIsFinished(true);
+        runAll(notifications);
+        assertEquals(2, seen.size());
+    }
+
+    @Test
+    public void testAddListener_NotifiedOfCurrentState() {
+        Queue<Runnable> notifications = new ArrayDeque<>();
+        ProgObserver observer = new ProgObserverImpl(notifications::add);
+
+        observer.setIsFinished(true);
+
+        List<Boolean> seen = new ArrayList<>();
+        observer.addListener(o -> seen.add(o.isFinished()));
+        runAll(notifications);
+
+        assertEquals(List.of(true), seen);
+    }
+
+    @Test
+    public void testSetProgress_ParallelReportsNeverGoBack() throws InterruptedException {
+        ProgObserver observer = new ProgObserverImpl(Runnable::run);
+
+        observer.setProgress(0, 1000);
+        Thread.sleep(5);
+        observer.setProgress(600, 1000);
+        observer.setProgress(400, 1000);
+
+        assertEquals(600, observer.getProcessedBytes());
+        assertEquals(1000, observer.getTotalBytes());
+        assertEquals(60.0, observer.getPercentage());
+        assertTrue(observer.getThroughput() > 0);
+        assertTrue(observer.getEstimatedTimeRemaining() >= 0);
+    }
+
+    @Test
+    public void testSetProgress_NewTotalRestarts() {
+        ProgObserver observer = new ProgObserverImpl(Runnable::run);
+
+        observer.setProgress(900, 1000);
+        observer.setProgress(10, 100);
+
+        assertEquals(10, observer.getProcessedBytes());
+        assertEquals(10.0, observer.getPercentage());
+    }
+
+    @Test
+    public void testEstimatedTimeRemaining_UnknownBeforeProgress() {
+        ProgObserver observer = new ProgObserverImpl(Runnable::run);
+
+        assertEquals(0.0, observer.getThroughput());
+        assertEquals(-1, observer.getEstimatedTimeRemaining());
+    }
+}